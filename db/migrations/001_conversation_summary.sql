@@ -0,0 +1,3 @@
+-- user-007: resumo incremental da conversa
+-- O resumo fica em conversations.context; esta coluna diz quantas mensagens ele cobre.
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS summarized_message_count integer DEFAULT 0;
@@ -0,0 +1,3 @@
+-- user-013: trava otimista da conversa
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0;
+UPDATE conversations SET version = 0 WHERE version IS NULL;
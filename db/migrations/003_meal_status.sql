@@ -0,0 +1,5 @@
+-- user-014: refeições aceitas na hora e estimadas em segundo plano
+ALTER TABLE meals ADD COLUMN IF NOT EXISTS status varchar(30) DEFAULT 'ESTIMATED';
+UPDATE meals SET status = 'ESTIMATED' WHERE status IS NULL;
+-- Refeições PENDING_ESTIMATE ainda não têm calorias
+ALTER TABLE meals ALTER COLUMN calories DROP NOT NULL;
@@ -0,0 +1,5 @@
+-- user-014: estimativas arrendadas por um nó e repetidas com backoff
+ALTER TABLE meals ADD COLUMN IF NOT EXISTS estimate_attempts integer DEFAULT 0;
+UPDATE meals SET estimate_attempts = 0 WHERE estimate_attempts IS NULL;
+ALTER TABLE meals ADD COLUMN IF NOT EXISTS estimate_next_attempt_at timestamp(6);
+ALTER TABLE meals ADD COLUMN IF NOT EXISTS estimate_locked_until timestamp(6);
@@ -0,0 +1,14 @@
+-- user-015: mensagens da conversa numa tabela append-only
+-- O histórico antigo continua em conversations.messages (JSONB) e é migrado na primeira nova rodada.
+CREATE TABLE IF NOT EXISTS conversation_messages (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    conversation_id bigint       NOT NULL REFERENCES conversations (id),
+    seq             integer      NOT NULL,
+    role            varchar(20)  NOT NULL,
+    content         text         NOT NULL,
+    sent_at         timestamp(6) NOT NULL
+);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_conversation_message_seq ON conversation_messages (conversation_id, seq);
+
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS message_count integer DEFAULT 0;
+UPDATE conversations SET message_count = 0 WHERE message_count IS NULL;
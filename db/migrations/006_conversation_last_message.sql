@@ -0,0 +1,4 @@
+-- user-018: última mensagem desnormalizada para a listagem do histórico
+-- Preenchidas no próximo append ou pelo LegacyConversationMigrator.
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_at timestamp(6);
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_preview varchar(200);
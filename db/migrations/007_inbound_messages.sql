@@ -0,0 +1,14 @@
+-- user-022: caixa de entrada persistente das mensagens do WhatsApp
+CREATE TABLE IF NOT EXISTS inbound_messages (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_number     varchar(20)   NOT NULL,
+    body            text          NOT NULL,
+    status          varchar(20)   NOT NULL,
+    attempts        integer       NOT NULL,
+    next_attempt_at timestamp(6)  NOT NULL,
+    locked_until    timestamp(6),
+    last_error      varchar(1000),
+    created_at      timestamp(6)  NOT NULL,
+    processed_at    timestamp(6)
+);
+CREATE INDEX IF NOT EXISTS idx_inbound_message_due ON inbound_messages (status, next_attempt_at);
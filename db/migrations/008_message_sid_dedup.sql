@@ -0,0 +1,6 @@
+-- user-023: webhooks repetidos do Twilio descartados pelo MessageSid
+ALTER TABLE inbound_messages ADD COLUMN IF NOT EXISTS message_sid varchar(100);
+-- Garantia final da deduplicação entre nós (NULLs não conflitam)
+CREATE UNIQUE INDEX IF NOT EXISTS idx_inbound_message_sid ON inbound_messages (message_sid);
+
+CREATE INDEX IF NOT EXISTS idx_conversation_whatsapp_message_id ON conversations (whatsapp_message_id);
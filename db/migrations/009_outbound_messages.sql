@@ -0,0 +1,30 @@
+-- user-025: fila persistente de envio e mensagens descartadas
+CREATE TABLE IF NOT EXISTS outbound_messages (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    to_number       varchar(20)   NOT NULL,
+    body            text          NOT NULL,
+    status          varchar(20)   NOT NULL,
+    attempts        integer       NOT NULL,
+    next_attempt_at timestamp(6)  NOT NULL,
+    locked_until    timestamp(6),
+    last_error      varchar(1000),
+    twilio_sid      varchar(100),
+    created_at      timestamp(6)  NOT NULL,
+    sent_at         timestamp(6)
+);
+CREATE INDEX IF NOT EXISTS idx_outbound_message_due ON outbound_messages (status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_outbound_message_to_number ON outbound_messages (to_number, status);
+
+CREATE TABLE IF NOT EXISTS outbound_dead_letters (
+    id                  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    outbound_message_id bigint        NOT NULL,
+    to_number           varchar(20)   NOT NULL,
+    body                text          NOT NULL,
+    attempts            integer       NOT NULL,
+    last_status         integer       NOT NULL,
+    last_error          varchar(1000),
+    created_at          timestamp(6)  NOT NULL,
+    dead_at             timestamp(6)  NOT NULL,
+    replayed_at         timestamp(6)
+);
+CREATE INDEX IF NOT EXISTS idx_outbound_dead_letter_replayed ON outbound_dead_letters (replayed_at, dead_at);
@@ -0,0 +1,7 @@
+-- user-022: resposta gravada por MessageSid, para novas tentativas não chamarem a IA de novo
+ALTER TABLE conversation_messages ADD COLUMN IF NOT EXISTS whatsapp_message_id varchar(100);
+CREATE INDEX IF NOT EXISTS idx_conversation_message_whatsapp ON conversation_messages (whatsapp_message_id);
+
+-- Uma única resposta na fila de envio por mensagem recebida
+ALTER TABLE outbound_messages ADD COLUMN IF NOT EXISTS reply_to_sid varchar(100);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_outbound_message_reply_to ON outbound_messages (reply_to_sid);
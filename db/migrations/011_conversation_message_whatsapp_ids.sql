@@ -0,0 +1,16 @@
+-- user-020: todos os MessageSids de uma rajada apontam para a resposta gravada
+CREATE TABLE IF NOT EXISTS conversation_message_whatsapp_ids (
+    conversation_message_id bigint       NOT NULL REFERENCES conversation_messages (id),
+    whatsapp_message_id     varchar(100) NOT NULL,
+    PRIMARY KEY (conversation_message_id, whatsapp_message_id)
+);
+CREATE INDEX IF NOT EXISTS idx_conversation_message_whatsapp_id
+    ON conversation_message_whatsapp_ids (whatsapp_message_id);
+
+-- Respostas gravadas antes desta migração: só o último SID da rajada
+INSERT INTO conversation_message_whatsapp_ids (conversation_message_id, whatsapp_message_id)
+SELECT id, whatsapp_message_id FROM conversation_messages WHERE whatsapp_message_id IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+-- A busca passa a ser pela tabela acima; a coluna fica só como chave da fila de envio
+DROP INDEX IF EXISTS idx_conversation_message_whatsapp;
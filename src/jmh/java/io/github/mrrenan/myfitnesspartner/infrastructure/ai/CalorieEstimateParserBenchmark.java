@@ -0,0 +1,126 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CalorieEstimateParser} with the previous regex + readTree
+ * implementation of SpringAiAdapter, on typical AI answers.
+ *
+ * Run with: ./gradlew jmh
+ * (add -prof gc through jmh.profilers to compare allocations)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalorieEstimateParserBenchmark {
+
+    private static final String PLAIN_JSON = """
+            {"calories": 350, "protein": 28.5, "carbohydrates": 30.0, "fat": 12.0,
+             "explanation": "Frango grelhado com arroz integral e salada", "confidence": 0.9}""";
+
+    private static final String FENCED_JSON = """
+            Claro! Aqui está a análise da sua refeição:
+            ```json
+            {
+              "calories": 350,
+              "protein": 28.5,
+              "carbohydrates": 30.0,
+              "fat": 12.0,
+              "explanation": "Frango grelhado com arroz integral e salada",
+              "confidence": 0.9
+            }
+            ```
+            """;
+
+    private static final String FREE_TEXT = """
+            Não consegui montar o JSON, mas pela descrição a refeição tem em torno de
+            650 calorias, com boa quantidade de proteína do frango e carboidrato do arroz.""";
+
+    @Param({"plain", "fenced", "text"})
+    private String shape;
+
+    private String response;
+    private ObjectMapper objectMapper;
+    private CalorieEstimateParser parser;
+
+    @Setup
+    public void setUp() {
+        response = switch (shape) {
+            case "plain" -> PLAIN_JSON;
+            case "fenced" -> FENCED_JSON;
+            default -> FREE_TEXT;
+        };
+        objectMapper = new ObjectMapper();
+        parser = new CalorieEstimateParser(objectMapper);
+    }
+
+    @Benchmark
+    public CalorieEstimate streaming() {
+        return parser.parse(response);
+    }
+
+    @Benchmark
+    public CalorieEstimate legacy() {
+        return legacyParse(response);
+    }
+
+    // Implementação anterior do SpringAiAdapter, sem os logs
+
+    private CalorieEstimate legacyParse(String response) {
+        try {
+            String clean = response.replaceAll("```json|```", "").trim();
+            JsonNode node = objectMapper.readTree(clean);
+
+            return CalorieEstimate.builder()
+                    .calories(node.path("calories").asInt())
+                    .protein(node.path("protein").asDouble())
+                    .carbohydrates(node.path("carbohydrates").asDouble())
+                    .fat(node.path("fat").asDouble())
+                    .explanation(node.path("explanation").asText())
+                    .confidence(node.path("confidence").asDouble(0.8))
+                    .build();
+        } catch (Exception e) {
+            return legacyFallback(response);
+        }
+    }
+
+    private CalorieEstimate legacyFallback(String aiResponse) {
+        String[] words = aiResponse.split("\\s+");
+        for (String word : words) {
+            try {
+                int number = Integer.parseInt(word.replaceAll("[^0-9]", ""));
+                if (number >= 50 && number <= 3000) {
+                    return CalorieEstimate.builder()
+                            .calories(number)
+                            .protein(0.0)
+                            .carbohydrates(0.0)
+                            .fat(0.0)
+                            .explanation("Estimativa baseada em análise de texto (sem detalhes de macros)")
+                            .confidence(0.5)
+                            .build();
+                }
+            } catch (NumberFormatException ignored) {
+                // continua buscando
+            }
+        }
+        throw new RuntimeException("Não foi possível extrair informações calóricas da resposta da IA");
+    }
+}
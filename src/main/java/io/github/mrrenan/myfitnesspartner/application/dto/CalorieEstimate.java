@@ -10,7 +10,7 @@ import lombok.NoArgsConstructor;
  * Returned by GeminiService after analyzing a meal description.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CalorieEstimate {
@@ -0,0 +1,9 @@
+package io.github.mrrenan.myfitnesspartner.application.dto;
+
+/**
+ * AI reply already saved for a WhatsApp message.
+ * messageSid is the SID the reply was first queued under (the last message of its burst),
+ * so re-queueing it for any message of the burst hits the same outbox entry.
+ */
+public record StoredReply(String messageSid, String content) {
+}
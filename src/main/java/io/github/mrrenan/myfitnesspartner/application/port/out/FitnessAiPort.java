@@ -1,8 +1,39 @@
 package io.github.mrrenan.myfitnesspartner.application.port.out;
 
 import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface FitnessAiPort {
     String chat(String userMessage, String conversationHistory);
+    Flux<String> chatStream(String userMessage, String conversationHistory);
     CalorieEstimate analyzeFood(String description);
+
+    /**
+     * Non-blocking variant of {@link #chat}: no thread is held while the AI answers.
+     */
+    Mono<String> chatAsync(String userMessage, String conversationHistory);
+
+    /**
+     * Non-blocking variant of {@link #analyzeFood}: no thread is held while the AI answers.
+     */
+    CompletableFuture<CalorieEstimate> analyzeFoodAsync(String description);
+
+    /**
+     * Estimates several meals at once. The result has one estimate per
+     * description, in the same order.
+     */
+    List<CalorieEstimate> analyzeFoods(List<String> descriptions);
+
+    /**
+     * Folds older conversation messages into the running summary.
+     *
+     * @param previousSummary current summary, or null for the first one
+     * @param messages messages to fold, one "ROLE: content" per line
+     * @return the updated summary
+     */
+    String summarize(String previousSummary, String messages);
 }
@@ -0,0 +1,171 @@
+package io.github.mrrenan.myfitnesspartner.application.service;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.StoredReply;
+import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
+import io.github.mrrenan.myfitnesspartner.domain.model.ConversationMessage;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationMessageRepository;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only access to the messages of a conversation.
+ * A turn inserts its rows and bumps message_count, so the write cost does not
+ * grow with the history; reads fetch only the slice they need by seq.
+ * Conversations still holding the legacy JSONB history are served from it
+ * and migrated on their first append (or by LegacyConversationMigrator).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationMessageStore {
+
+    private final ConversationMessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+
+    /**
+     * Últimas limit mensagens a partir de fromSeq, da mais antiga para a mais recente
+     */
+    public List<Conversation.Message> tail(Conversation conversation, int fromSeq, int limit) {
+        if (conversation.getId() == null || limit <= 0) {
+            return List.of();
+        }
+        if (conversation.hasLegacyMessages()) {
+            List<Conversation.Message> legacy = conversation.getMessages();
+            int from = Math.max(fromSeq, legacy.size() - limit);
+            return from >= legacy.size() ? List.of() : List.copyOf(legacy.subList(from, legacy.size()));
+        }
+
+        List<Conversation.Message> latest = new ArrayList<>(messageRepository
+                .findLatest(conversation.getId(), fromSeq, PageRequest.of(0, limit))
+                .stream()
+                .map(ConversationMessage::toMessage)
+                .toList());
+        Collections.reverse(latest);
+        return latest;
+    }
+
+    /**
+     * Mensagens com seq em [fromSeq, toSeq)
+     */
+    public List<Conversation.Message> range(Conversation conversation, int fromSeq, int toSeq) {
+        if (conversation.getId() == null || toSeq <= fromSeq) {
+            return List.of();
+        }
+        if (conversation.hasLegacyMessages()) {
+            List<Conversation.Message> legacy = conversation.getMessages();
+            return List.copyOf(legacy.subList(Math.min(fromSeq, legacy.size()), Math.min(toSeq, legacy.size())));
+        }
+        return messageRepository.findRange(conversation.getId(), fromSeq, toSeq).stream()
+                .map(ConversationMessage::toMessage)
+                .toList();
+    }
+
+    /**
+     * Histórico completo, para as telas de histórico
+     */
+    public List<Conversation.Message> all(Conversation conversation) {
+        if (conversation.getId() == null) {
+            return List.of();
+        }
+        if (conversation.hasLegacyMessages()) {
+            return List.copyOf(conversation.getMessages());
+        }
+        return messageRepository.findAllByConversationId(conversation.getId()).stream()
+                .map(ConversationMessage::toMessage)
+                .toList();
+    }
+
+    /**
+     * Acrescenta as mensagens ao fim da conversa. Deve rodar dentro de uma transação:
+     * a reserva de seq trava a linha da conversa até o commit, então rodadas
+     * concorrentes na mesma conversa ficam em ordem sem reescrever nada.
+     * Atualiza messageCount e a última mensagem do objeto recebido.
+     */
+    public void append(Conversation conversation, List<Conversation.Message> messages) {
+        append(conversation, messages, List.of());
+    }
+
+    /**
+     * Como {@link #append(Conversation, List)}, marcando a última mensagem (a resposta da IA)
+     * com os MessageSids do WhatsApp que ela responde (todos os da rajada, em ordem)
+     */
+    public void append(Conversation conversation, List<Conversation.Message> messages,
+                       List<String> whatsappMessageIds) {
+        Long id = conversation.getId();
+        if (conversation.hasLegacyMessages()) {
+            moveLegacyMessages(conversation);
+        }
+
+        Conversation.Message last = messages.get(messages.size() - 1);
+        String preview = Conversation.preview(last.getContent());
+        conversationRepository.advanceMessages(id, messages.size(), last.getTimestamp(), preview);
+        int end = conversationRepository.findMessageCount(id);
+        insert(id, end - messages.size(), messages, whatsappMessageIds);
+        conversation.setMessageCount(end);
+        conversation.setLastMessageAt(last.getTimestamp());
+        conversation.setLastMessagePreview(preview);
+    }
+
+    /**
+     * Migra uma conversa que ainda tem o histórico só no JSONB. Deve rodar dentro de uma transação.
+     */
+    public void migrateLegacy(Long conversationId) {
+        conversationRepository.findById(conversationId)
+                .filter(conversation -> conversation.getMessageCount() == 0)
+                .ifPresent(this::moveLegacyMessages);
+    }
+
+    /**
+     * Move o histórico do JSONB para conversation_messages (seq 0..n-1).
+     * Só a transação que reivindica a conversa insere; as demais seguem direto para o append.
+     */
+    private void moveLegacyMessages(Conversation conversation) {
+        List<Conversation.Message> legacy = conversation.getMessages() != null
+                ? List.copyOf(conversation.getMessages())
+                : List.of();
+        Conversation.Message last = legacy.isEmpty() ? null : legacy.get(legacy.size() - 1);
+        int claimed = conversationRepository.claimLegacyMessages(conversation.getId(), legacy.size(),
+                last != null ? last.getTimestamp() : null,
+                last != null ? Conversation.preview(last.getContent()) : null);
+        if (claimed == 1 && !legacy.isEmpty()) {
+            insert(conversation.getId(), 0, legacy, List.of());
+            log.info("Conversa {} migrada: {} mensagens movidas para conversation_messages",
+                    conversation.getId(), legacy.size());
+        }
+        conversation.setMessages(new ArrayList<>());
+    }
+
+    /**
+     * Resposta já gravada para a mensagem do WhatsApp, sozinha ou numa rajada, se a rodada dela foi salva.
+     * Só procura nas conversas do próprio remetente.
+     */
+    public Optional<StoredReply> replyTo(String whatsappNumber, String whatsappMessageId) {
+        return messageRepository.findRepliesTo(whatsappNumber, whatsappMessageId).stream()
+                .findFirst()
+                .map(reply -> new StoredReply(reply.getWhatsappMessageId(), reply.getContent()));
+    }
+
+    private void insert(Long conversationId, int firstSeq, List<Conversation.Message> messages,
+                        List<String> whatsappMessageIds) {
+        Conversation reference = conversationRepository.getReferenceById(conversationId);
+        List<ConversationMessage> rows = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            rows.add(ConversationMessage.of(reference, firstSeq + i, messages.get(i)));
+        }
+        if (!whatsappMessageIds.isEmpty()) {
+            ConversationMessage reply = rows.get(rows.size() - 1);
+            reply.setWhatsappMessageId(whatsappMessageIds.get(whatsappMessageIds.size() - 1));
+            reply.setAnsweredMessageIds(new HashSet<>(whatsappMessageIds));
+        }
+        messageRepository.saveAll(rows);
+    }
+}
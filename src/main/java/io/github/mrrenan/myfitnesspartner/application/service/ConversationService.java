@@ -1,10 +1,16 @@
 package io.github.mrrenan.myfitnesspartner.application.service;
 
+import io.github.mrrenan.myfitnesspartner.application.dto.StoredReply;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatResponse;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationSummaryResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CursorPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service interface for conversation management.
@@ -19,9 +25,41 @@ public interface ConversationService {
     ChatResponse chat(ChatRequest request);
 
     /**
-     * Get all conversations for a user
+     * Process a user message and stream the AI response as it is generated.
+     * The full assistant message is saved to the conversation when the stream completes.
      */
-    List<ConversationResponse> getHistory(String whatsappNumber);
+    Flux<String> chatStream(ChatRequest request);
+
+    /**
+     * Same as {@link #chat}, but no thread is held while the AI answers.
+     * Database work runs in short transactions before and after the AI call.
+     *
+     * @param whatsappMessageIds Twilio MessageSids of the WhatsApp messages answered by this
+     *                           turn (a burst is answered once), empty for other channels
+     */
+    Mono<ChatResponse> chatAsync(ChatRequest request, List<String> whatsappMessageIds);
+
+    /**
+     * The AI reply already saved for a sender's WhatsApp message (by its Twilio MessageSid),
+     * whether it was answered alone or in a burst.
+     * Lets a retried message be answered again without a new AI call.
+     */
+    Optional<StoredReply> findWhatsAppReply(String whatsappNumber, String whatsappMessageId);
+
+    /**
+     * Get a page of a user's conversations, newest first, without their messages.
+     *
+     * @param cursor nextCursor from the previous page, or null for the first page
+     */
+    CursorPage<ConversationSummaryResponse> getHistory(String whatsappNumber, String cursor, int limit);
+
+    /**
+     * Get a page of one conversation's messages, newest page first, in chronological order within the page.
+     *
+     * @param cursor nextCursor from the previous page (older messages), or null for the latest ones
+     */
+    CursorPage<ConversationResponse.MessageResponse> getMessages(
+            String whatsappNumber, Long conversationId, String cursor, int limit);
 
     /**
      * Get the most recent conversation for a user
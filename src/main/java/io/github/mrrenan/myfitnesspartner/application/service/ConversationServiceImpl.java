@@ -1,22 +1,38 @@
 package io.github.mrrenan.myfitnesspartner.application.service;
 
+import io.github.mrrenan.myfitnesspartner.application.dto.StoredReply;
 import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
 import io.github.mrrenan.myfitnesspartner.domain.exception.UserNotFoundException;
 import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
 import io.github.mrrenan.myfitnesspartner.domain.model.User;
 import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationRepository;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationSummary;
 import io.github.mrrenan.myfitnesspartner.domain.repository.UserRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.cache.ConversationTailCache;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatResponse;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationSummaryResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CursorPage;
 import io.github.mrrenan.myfitnesspartner.presentation.mapper.ConversationMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,44 +44,31 @@ public class ConversationServiceImpl implements ConversationService{
     private final UserRepository userRepository;
     private final FitnessAiPort fitnessAiPort;
     private final ConversationMapper conversationMapper;
+    private final TimedTransactions transactions;
+    private final ConversationSummarizer conversationSummarizer;
+    private final ConversationMessageStore messageStore;
+    private final ConversationTailCache tailCache;
+    private final AppProperties appProperties;
 
-    // Quantas mensagens anteriores enviar como contexto para a IA
-    private static final int CONTEXT_MESSAGE_COUNT = 6;
+    // Tamanho máximo de página nas listagens paginadas
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Estimativa grosseira de caracteres por token, suficiente para o orçamento do prompt
+    private static final int CHARS_PER_TOKEN = 4;
 
     @Override
-    @Transactional
     public ChatResponse chat(ChatRequest request) {
-        // 1. Busca o usuário
-        User user = findUserByWhatsapp(request.getWhatsappNumber());
-
-        // 2. Busca a conversa mais recente ou cria uma nova
-        Conversation conversation = conversationRepository
-                .findFirstByUserOrderByCreatedAtDesc(user)
-                .orElseGet(() -> {
-                    log.info("Creating new conversation for user: {}", request.getWhatsappNumber());
-                    return Conversation.builder()
-                            .user(user)
-                            .build();
-                });
-
-        // 3. Adiciona mensagem do usuário
-        conversation.addUserMessage(request.getMessage());
-
-        // 4. Monta contexto com últimas mensagens
-        String context = buildContext(conversation);
+        // 1. Lê usuário e conversa numa transação curta
+        ChatTurn turn = transactions.execute("chat.load", status -> startTurn(request, List.of()));
 
-        // 5. Chama a IA
-        log.debug("Calling AI with context of {} messages", CONTEXT_MESSAGE_COUNT);
-        String aiResponse = fitnessAiPort.chat(request.getMessage(), context);
+        // 2. Chama a IA fora de transação: nenhuma conexão do pool fica presa durante a geração
+        log.debug("Calling AI with context of ~{} tokens", estimateTokens(turn.context()));
+        String aiResponse = fitnessAiPort.chat(request.getMessage(), turn.context());
 
-        // 6. Adiciona resposta da IA na conversa
-        conversation.addAssistantMessage(aiResponse);
+        // 3. Salva numa transação curta
+        Conversation saved = completeTurn(turn, aiResponse);
 
-        // 7. Salva
-        Conversation saved = conversationRepository.save(conversation);
-        log.info("Conversation saved with ID: {}", saved.getId());
-
-        // 8. Retorna resposta
+        // 4. Retorna resposta
         return ChatResponse.builder()
                 .conversationId(saved.getId())
                 .userMessage(request.getMessage())
@@ -74,13 +77,103 @@ public class ConversationServiceImpl implements ConversationService{
                 .build();
     }
 
+    @Override
+    public Flux<String> chatStream(ChatRequest request) {
+        // 1. Lê usuário e conversa numa transação curta — a conexão não fica presa durante o stream
+        ChatTurn turn = transactions.execute("chat_stream.load", status -> startTurn(request, List.of()));
+
+        return Flux.defer(() -> {
+            // 2. Um único stream da IA, compartilhado entre o cliente e a gravação:
+            // se o cliente desconecta, a IA termina e a rodada é salva mesmo assim
+            Flux<String> tokens = fitnessAiPort.chatStream(request.getMessage(), turn.context())
+                    .doOnError(e -> log.error("Erro no stream da IA para {}: {}",
+                            request.getWhatsappNumber(), e.getMessage()))
+                    .publish()
+                    .autoConnect(2);
+
+            // 3. Ao final do stream, salva a resposta completa fora da thread de I/O
+            Mono<String> persisted = tokens.collect(Collectors.joining())
+                    .publishOn(Schedulers.boundedElastic())
+                    .flatMap(answer -> Mono.<String>fromRunnable(() -> completeTurn(turn, answer)))
+                    .cache();
+            persisted.subscribe(null, e -> log.warn("Rodada do stream de {} não foi salva: {}",
+                    request.getWhatsappNumber(), e.getMessage()));
+
+            // O cliente recebe os trechos e termina depois que a rodada foi salva
+            return tokens.concatWith(persisted);
+        });
+    }
+
+    @Override
+    public Mono<ChatResponse> chatAsync(ChatRequest request, List<String> whatsappMessageIds) {
+        // 1. Transação curta para carregar a conversa, fora da thread de quem chamou
+        return Mono.fromCallable(() -> transactions.execute("chat.load",
+                        status -> startTurn(request, whatsappMessageIds)))
+                .subscribeOn(Schedulers.boundedElastic())
+                // 2. Chamada à IA sem thread presa
+                .flatMap(turn -> fitnessAiPort.chatAsync(request.getMessage(), turn.context())
+                        // 3. Salva a resposta em outra transação curta
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(aiResponse -> ChatResponse.builder()
+                                .conversationId(completeTurn(turn, aiResponse).getId())
+                                .userMessage(request.getMessage())
+                                .aiResponse(aiResponse)
+                                .timestamp(LocalDateTime.now())
+                                .build()));
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<ConversationResponse> getHistory(String whatsappNumber) {
+    public Optional<StoredReply> findWhatsAppReply(String whatsappNumber, String whatsappMessageId) {
+        return messageStore.replyTo(whatsappNumber, whatsappMessageId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ConversationSummaryResponse> getHistory(String whatsappNumber, String cursor, int limit) {
         log.debug("Getting conversation history for user: {}", whatsappNumber);
         User user = findUserByWhatsapp(whatsappNumber);
-        List<Conversation> conversations = conversationRepository.findByUserOrderByCreatedAtDesc(user);
-        return conversationMapper.toResponseList(conversations);
+        int size = pageSize(limit);
+
+        // Uma linha a mais só para saber se existe próxima página
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<ConversationSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = conversationRepository.findSummaries(user, page);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = conversationRepository.findSummariesBefore(user, after.createdAt(), after.id(), page);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<ConversationSummary> items = hasMore ? rows.subList(0, size) : rows;
+        return CursorPage.<ConversationSummaryResponse>builder()
+                .items(items.stream().map(conversationMapper::toSummaryResponse).toList())
+                .nextCursor(hasMore ? HistoryCursor.of(items.get(items.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ConversationResponse.MessageResponse> getMessages(
+            String whatsappNumber, Long conversationId, String cursor, int limit) {
+        log.debug("Getting messages of conversation {} for user: {}", conversationId, whatsappNumber);
+        User user = findUserByWhatsapp(whatsappNumber);
+        Conversation conversation = conversationRepository.findByIdAndUser(conversationId, user)
+                .orElseThrow(() -> new IllegalArgumentException("Conversation not found with ID: " + conversationId));
+
+        // O cursor é a seq da mensagem mais antiga já entregue
+        int total = conversation.countMessages();
+        int before = cursor == null || cursor.isBlank() ? total : Math.min(parseSeq(cursor), total);
+        int from = Math.max(0, before - pageSize(limit));
+
+        List<Conversation.Message> messages = messageStore.range(conversation, from, before);
+        return CursorPage.<ConversationResponse.MessageResponse>builder()
+                .items(conversationMapper.toMessageResponses(messages))
+                .nextCursor(from > 0 ? String.valueOf(from) : null)
+                .hasMore(from > 0)
+                .build();
     }
 
     @Override
@@ -89,23 +182,169 @@ public class ConversationServiceImpl implements ConversationService{
         log.debug("Getting last conversation for user: {}", whatsappNumber);
         User user = findUserByWhatsapp(whatsappNumber);
         return conversationRepository.findFirstByUserOrderByCreatedAtDesc(user)
-                .map(conversationMapper::toResponse)
+                .map(c -> conversationMapper.toResponse(c, messageStore.all(c)))
                 .orElse(null);
     }
 
     /**
-     * Monta o contexto das últimas N mensagens para enviar para a IA
+     * Carrega (ou cria) a conversa e monta o contexto com a nova mensagem do usuário.
+     * Nada é salvo aqui.
+     */
+    private ChatTurn startTurn(ChatRequest request, List<String> whatsappMessageIds) {
+        User user = findUserByWhatsapp(request.getWhatsappNumber());
+        int tailLimit = appProperties.getAi().getContext().tailLimit();
+
+        // Usuário ativo: a cauda em cache dispensa a leitura da conversa
+        Optional<ConversationTailCache.Tail> cached = tailCache.get(user.getId())
+                .filter(tail -> isCurrent(user, tail));
+        Conversation conversation;
+        List<Conversation.Message> history;
+        if (cached.isPresent()) {
+            conversation = cached.get().toConversation(user);
+            history = cached.get().unsummarized();
+        } else {
+            conversation = conversationRepository
+                    .findFirstByUserOrderByCreatedAtDesc(user)
+                    .orElseGet(() -> {
+                        log.info("Creating new conversation for user: {}", request.getWhatsappNumber());
+                        return Conversation.builder()
+                                .user(user)
+                                .build();
+                    });
+            history = messageStore.tail(conversation, conversation.getSummarizedCount(), tailLimit);
+        }
+
+        Conversation.Message userMessage = message("user", request.getMessage());
+        return new ChatTurn(conversation, userMessage, conversation.countMessages(), history,
+                buildContext(conversation, history, userMessage), whatsappMessageIds);
+    }
+
+    /**
+     * Confere a cauda em cache com os contadores da conversa no banco (uma linha, sem as mensagens).
+     * Com vários nós, outro nó pode ter gravado rodadas ou um resumo que este cache não viu.
+     */
+    private boolean isCurrent(User user, ConversationTailCache.Tail tail) {
+        boolean current = conversationRepository.findLatestVersion(user, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .filter(version -> version.matches(tail.conversationId(), tail.messageCount(),
+                        tail.summarizedCount()))
+                .isPresent();
+        if (!current) {
+            log.debug("Cauda em cache do usuário {} desatualizada, lendo a conversa do banco", user.getId());
+            tailCache.invalidate(user.getId());
+        }
+        return current;
+    }
+
+    /**
+     * Grava a rodada (mensagem do usuário + resposta da IA) numa transação curta.
+     * As mensagens são só acrescentadas: o histórico já salvo não é relido nem reescrito,
+     * e rodadas concorrentes na mesma conversa recebem seqs distintos.
      */
-    private String buildContext(Conversation conversation) {
-        List<Conversation.Message> lastMessages = conversation.getLastMessages(CONTEXT_MESSAGE_COUNT);
+    private Conversation completeTurn(ChatTurn turn, String aiResponse) {
+        List<Conversation.Message> turnMessages = List.of(turn.userMessage(), message("assistant", aiResponse));
+
+        Conversation saved = transactions.execute("chat.save", status -> {
+            Conversation conversation = turn.conversation().getId() == null
+                    ? conversationRepository.save(turn.conversation())
+                    : turn.conversation();
+            // A resposta guarda os MessageSids: uma nova tentativa de qualquer um deles a reaproveita
+            messageStore.append(conversation, turnMessages, turn.whatsappMessageIds());
+            if (!turn.whatsappMessageIds().isEmpty()) {
+                String lastMessageId = turn.whatsappMessageIds().get(turn.whatsappMessageIds().size() - 1);
+                conversationRepository.updateWhatsappMessageId(conversation.getId(), lastMessageId);
+                conversation.setWhatsappMessageId(lastMessageId);
+            }
+            log.info("Conversation saved with ID: {}", conversation.getId());
+            conversationSummarizer.requestSummary(conversation);
+            return conversation;
+        });
 
-        if (lastMessages.isEmpty()) {
-            return "";
+        // Write-through depois do commit
+        tailCache.recordTurn(turn.conversation().getUser().getId(), saved, turn.startCount(),
+                turn.history(), turnMessages);
+        return saved;
+    }
+
+    /**
+     * Monta o contexto para a IA: resumo da conversa + mensagens mais recentes
+     * ainda fora do resumo, dentro do orçamento de tokens (app.ai.context).
+     * history é a cauda fora do resumo, vinda do cache ou do banco.
+     */
+    private String buildContext(Conversation conversation, List<Conversation.Message> history,
+                                Conversation.Message pending) {
+        int remaining = appProperties.getAi().getContext().getTokenBudget();
+        StringBuilder context = new StringBuilder();
+
+        String summary = conversation.getContext();
+        if (summary != null && !summary.isBlank()) {
+            String summaryLine = "RESUMO: " + summary;
+            summaryLine = truncateToTokens(summaryLine, remaining / 2);
+            context.append(summaryLine);
+            remaining -= estimateTokens(summaryLine);
         }
 
-        return lastMessages.stream()
-                .map(m -> m.getRole().toUpperCase() + ": " + m.getContent())
-                .collect(Collectors.joining("\n"));
+        List<Conversation.Message> messages = new ArrayList<>(history);
+        messages.add(pending);
+
+        // Da mensagem mais recente para a mais antiga, até acabar o orçamento
+        Deque<String> tail = new ArrayDeque<>();
+        for (int i = messages.size() - 1; i >= 0 && remaining > 0; i--) {
+            Conversation.Message m = messages.get(i);
+            String line = m.getRole().toUpperCase() + ": " + m.getContent();
+            int tokens = estimateTokens(line);
+            if (tokens > remaining) {
+                if (!tail.isEmpty()) {
+                    break;
+                }
+                // Mesmo a última mensagem sozinha estoura o orçamento: corta
+                line = truncateToTokens(line, remaining);
+                tokens = remaining;
+            }
+            tail.addFirst(line);
+            remaining -= tokens;
+        }
+
+        for (String line : tail) {
+            if (!context.isEmpty()) {
+                context.append("\n");
+            }
+            context.append(line);
+        }
+        return context.toString();
+    }
+
+    private static Conversation.Message message(String role, String content) {
+        return Conversation.Message.builder()
+                .role(role)
+                .content(content)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static int parseSeq(String cursor) {
+        try {
+            int seq = Integer.parseInt(cursor);
+            if (seq < 0) {
+                throw new NumberFormatException();
+            }
+            return seq;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private static String truncateToTokens(String text, int maxTokens) {
+        int maxChars = maxTokens * CHARS_PER_TOKEN;
+        return text.length() <= maxChars ? text : text.substring(0, Math.max(0, maxChars - 1)) + "…";
     }
 
     private User findUserByWhatsapp(String whatsappNumber) {
@@ -115,4 +354,40 @@ public class ConversationServiceImpl implements ConversationService{
                     return new UserNotFoundException(whatsappNumber);
                 });
     }
+
+    /**
+     * Posição (createdAt, id) da última conversa entregue, opaca para o cliente
+     */
+    private record HistoryCursor(LocalDateTime createdAt, Long id) {
+
+        static HistoryCursor of(ConversationSummary summary) {
+            return new HistoryCursor(summary.createdAt(), summary.id());
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new HistoryCursor(
+                        LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    /**
+     * Conversa carregada, mensagem do usuário e contexto montado para uma rodada de chat.
+     * startCount e history permitem atualizar o cache da cauda sem reler a conversa.
+     * whatsappMessageIds são os MessageSids do Twilio respondidos, quando a mensagem veio pelo WhatsApp.
+     */
+    private record ChatTurn(Conversation conversation, Conversation.Message userMessage, int startCount,
+                            List<Conversation.Message> history, String context, List<String> whatsappMessageIds) {
+    }
 }
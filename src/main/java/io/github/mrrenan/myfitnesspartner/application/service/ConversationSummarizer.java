@@ -0,0 +1,142 @@
+package io.github.mrrenan.myfitnesspartner.application.service;
+
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.cache.ConversationTailCache;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the rolling summary of a conversation up to date.
+ * Older messages (everything except the most recent ones) are folded into
+ * Conversation.context in the background, a batch at a time, so the chat
+ * prompt can send summary + recent tail instead of the whole history.
+ */
+@Slf4j
+@Component
+public class ConversationSummarizer {
+
+    private final ConversationRepository conversationRepository;
+    private final ConversationMessageStore messageStore;
+    private final ConversationTailCache tailCache;
+    private final FitnessAiPort fitnessAiPort;
+    private final AppProperties.Context properties;
+    private final Executor taskExecutor;
+
+    // Conversas com resumo em andamento, para não disparar dois ao mesmo tempo
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public ConversationSummarizer(
+            ConversationRepository conversationRepository,
+            ConversationMessageStore messageStore,
+            ConversationTailCache tailCache,
+            FitnessAiPort fitnessAiPort,
+            AppProperties appProperties,
+            @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.conversationRepository = conversationRepository;
+        this.messageStore = messageStore;
+        this.tailCache = tailCache;
+        this.fitnessAiPort = fitnessAiPort;
+        this.properties = appProperties.getAi().getContext();
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Agenda a atualização do resumo se houver mensagens antigas suficientes.
+     * Dentro de uma transação, só dispara depois do commit.
+     */
+    public void requestSummary(Conversation conversation) {
+        Long id = conversation.getId();
+        if (id == null || pendingMessages(conversation) < properties.getSummarizeBatchSize()) {
+            return;
+        }
+        if (!running.add(id)) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        submit(id);
+                    } else {
+                        running.remove(id);
+                    }
+                }
+            });
+        } else {
+            submit(id);
+        }
+    }
+
+    /**
+     * Dobra as mensagens antigas ainda fora do resumo.
+     * A chamada à IA acontece fora de transação; o resumo é gravado só se
+     * nenhum outro resumo tiver sido salvo no meio tempo.
+     */
+    void summarize(Long conversationId) {
+        Conversation conversation = conversationRepository.findById(conversationId).orElse(null);
+        if (conversation == null) {
+            return;
+        }
+
+        int from = conversation.getSummarizedCount();
+        int to = conversation.countMessages() - properties.getRecentMessages();
+        if (to - from < properties.getSummarizeBatchSize()) {
+            return;
+        }
+
+        List<Conversation.Message> toFold = messageStore.range(conversation, from, to);
+        String transcript = toFold.stream()
+                .map(m -> m.getRole().toUpperCase() + ": " + m.getContent())
+                .collect(Collectors.joining("\n"));
+
+        String summary = fitnessAiPort.summarize(conversation.getContext(), transcript);
+
+        int updated = conversationRepository.updateSummary(conversationId, summary, to, from);
+        if (updated == 0) {
+            log.debug("Resumo da conversa {} já foi atualizado por outra execução", conversationId);
+        } else {
+            log.info("Resumo da conversa {} atualizado: {} mensagens resumidas", conversationId, to);
+            if (conversation.getUser() != null) {
+                tailCache.applySummary(conversation.getUser().getId(), conversationId, summary, to);
+            }
+        }
+    }
+
+    private int pendingMessages(Conversation conversation) {
+        return conversation.countMessages()
+                - properties.getRecentMessages()
+                - conversation.getSummarizedCount();
+    }
+
+    private void submit(Long conversationId) {
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    summarize(conversationId);
+                } catch (Exception e) {
+                    log.warn("Falha ao resumir conversa {}: {}", conversationId, e.getMessage());
+                } finally {
+                    running.remove(conversationId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(conversationId);
+            log.warn("Fila cheia, resumo da conversa {} fica para a próxima mensagem", conversationId);
+        }
+    }
+}
@@ -49,6 +49,17 @@ public interface DailyGoalService {
      */
     DailyGoalResponse addCaloriesToToday(String whatsappNumber, int calories);
 
+    /**
+     * Add calories to the goal of a specific date
+     * Used when a meal's calories are only known later (background estimate, backdated meal)
+     *
+     * @param whatsappNumber user's WhatsApp number
+     * @param date day the meal belongs to
+     * @param calories calories to add
+     * @return updated daily goal
+     */
+    DailyGoalResponse addCaloriesToDate(String whatsappNumber, LocalDate date, int calories);
+
     /**
      * Reset today's goal (set calories consumed back to 0)
      * Useful if user wants to restart the day
@@ -75,14 +75,19 @@ public class DailyGoalServiceImpl implements DailyGoalService {
     @Override
     @Transactional
     public DailyGoalResponse addCaloriesToToday(String whatsappNumber, int calories) {
-        log.info("Adding {} calories to today's goal for user: {}", calories, whatsappNumber);
+        return addCaloriesToDate(whatsappNumber, LocalDate.now(), calories);
+    }
+
+    @Override
+    @Transactional
+    public DailyGoalResponse addCaloriesToDate(String whatsappNumber, LocalDate date, int calories) {
+        log.info("Adding {} calories to the {} goal for user: {}", calories, date, whatsappNumber);
 
         User user = findUserByWhatsapp(whatsappNumber);
-        LocalDate today = LocalDate.now();
 
-        // Get or create today's goal
-        DailyGoal dailyGoal = dailyGoalRepository.findByUserAndDate(user, today)
-                .orElseGet(() -> createDailyGoal(user, today));
+        // Get or create the goal for the date
+        DailyGoal dailyGoal = dailyGoalRepository.findByUserAndDate(user, date)
+                .orElseGet(() -> createDailyGoal(user, date));
 
         // Add calories
         dailyGoal.addMeal(calories);
@@ -0,0 +1,82 @@
+package io.github.mrrenan.myfitnesspartner.application.service;
+
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Moves histories still stored in the legacy JSONB column to conversation_messages
+ * in the background after startup, one short transaction per conversation,
+ * so listings never have to read the JSONB column. Also fills the denormalized
+ * last message columns of conversations appended before they existed.
+ */
+@Slf4j
+@Component
+public class LegacyConversationMigrator {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final ConversationRepository conversationRepository;
+    private final ConversationMessageStore messageStore;
+    private final TimedTransactions transactions;
+    private final Executor taskExecutor;
+
+    public LegacyConversationMigrator(
+            ConversationRepository conversationRepository,
+            ConversationMessageStore messageStore,
+            TimedTransactions transactions,
+            @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.conversationRepository = conversationRepository;
+        this.messageStore = messageStore;
+        this.transactions = transactions;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        try {
+            taskExecutor.execute(this::migrateAll);
+        } catch (RejectedExecutionException e) {
+            log.warn("Fila cheia, migração das conversas antigas fica para o próximo início");
+        }
+    }
+
+    /**
+     * Percorre as conversas antigas por id; uma falha não interrompe as demais
+     */
+    void migrateAll() {
+        int backfilled = conversationRepository.backfillLastMessage();
+        if (backfilled > 0) {
+            log.info("Última mensagem preenchida em {} conversas", backfilled);
+        }
+
+        long afterId = 0;
+        int migrated = 0;
+        List<Long> ids;
+        while (!(ids = conversationRepository.findLegacyConversationIds(afterId, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            for (Long id : ids) {
+                try {
+                    transactions.execute("conversation.migrate", status -> {
+                        messageStore.migrateLegacy(id);
+                        return null;
+                    });
+                    migrated++;
+                } catch (Exception e) {
+                    log.warn("Falha ao migrar a conversa {}: {}", id, e.getMessage());
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (migrated > 0) {
+            log.info("{} conversas antigas migradas para conversation_messages", migrated);
+        }
+    }
+}
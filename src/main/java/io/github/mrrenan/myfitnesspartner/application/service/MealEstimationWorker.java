@@ -0,0 +1,243 @@
+package io.github.mrrenan.myfitnesspartner.application.service;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.domain.model.Meal;
+import io.github.mrrenan.myfitnesspartner.domain.model.MealStatus;
+import io.github.mrrenan.myfitnesspartner.domain.repository.MealRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Backoff;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completes meals registered as PENDING_ESTIMATE in the background.
+ * Each estimate is leased before the AI call, so with several nodes only one
+ * of them estimates a given meal. The AI call is non-blocking; only the final
+ * update (calories, macros and the DailyGoal delta) runs on the taskExecutor,
+ * in a short transaction that first moves the meal out of PENDING_ESTIMATE, so
+ * the delta is applied once. Failed estimates are retried with exponential
+ * backoff and marked ESTIMATE_FAILED after max-attempts. A poller picks up
+ * retries and estimates whose lease expired (e.g. the node restarted).
+ */
+@Slf4j
+@Component
+public class MealEstimationWorker implements SmartLifecycle {
+
+    private final MealRepository mealRepository;
+    private final DailyGoalService dailyGoalService;
+    private final FitnessAiPort fitnessAiPort;
+    private final TimedTransactions transactions;
+    private final Executor taskExecutor;
+    private final AppProperties.Estimation config;
+
+    // IDs das refeições que saíram de PENDING_ESTIMATE, para quem acompanha a estimativa
+    private final Sinks.Many<Long> completions = Sinks.many().multicast().directBestEffort();
+
+    private volatile boolean running;
+    private volatile ScheduledExecutorService poller;
+
+    public MealEstimationWorker(
+            MealRepository mealRepository,
+            DailyGoalService dailyGoalService,
+            FitnessAiPort fitnessAiPort,
+            TimedTransactions transactions,
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            AppProperties appProperties) {
+        this.mealRepository = mealRepository;
+        this.dailyGoalService = dailyGoalService;
+        this.fitnessAiPort = fitnessAiPort;
+        this.transactions = transactions;
+        this.taskExecutor = taskExecutor;
+        this.config = appProperties.getFitness().getEstimation();
+    }
+
+    /**
+     * Agenda a estimativa da refeição. Dentro de uma transação, só dispara depois do commit.
+     */
+    public void requestEstimate(Meal meal) {
+        Long mealId = meal.getId();
+        String description = meal.getDescription();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    claimAndSubmit(mealId, description);
+                }
+            });
+        } else {
+            claimAndSubmit(mealId, description);
+        }
+    }
+
+    /**
+     * IDs das refeições cuja estimativa terminou (com sucesso ou falha definitiva)
+     */
+    public Flux<Long> completions() {
+        return completions.asFlux();
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "meal-estimation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller = executor;
+        running = true;
+        // A primeira busca retoma o que ficou pendente num reinício
+        executor.scheduleWithFixedDelay(this::poll, 0, config.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Para de buscar estimativas. As que estão em andamento terminam ou voltam
+     * a ficar disponíveis quando o arrendamento expirar.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (poller != null) {
+            poller.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Reivindica as estimativas pendentes (novas, a repetir ou com arrendamento vencido)
+     */
+    void poll() {
+        if (!running) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Meal> claimed = transactions.execute("meal.estimate_claim", status -> {
+                List<Meal> due = mealRepository.lockDueEstimates(now, config.getBatchSize());
+                due.forEach(meal -> {
+                    int attempts = meal.getEstimateAttempts() != null ? meal.getEstimateAttempts() : 0;
+                    meal.setEstimateAttempts(attempts + 1);
+                    meal.setEstimateLockedUntil(now.plus(config.getLease()));
+                });
+                return due;
+            });
+            if (!claimed.isEmpty()) {
+                log.info("Retomando {} estimativas de refeição pendentes", claimed.size());
+            }
+            claimed.forEach(meal -> submit(meal.getId(), meal.getEstimateAttempts(), meal.getDescription()));
+        } catch (Exception e) {
+            log.error("Erro ao buscar estimativas de refeição pendentes: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Arrenda a refeição recém-salva e chama a IA. Se outro nó já a reivindicou, não faz nada.
+     */
+    private void claimAndSubmit(Long mealId, String description) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = mealRepository.claimEstimate(mealId, now, now.plus(config.getLease()),
+                MealStatus.PENDING_ESTIMATE);
+        if (claimed == 1) {
+            // Refeição nova: primeira tentativa
+            submit(mealId, 1, description);
+        }
+    }
+
+    private void submit(Long mealId, int attempt, String description) {
+        fitnessAiPort.analyzeFoodAsync(description)
+                .whenCompleteAsync((estimate, e) -> {
+                    if (e != null) {
+                        fail(mealId, attempt, e);
+                    } else {
+                        complete(mealId, estimate);
+                    }
+                }, taskExecutor)
+                .exceptionally(e -> {
+                    // Fila cheia ou erro ao gravar: a refeição volta a ficar disponível quando o arrendamento expirar
+                    log.warn("Não foi possível concluir a estimativa da refeição {}: {}", mealId, e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Grava a estimativa e soma no DailyGoal a diferença de calorias.
+     * Só a transação que tira a refeição de PENDING_ESTIMATE aplica a diferença.
+     */
+    void complete(Long mealId, CalorieEstimate estimate) {
+        boolean updated = Boolean.TRUE.equals(transactions.execute("meal.estimate", status -> {
+            if (mealRepository.transitionStatus(mealId, MealStatus.PENDING_ESTIMATE, MealStatus.ESTIMATED) != 1) {
+                return false;
+            }
+
+            // A linha fica travada por esta transação até o commit
+            Meal meal = mealRepository.findById(mealId).orElseThrow();
+            int previousCalories = meal.getCalories() != null ? meal.getCalories() : 0;
+            meal.setCalories(estimate.getCalories());
+            meal.setProtein(estimate.getProtein());
+            meal.setCarbohydrates(estimate.getCarbohydrates());
+            meal.setFat(estimate.getFat());
+            meal.setNotes(MealServiceImpl.buildNotesWithAIInsight(meal.getNotes(), estimate));
+            meal.setStatus(MealStatus.ESTIMATED);
+            meal.setEstimateLockedUntil(null);
+
+            // A refeição só entra na meta agora, com a diferença de calorias, no dia em que foi feita
+            int delta = estimate.getCalories() - previousCalories;
+            dailyGoalService.addCaloriesToDate(meal.getUser().getWhatsappNumber(),
+                    meal.getMealDate().toLocalDate(), delta);
+            return true;
+        }));
+
+        if (updated) {
+            log.info("Refeição {} estimada em {} calorias", mealId, estimate.getCalories());
+            notifyCompleted(mealId);
+        }
+    }
+
+    /**
+     * Reagenda a estimativa com backoff, ou marca ESTIMATE_FAILED depois de max-attempts
+     */
+    void fail(Long mealId, int attempt, Throwable error) {
+        if (attempt < config.getMaxAttempts()) {
+            Duration delay = backoff(attempt);
+            int rescheduled = mealRepository.rescheduleEstimate(mealId, attempt,
+                    LocalDateTime.now().plus(delay), MealStatus.PENDING_ESTIMATE);
+            if (rescheduled == 1) {
+                log.warn("Falha ao estimar a refeição {} (tentativa {}), nova tentativa em {}s: {}",
+                        mealId, attempt, delay.toSeconds(), error.getMessage());
+            }
+            return;
+        }
+
+        log.error("Falha ao estimar a refeição {} após {} tentativas: {}", mealId, attempt, error.getMessage());
+        if (mealRepository.transitionStatus(mealId, MealStatus.PENDING_ESTIMATE, MealStatus.ESTIMATE_FAILED) == 1) {
+            notifyCompleted(mealId);
+        }
+    }
+
+    Duration backoff(int attempts) {
+        return Backoff.exponential(attempts, config.getInitialBackoff(), config.getMaxBackoff());
+    }
+
+    private void notifyCompleted(Long mealId) {
+        completions.emitNext(mealId, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+}
@@ -2,8 +2,11 @@ package io.github.mrrenan.myfitnesspartner.application.service;
 
 import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealFromDescriptionRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealRequest;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealsFromDescriptionsRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.MealResponse;
 
+import reactor.core.publisher.Flux;
+
 import java.time.LocalDate;
 import java.util.List;
 
@@ -40,6 +43,42 @@ public interface MealService {
      */
     MealResponse registerMealFromDescription(CreateMealFromDescriptionRequest request);
 
+    /**
+     * Register a meal from a description without waiting for the AI.
+     * The meal is saved right away as PENDING_ESTIMATE; a background worker
+     * fills calories and macros and adds them to the daily goal.
+     *
+     * @param request meal description request
+     * @return the accepted meal, still without calories
+     //* @throws UserNotFoundException if user not found
+     //* @throws DailyLimitExceededException if daily meal limit exceeded
+     */
+    MealResponse registerMealFromDescriptionAsync(CreateMealFromDescriptionRequest request);
+
+    /**
+     * Follow a meal until its estimate is done.
+     * The completion is pushed right away only when the estimate finishes on this node;
+     * otherwise the meal is re-read every few seconds. If the estimate is still pending
+     * after the wait limit, the stream ends with the current meal.
+     *
+     * @param mealId meal ID
+     * @param whatsappNumber user's WhatsApp number
+     * @return the current meal, then the meal again once it leaves PENDING_ESTIMATE
+     */
+    Flux<MealResponse> watchMeal(Long mealId, String whatsappNumber);
+
+    /**
+     * Register several meals from natural language descriptions
+     * All descriptions are estimated in a single AI call and the meals
+     * are saved in one transaction (all or nothing)
+     *
+     * @param request user and list of meal descriptions
+     * @return created meals, in the same order as the request
+     //* @throws UserNotFoundException if user not found
+     //* @throws DailyLimitExceededException if the meals would exceed the daily limit
+     */
+    List<MealResponse> registerMealsFromDescriptions(CreateMealsFromDescriptionsRequest request);
+
     /**
      * Get all meals for a user
      *
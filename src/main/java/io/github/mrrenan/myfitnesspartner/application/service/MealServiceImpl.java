@@ -1,9 +1,11 @@
 package io.github.mrrenan.myfitnesspartner.application.service;
 
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
 import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
 import io.github.mrrenan.myfitnesspartner.domain.exception.DailyLimitExceededException;
 import io.github.mrrenan.myfitnesspartner.domain.exception.UserNotFoundException;
 import io.github.mrrenan.myfitnesspartner.domain.model.Meal;
+import io.github.mrrenan.myfitnesspartner.domain.model.MealStatus;
 import io.github.mrrenan.myfitnesspartner.domain.model.User;
 import io.github.mrrenan.myfitnesspartner.domain.repository.MealRepository;
 import io.github.mrrenan.myfitnesspartner.domain.repository.UserRepository;
@@ -11,15 +13,21 @@ import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
 import io.github.mrrenan.myfitnesspartner.infrastructure.util.DateUtils;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealFromDescriptionRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealRequest;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealsFromDescriptionsRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.MealResponse;
 import io.github.mrrenan.myfitnesspartner.presentation.mapper.MealMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -38,6 +46,14 @@ public class MealServiceImpl implements MealService {
     private final FitnessAiPort fitnessAiPort;
     private final MealMapper mealMapper;
     private final AppProperties appProperties;
+    private final TimedTransactions transactions;
+    private final MealEstimationWorker mealEstimationWorker;
+
+    // Quanto tempo quem acompanha a estimativa espera a IA terminar
+    private static final Duration MEAL_WATCH_TIMEOUT = Duration.ofMinutes(2);
+
+    // Releitura periódica para estimativas concluídas por outro nó
+    private static final Duration MEAL_WATCH_POLL_INTERVAL = Duration.ofSeconds(5);
 
     @Override
     @Transactional
@@ -226,10 +242,130 @@ public class MealServiceImpl implements MealService {
         }
     }
 
+    @Override
+    public MealResponse registerMealFromDescriptionAsync(CreateMealFromDescriptionRequest request) {
+        log.info("Accepting meal for background AI estimation for user: {}", request.getWhatsappNumber());
+
+        // Só um insert: a IA roda depois, fora desta transação
+        return transactions.execute("meal.accept", status -> {
+            User user = findUserByWhatsapp(request.getWhatsappNumber());
+            checkDailyMealLimit(user, 1);
+
+            Meal meal = Meal.builder()
+                    .user(user)
+                    .description(request.getDescription())
+                    .mealType(request.getMealType())
+                    .notes(request.getNotes())
+                    .mealDate(LocalDateTime.now())
+                    .status(MealStatus.PENDING_ESTIMATE)
+                    .build();
+            Meal saved = mealRepository.save(meal);
+            log.info("Meal {} accepted, estimate pending", saved.getId());
+
+            mealEstimationWorker.requestEstimate(saved);
+            return mealMapper.toResponse(saved);
+        });
+    }
+
+    @Override
+    public Flux<MealResponse> watchMeal(Long mealId, String whatsappNumber) {
+        Mono<MealResponse> current = Mono.fromCallable(() ->
+                        transactions.execute("meal.watch", status -> getMealById(mealId, whatsappNumber)))
+                .subscribeOn(Schedulers.boundedElastic());
+
+        // Escuta as conclusões antes de ler o estado atual, para não perder uma que chegue no meio.
+        // Só avisa quando a estimativa termina neste nó
+        Flux<MealResponse> updates = mealEstimationWorker.completions()
+                .filter(mealId::equals)
+                .concatMap(id -> current);
+
+        // Novas tentativas e arrendamentos vencidos podem ser concluídos em outro nó: relê o status
+        Flux<MealResponse> polled = Flux.interval(MEAL_WATCH_POLL_INTERVAL)
+                .onBackpressureDrop()
+                .concatMap(tick -> current)
+                .filter(meal -> meal.getStatus() != MealStatus.PENDING_ESTIMATE);
+
+        return Flux.merge(updates, current, polled)
+                .takeUntil(meal -> meal.getStatus() != MealStatus.PENDING_ESTIMATE)
+                // Sem conclusão no prazo: termina com o estado atual, sem erro
+                .timeout(MEAL_WATCH_TIMEOUT, current);
+    }
+
+    @Override
+    public List<MealResponse> registerMealsFromDescriptions(CreateMealsFromDescriptionsRequest request) {
+        List<CreateMealsFromDescriptionsRequest.MealDescription> meals = request.getMeals();
+        log.info("Registering {} meals from AI descriptions for user: {}",
+                meals.size(), request.getWhatsappNumber());
+
+        // Step 1: Fail fast before spending an AI call
+        User user = findUserByWhatsapp(request.getWhatsappNumber());
+        checkDailyMealLimit(user, meals.size());
+
+        // Step 2: One AI call for all descriptions, outside the transaction
+        List<String> descriptions = meals.stream()
+                .map(CreateMealsFromDescriptionsRequest.MealDescription::getDescription)
+                .toList();
+        List<CalorieEstimate> estimates = fitnessAiPort.analyzeFoods(descriptions);
+
+        // Step 3: Persist all meals and update daily goal in a single transaction
+        return transactions.execute("meal.batch_save", status -> {
+            User owner = findUserByWhatsapp(request.getWhatsappNumber());
+            checkDailyMealLimit(owner, meals.size());
+
+            List<Meal> entities = new ArrayList<>(meals.size());
+            int totalCalories = 0;
+            for (int i = 0; i < meals.size(); i++) {
+                CreateMealsFromDescriptionsRequest.MealDescription item = meals.get(i);
+                CalorieEstimate estimate = estimates.get(i);
+
+                CreateMealRequest mealRequest = CreateMealRequest.builder()
+                        .whatsappNumber(request.getWhatsappNumber())
+                        .description(item.getDescription())
+                        .mealType(item.getMealType())
+                        .calories(estimate.getCalories())
+                        .protein(estimate.getProtein())
+                        .carbohydrates(estimate.getCarbohydrates())
+                        .fat(estimate.getFat())
+                        .notes(buildNotesWithAIInsight(item.getNotes(), estimate))
+                        .build();
+
+                entities.add(mealMapper.toEntity(mealRequest, owner));
+                totalCalories += estimate.getCalories();
+            }
+
+            List<Meal> saved = mealRepository.saveAll(entities);
+            dailyGoalService.addCaloriesToToday(request.getWhatsappNumber(), totalCalories);
+
+            log.info("{} meals saved for user {} ({} calories)", saved.size(), owner.getId(), totalCalories);
+
+            return saved.stream()
+                    .map(mealMapper::toResponse)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Throw if registering more meals today would exceed the configured limit
+     */
+    private void checkDailyMealLimit(User user, int newMeals) {
+        Long todaysMealCount = mealRepository.countMealsByUserAndDate(
+                user,
+                DateUtils.getStartOfToday(),
+                DateUtils.getTomorrow()
+        );
+
+        Integer maxMeals = appProperties.getFitness().getMaxDailyMeals();
+        if (todaysMealCount + newMeals > maxMeals) {
+            log.warn("User {} would exceed daily meal limit: {}+{}/{}",
+                    user.getWhatsappNumber(), todaysMealCount, newMeals, maxMeals);
+            throw new DailyLimitExceededException(maxMeals);
+        }
+    }
+
     /**
      * Build notes combining user notes and AI insights
      */
-    private String buildNotesWithAIInsight(String userNotes,
+    static String buildNotesWithAIInsight(String userNotes,
                                            io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate estimate) {
         StringBuilder notes = new StringBuilder();
 
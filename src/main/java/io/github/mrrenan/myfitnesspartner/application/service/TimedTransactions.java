@@ -0,0 +1,47 @@
+package io.github.mrrenan.myfitnesspartner.application.service;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Bulkheads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs short programmatic transactions and times them per use case.
+ * With open-in-view disabled, the connection is taken from the pool when the
+ * transaction starts and returned on commit, so the db.connection.hold timer
+ * is how long each use case keeps a pooled connection.
+ * Outermost transactions also go through the database bulkhead, so a burst of
+ * virtual threads waits there instead of timing out on the connection pool.
+ */
+@Component
+@RequiredArgsConstructor
+public class TimedTransactions {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Bulkheads bulkheads;
+
+    public <T> T execute(String useCase, TransactionCallback<T> action) {
+        // Uma transação aninhada já usa a conexão da externa
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(action);
+        }
+        return bulkheads.database().call(() -> timed(useCase, action));
+    }
+
+    private <T> T timed(String useCase, TransactionCallback<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return transactionTemplate.execute(action);
+        } finally {
+            sample.stop(Timer.builder("db.connection.hold")
+                    .description("Time a pooled connection is held by a transaction, per use case")
+                    .tag("use_case", useCase)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -5,7 +5,9 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
@@ -18,11 +20,13 @@ import java.util.List;
 
 /**
  * Conversation entity storing chat history with AI.
- * Uses PostgreSQL JSONB to store messages efficiently.
+ * Messages live append-only in conversation_messages (see ConversationMessage);
+ * the JSONB messages column only holds history written before that table existed.
  */
 @Entity
 @Table(name = "conversations", indexes = {
-        @Index(name = "idx_user_conversation", columnList = "user_id,created_at")
+        @Index(name = "idx_user_conversation", columnList = "user_id,created_at"),
+        @Index(name = "idx_conversation_whatsapp_message_id", columnList = "whatsapp_message_id")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -31,6 +35,8 @@ import java.util.List;
 @AllArgsConstructor
 public class Conversation {
 
+    public static final int PREVIEW_LENGTH = 200;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,20 +46,62 @@ public class Conversation {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // MessageSid do Twilio da última mensagem respondida nesta conversa
     @Column(name = "whatsapp_message_id", length = 100)
     private String whatsappMessageId;
 
     /**
-     * Messages stored as JSONB in PostgreSQL
-     * Each message contains: role (user/assistant), content, timestamp
+     * Legacy messages stored as JSONB in PostgreSQL
+     * Each message contains: role (user/assistant), content, timestamp.
+     * Moved to conversation_messages on the first new turn, then cleared.
+     * Lazy (bytecode enhancement): only read for conversations not yet migrated.
      */
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "messages", columnDefinition = "jsonb")
+    @Basic(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Builder.Default
     private List<Message> messages = new ArrayList<>();
 
+    /**
+     * How many messages were appended to conversation_messages (next seq)
+     */
+    @Column(name = "message_count", columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer messageCount = 0;
+
+    /**
+     * Denormalized from the last appended message, for listings
+     */
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    /**
+     * Rolling summary of the messages already folded (see summarizedMessageCount)
+     */
     @Column(name = "context", columnDefinition = "TEXT")
-    private String context; // Additional context about the conversation
+    private String context;
+
+    /**
+     * How many messages, from the start, are covered by the summary in context
+     */
+    @Column(name = "summarized_message_count")
+    @Builder.Default
+    private Integer summarizedMessageCount = 0;
+
+    /**
+     * Optimistic lock for whole-entity saves: a Conversation loaded before a
+     * summary update (or legacy migration) must not write back a stale context,
+     * summarized_message_count or messages column. Appends do not rely on it;
+     * they are serialized by the row lock in advanceMessages.
+     */
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
 
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -96,6 +144,41 @@ public class Conversation {
         return new ArrayList<>(messages.subList(fromIndex, size));
     }
 
+    public int getMessageCount() {
+        return messageCount != null ? messageCount : 0;
+    }
+
+    /**
+     * True while the history is still in the legacy JSONB column
+     */
+    public boolean hasLegacyMessages() {
+        return getMessageCount() == 0 && messages != null && !messages.isEmpty();
+    }
+
+    /**
+     * Total messages in the conversation, wherever they are stored
+     */
+    public int countMessages() {
+        return hasLegacyMessages() ? messages.size() : getMessageCount();
+    }
+
+    /**
+     * Message content cut to fit last_message_preview
+     */
+    public static String preview(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, PREVIEW_LENGTH - 1) + "…";
+    }
+
+    /**
+     * Number of messages already covered by the rolling summary
+     */
+    public int getSummarizedCount() {
+        return summarizedMessageCount != null ? summarizedMessageCount : 0;
+    }
+
     /**
      * Inner class representing a single message in the conversation
      */
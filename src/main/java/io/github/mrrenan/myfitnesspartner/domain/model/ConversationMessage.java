@@ -0,0 +1,88 @@
+package io.github.mrrenan.myfitnesspartner.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * One message of a conversation, stored append-only.
+ * seq is the position of the message in the conversation (0-based), so the
+ * context tail and summary ranges are read through the (conversation_id, seq) index
+ * and a chat turn only inserts its two rows instead of rewriting the history.
+ * The assistant message of a WhatsApp turn keeps the Twilio MessageSids of every
+ * message it answers (a burst is answered once), so a retry of any of them reuses
+ * the stored reply instead of asking the AI again.
+ */
+@Entity
+@Table(name = "conversation_messages", indexes = {
+        @Index(name = "idx_conversation_message_seq", columnList = "conversation_id,seq", unique = true)
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Conversation conversation;
+
+    @Column(nullable = false)
+    private Integer seq;
+
+    @Column(nullable = false, length = 20)
+    private String role; // "user" or "assistant"
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime timestamp;
+
+    // MessageSid da última mensagem respondida: chave da resposta na fila de envio (só na resposta da IA)
+    @Column(name = "whatsapp_message_id", length = 100)
+    private String whatsappMessageId;
+
+    // MessageSids de todas as mensagens da rajada respondida por esta mensagem
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "conversation_message_whatsapp_ids",
+            joinColumns = @JoinColumn(name = "conversation_message_id"),
+            indexes = @Index(name = "idx_conversation_message_whatsapp_id", columnList = "whatsapp_message_id"))
+    @Column(name = "whatsapp_message_id", nullable = false, length = 100)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<String> answeredMessageIds = new HashSet<>();
+
+    public static ConversationMessage of(Conversation conversation, int seq, Conversation.Message message) {
+        return ConversationMessage.builder()
+                .conversation(conversation)
+                .seq(seq)
+                .role(message.getRole())
+                .content(message.getContent())
+                .timestamp(message.getTimestamp() != null ? message.getTimestamp() : LocalDateTime.now())
+                .build();
+    }
+
+    public Conversation.Message toMessage() {
+        return Conversation.Message.builder()
+                .role(role)
+                .content(content)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.mrrenan.myfitnesspartner.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A WhatsApp message persisted by the webhook before it is answered.
+ * Workers claim PENDING rows due at next_attempt_at and lease them until
+ * locked_until; a lease that expires (e.g. the node died) makes the row
+ * claimable again. After max attempts the message is kept as DEAD.
+ */
+@Entity
+@Table(name = "inbound_messages", indexes = {
+        @Index(name = "idx_inbound_message_due", columnList = "status,next_attempt_at"),
+        @Index(name = "idx_inbound_message_sid", columnList = "message_sid", unique = true)
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboundMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // MessageSid do Twilio; o índice único descarta webhooks repetidos
+    @Column(name = "message_sid", length = 100)
+    private String messageSid;
+
+    @Column(name = "from_number", nullable = false, length = 20)
+    private String fromNumber; // ex: +5511999999999
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InboundMessageStatus status = InboundMessageStatus.PENDING;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
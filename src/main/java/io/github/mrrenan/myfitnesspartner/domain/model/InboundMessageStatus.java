@@ -0,0 +1,21 @@
+package io.github.mrrenan.myfitnesspartner.domain.model;
+
+/**
+ * Enum representing where an inbound WhatsApp message is in the inbox.
+ */
+public enum InboundMessageStatus {
+    PENDING("Aguardando processamento"),
+    PROCESSING("Em processamento"),
+    DONE("Respondida"),
+    DEAD("Descartada após falhas");
+
+    private final String description;
+
+    InboundMessageStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -46,10 +46,12 @@ public class Meal {
     @Column(name = "meal_type", nullable = false, length = 30)
     private MealType mealType;
 
-    @NotNull(message = "Calories is required")
+    /**
+     * Null while the meal is PENDING_ESTIMATE (see status)
+     */
     @Min(value = 1, message = "Calories must be at least 1")
     @Max(value = 5000, message = "Calories must not exceed 5000")
-    @Column(nullable = false)
+    @Column
     private Integer calories;
 
     @Min(value = 0, message = "Protein cannot be negative")
@@ -64,6 +66,28 @@ public class Meal {
     @Column
     private Double fat; // in grams
 
+    /**
+     * Meals registered asynchronously start as PENDING_ESTIMATE until the AI fills calories and macros
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 30, columnDefinition = "varchar(30) default 'ESTIMATED'")
+    @Builder.Default
+    private MealStatus status = MealStatus.ESTIMATED;
+
+    /**
+     * Background estimate bookkeeping: attempts so far, when a failed estimate
+     * may be retried and until when the node that claimed it holds the lease
+     */
+    @Column(name = "estimate_attempts", columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer estimateAttempts = 0;
+
+    @Column(name = "estimate_next_attempt_at")
+    private LocalDateTime estimateNextAttemptAt;
+
+    @Column(name = "estimate_locked_until")
+    private LocalDateTime estimateLockedUntil;
+
     @Column(name = "meal_date", nullable = false)
     private LocalDateTime mealDate;
 
@@ -0,0 +1,20 @@
+package io.github.mrrenan.myfitnesspartner.domain.model;
+
+/**
+ * Enum representing whether a meal's nutritional values are known yet.
+ */
+public enum MealStatus {
+    ESTIMATED("Estimada"),
+    PENDING_ESTIMATE("Aguardando estimativa"),
+    ESTIMATE_FAILED("Falha na estimativa");
+
+    private final String description;
+
+    MealStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.mrrenan.myfitnesspartner.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbound WhatsApp message that Twilio refused for good, or that failed
+ * max-attempts times. Kept for inspection; replaying it puts a copy back in
+ * the outbox and stamps replayed_at.
+ */
+@Entity
+@Table(name = "outbound_dead_letters", indexes = {
+        @Index(name = "idx_outbound_dead_letter_replayed", columnList = "replayed_at,dead_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Id que a mensagem tinha em outbound_messages
+    @Column(name = "outbound_message_id", nullable = false)
+    private Long outboundMessageId;
+
+    @Column(name = "to_number", nullable = false, length = 20)
+    private String toNumber;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    // Status HTTP da última resposta do Twilio (0 = sem resposta)
+    @Column(name = "last_status", nullable = false)
+    private Integer lastStatus;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "dead_at", nullable = false)
+    private LocalDateTime deadAt;
+
+    @Column(name = "replayed_at")
+    private LocalDateTime replayedAt;
+}
@@ -0,0 +1,82 @@
+package io.github.mrrenan.myfitnesspartner.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A WhatsApp message waiting to be sent, typically the AI's answer.
+ * Persisting it means a Twilio failure is retried from here instead of
+ * asking the AI again. Messages to the same number are sent in id order:
+ * only the oldest unsent message of each number can be claimed.
+ * A reply to an inbound message keeps its MessageSid under a unique index,
+ * so a retried inbound message never queues the same reply twice.
+ */
+@Entity
+@Table(name = "outbound_messages", indexes = {
+        @Index(name = "idx_outbound_message_due", columnList = "status,next_attempt_at"),
+        @Index(name = "idx_outbound_message_to_number", columnList = "to_number,status"),
+        @Index(name = "idx_outbound_message_reply_to", columnList = "reply_to_sid", unique = true)
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_number", nullable = false, length = 20)
+    private String toNumber; // ex: +5511999999999
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    // MessageSid da mensagem recebida que esta responde; nulo em avisos e reenvios
+    @Column(name = "reply_to_sid", length = 100)
+    private String replyToSid;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboundMessageStatus status = OutboundMessageStatus.PENDING;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // SID devolvido pelo Twilio quando a mensagem é aceita
+    @Column(name = "twilio_sid", length = 100)
+    private String twilioSid;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
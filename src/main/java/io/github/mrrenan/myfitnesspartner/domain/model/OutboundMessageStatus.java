@@ -0,0 +1,21 @@
+package io.github.mrrenan.myfitnesspartner.domain.model;
+
+/**
+ * Enum representing where an outbound WhatsApp message is in the outbox.
+ * Messages that exhaust their attempts leave the outbox for outbound_dead_letters.
+ */
+public enum OutboundMessageStatus {
+    PENDING("Aguardando envio"),
+    SENDING("Em envio"),
+    SENT("Enviada");
+
+    private final String description;
+
+    OutboundMessageStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.mrrenan.myfitnesspartner.domain.repository;
+
+import io.github.mrrenan.myfitnesspartner.domain.model.ConversationMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the append-only messages of a conversation.
+ * Every query goes through the (conversation_id, seq) index.
+ */
+@Repository
+public interface ConversationMessageRepository extends JpaRepository<ConversationMessage, Long> {
+
+    /**
+     * Latest messages from fromSeq on, newest first (limit through pageable)
+     */
+    @Query("SELECT m FROM ConversationMessage m WHERE m.conversation.id = :conversationId " +
+            "AND m.seq >= :fromSeq ORDER BY m.seq DESC")
+    List<ConversationMessage> findLatest(
+            @Param("conversationId") Long conversationId,
+            @Param("fromSeq") int fromSeq,
+            Pageable pageable
+    );
+
+    /**
+     * Messages with seq in [fromSeq, toSeq), oldest first
+     */
+    @Query("SELECT m FROM ConversationMessage m WHERE m.conversation.id = :conversationId " +
+            "AND m.seq >= :fromSeq AND m.seq < :toSeq ORDER BY m.seq ASC")
+    List<ConversationMessage> findRange(
+            @Param("conversationId") Long conversationId,
+            @Param("fromSeq") int fromSeq,
+            @Param("toSeq") int toSeq
+    );
+
+    /**
+     * Whole conversation, oldest first
+     */
+    @Query("SELECT m FROM ConversationMessage m WHERE m.conversation.id = :conversationId ORDER BY m.seq ASC")
+    List<ConversationMessage> findAllByConversationId(@Param("conversationId") Long conversationId);
+
+    /**
+     * The assistant message that answered a sender's WhatsApp message (alone or in a burst),
+     * if that turn was saved
+     */
+    @Query("SELECT m FROM ConversationMessage m JOIN m.answeredMessageIds sid " +
+            "WHERE sid = :messageSid AND m.conversation.user.whatsappNumber = :whatsappNumber")
+    List<ConversationMessage> findRepliesTo(
+            @Param("whatsappNumber") String whatsappNumber,
+            @Param("messageSid") String messageSid);
+}
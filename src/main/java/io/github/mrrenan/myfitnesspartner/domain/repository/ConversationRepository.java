@@ -2,10 +2,13 @@ package io.github.mrrenan.myfitnesspartner.domain.repository;
 
 import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
 import io.github.mrrenan.myfitnesspartner.domain.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,6 +20,11 @@ import java.util.Optional;
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
+    // Projeção da listagem: colunas desnormalizadas, nunca a coluna messages
+    String SUMMARY_SELECT = "SELECT new io.github.mrrenan.myfitnesspartner.domain.repository.ConversationSummary(" +
+            "c.id, c.messageCount, c.lastMessagePreview, c.lastMessageAt, c.createdAt, c.updatedAt) " +
+            "FROM Conversation c ";
+
     /**
      * Find conversation by WhatsApp message ID
      */
@@ -36,6 +44,45 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
             LocalDateTime endDate
     );
 
+    /**
+     * Find a conversation only if it belongs to the user
+     */
+    Optional<Conversation> findByIdAndUser(Long id, User user);
+
+    /**
+     * First page of a user's conversation summaries, newest first (keyset on created_at, id)
+     */
+    @Query(SUMMARY_SELECT + "WHERE c.user = :user ORDER BY c.createdAt DESC, c.id DESC")
+    List<ConversationSummary> findSummaries(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Counters of the user's latest conversation, to check a cached tail (use a page of size 1)
+     */
+    @Query("SELECT new io.github.mrrenan.myfitnesspartner.domain.repository.ConversationVersion(" +
+            "c.id, c.messageCount, c.summarizedMessageCount) FROM Conversation c " +
+            "WHERE c.user = :user ORDER BY c.createdAt DESC, c.id DESC")
+    List<ConversationVersion> findLatestVersion(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Next page of summaries: conversations strictly older than the cursor (createdAt, id)
+     */
+    @Query(SUMMARY_SELECT + "WHERE c.user = :user " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ConversationSummary> findSummariesBefore(
+            @Param("user") User user,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    /**
+     * Conversations whose history is still only in the legacy JSONB column, by id after afterId
+     */
+    @Query("SELECT c.id FROM Conversation c WHERE c.id > :afterId AND COALESCE(c.messageCount, 0) = 0 " +
+            "AND c.messages IS NOT NULL ORDER BY c.id")
+    List<Long> findLegacyConversationIds(@Param("afterId") Long afterId, Pageable pageable);
+
     /**
      * Find the most recent conversation for a user
      */
@@ -57,4 +104,89 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
             @Param("startOfDay") LocalDateTime startOfDay,
             @Param("endOfDay") LocalDateTime endOfDay
     );
-}
\ No newline at end of file
+
+    /**
+     * Update the rolling summary only if no other summary was saved meanwhile.
+     * Bumps the version so an entity loaded before the summary cannot be
+     * saved back over it.
+     *
+     * @return 1 if updated, 0 if the summary had already moved on
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET c.context = :summary, c.summarizedMessageCount = :summarizedCount, " +
+            "c.version = COALESCE(c.version, 0) + 1 " +
+            "WHERE c.id = :id AND COALESCE(c.summarizedMessageCount, 0) = :expectedCount")
+    int updateSummary(
+            @Param("id") Long id,
+            @Param("summary") String summary,
+            @Param("summarizedCount") int summarizedCount,
+            @Param("expectedCount") int expectedCount
+    );
+
+    /**
+     * Reserve seqs for count new messages and record the last one for listings.
+     * The row lock taken by the update serializes concurrent turns on the same
+     * conversation until commit. Clears the persistence context so a managed
+     * Conversation is not flushed over the new count.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Conversation c SET c.messageCount = COALESCE(c.messageCount, 0) + :count, " +
+            "c.lastMessageAt = :lastMessageAt, c.lastMessagePreview = :lastMessagePreview WHERE c.id = :id")
+    int advanceMessages(
+            @Param("id") Long id,
+            @Param("count") int count,
+            @Param("lastMessageAt") LocalDateTime lastMessageAt,
+            @Param("lastMessagePreview") String lastMessagePreview
+    );
+
+    /**
+     * Record the Twilio MessageSid of the last message answered in the conversation
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET c.whatsappMessageId = :whatsappMessageId WHERE c.id = :id")
+    int updateWhatsappMessageId(@Param("id") Long id, @Param("whatsappMessageId") String whatsappMessageId);
+
+    /**
+     * Current number of appended messages (next seq)
+     */
+    @Query("SELECT COALESCE(c.messageCount, 0) FROM Conversation c WHERE c.id = :id")
+    int findMessageCount(@Param("id") Long id);
+
+    /**
+     * Claim the legacy JSONB history for migration to conversation_messages:
+     * sets the count and clears the column only if nothing was appended yet.
+     *
+     * @return 1 if this transaction must insert the legacy messages, 0 if another one already did
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Conversation c SET c.messageCount = :count, c.messages = NULL, " +
+            "c.lastMessageAt = :lastMessageAt, c.lastMessagePreview = :lastMessagePreview, " +
+            "c.version = COALESCE(c.version, 0) + 1 " +
+            "WHERE c.id = :id AND COALESCE(c.messageCount, 0) = 0")
+    int claimLegacyMessages(
+            @Param("id") Long id,
+            @Param("count") int count,
+            @Param("lastMessageAt") LocalDateTime lastMessageAt,
+            @Param("lastMessagePreview") String lastMessagePreview
+    );
+
+    /**
+     * Fill last_message_at / last_message_preview for conversations appended
+     * before those columns existed
+     *
+     * @return number of conversations updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.lastMessageAt = (SELECT m.timestamp FROM ConversationMessage m " +
+            "WHERE m.conversation = c AND m.seq = c.messageCount - 1), " +
+            "c.lastMessagePreview = (SELECT substring(m.content, 1, " + Conversation.PREVIEW_LENGTH + ") " +
+            "FROM ConversationMessage m WHERE m.conversation = c AND m.seq = c.messageCount - 1) " +
+            "WHERE c.messageCount > 0 AND c.lastMessageAt IS NULL")
+    int backfillLastMessage();
+}
@@ -0,0 +1,17 @@
+package io.github.mrrenan.myfitnesspartner.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conversation listing row: counts, last message and timestamps,
+ * read from the denormalized columns without touching the messages.
+ * The last message fields are null when the conversation has no messages.
+ */
+public record ConversationSummary(
+        Long id,
+        Integer messageCount,
+        String lastMessagePreview,
+        LocalDateTime lastMessageAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
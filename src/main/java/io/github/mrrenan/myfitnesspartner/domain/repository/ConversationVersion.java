@@ -0,0 +1,17 @@
+package io.github.mrrenan.myfitnesspartner.domain.repository;
+
+/**
+ * Counters of a user's latest conversation, read without the messages or the summary.
+ * Enough to tell whether a cached conversation tail is still current.
+ */
+public record ConversationVersion(
+        Long id,
+        Integer messageCount,
+        Integer summarizedCount) {
+
+    public boolean matches(Long conversationId, int messageCount, int summarizedCount) {
+        return id.equals(conversationId)
+                && (this.messageCount != null ? this.messageCount : 0) == messageCount
+                && (this.summarizedCount != null ? this.summarizedCount : 0) == summarizedCount;
+    }
+}
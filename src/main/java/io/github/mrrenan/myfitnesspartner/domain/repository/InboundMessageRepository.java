@@ -0,0 +1,63 @@
+package io.github.mrrenan.myfitnesspartner.domain.repository;
+
+import io.github.mrrenan.myfitnesspartner.domain.model.InboundMessage;
+import io.github.mrrenan.myfitnesspartner.domain.model.InboundMessageStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the WhatsApp inbox (inbound_messages).
+ */
+@Repository
+public interface InboundMessageRepository extends JpaRepository<InboundMessage, Long> {
+
+    /**
+     * Locks the next due messages: PENDING ones whose retry time has come and
+     * PROCESSING ones whose lease expired. SKIP LOCKED lets several workers and
+     * nodes claim disjoint batches without waiting on each other.
+     * Must run inside the transaction that marks them PROCESSING.
+     */
+    @Query(value = "SELECT * FROM inbound_messages " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "OR (status = 'PROCESSING' AND locked_until < :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<InboundMessage> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Devolve à fila mensagens em processamento (desligamento sem terminar a resposta)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE InboundMessage m SET m.status = :pending, m.lockedUntil = NULL, " +
+            "m.attempts = m.attempts - 1, m.nextAttemptAt = :now " +
+            "WHERE m.id IN :ids AND m.status = :processing")
+    int release(
+            @Param("ids") Collection<Long> ids,
+            @Param("now") LocalDateTime now,
+            @Param("pending") InboundMessageStatus pending,
+            @Param("processing") InboundMessageStatus processing
+    );
+
+    /**
+     * Remove mensagens respondidas antes de olderThan
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InboundMessage m WHERE m.status = :status AND m.processedAt < :olderThan")
+    int deleteProcessedBefore(
+            @Param("status") InboundMessageStatus status,
+            @Param("olderThan") LocalDateTime olderThan
+    );
+
+    long countByStatus(InboundMessageStatus status);
+
+    boolean existsByMessageSid(String messageSid);
+}
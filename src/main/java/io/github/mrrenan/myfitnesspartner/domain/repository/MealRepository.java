@@ -1,11 +1,14 @@
 package io.github.mrrenan.myfitnesspartner.domain.repository;
 
 import io.github.mrrenan.myfitnesspartner.domain.model.Meal;
+import io.github.mrrenan.myfitnesspartner.domain.model.MealStatus;
 import io.github.mrrenan.myfitnesspartner.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -65,4 +68,57 @@ public interface MealRepository extends JpaRepository<Meal, Long> {
             @Param("startOfDay") LocalDateTime startOfDay,
             @Param("endOfDay") LocalDateTime endOfDay
     );
-}
\ No newline at end of file
+
+    /**
+     * Locks pending estimates that are due (first attempt or retry time reached)
+     * and not leased by another node. SKIP LOCKED lets several nodes claim
+     * disjoint batches. Must run inside the transaction that leases them.
+     */
+    @Query(value = "SELECT * FROM meals WHERE status = 'PENDING_ESTIMATE' " +
+            "AND (estimate_next_attempt_at IS NULL OR estimate_next_attempt_at <= :now) " +
+            "AND (estimate_locked_until IS NULL OR estimate_locked_until < :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Meal> lockDueEstimates(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lease one pending estimate (right after the meal is saved)
+     *
+     * @return 1 if this node got the lease, 0 if the meal is not pending or already leased
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Meal m SET m.estimateLockedUntil = :lockedUntil, " +
+            "m.estimateAttempts = COALESCE(m.estimateAttempts, 0) + 1 " +
+            "WHERE m.id = :id AND m.status = :pending " +
+            "AND (m.estimateLockedUntil IS NULL OR m.estimateLockedUntil < :now)")
+    int claimEstimate(
+            @Param("id") Long id,
+            @Param("now") LocalDateTime now,
+            @Param("lockedUntil") LocalDateTime lockedUntil,
+            @Param("pending") MealStatus pending
+    );
+
+    /**
+     * Move the meal from one estimation status to another
+     *
+     * @return 1 if this transaction made the transition, 0 if the meal was no longer in from
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Meal m SET m.status = :to, m.estimateLockedUntil = NULL WHERE m.id = :id AND m.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") MealStatus from, @Param("to") MealStatus to);
+
+    /**
+     * Release a failed attempt for a retry at nextAttemptAt, unless another attempt already claimed it
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Meal m SET m.estimateLockedUntil = NULL, m.estimateNextAttemptAt = :nextAttemptAt " +
+            "WHERE m.id = :id AND m.status = :pending AND m.estimateAttempts = :attempt")
+    int rescheduleEstimate(
+            @Param("id") Long id,
+            @Param("attempt") int attempt,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("pending") MealStatus pending
+    );
+}
@@ -0,0 +1,19 @@
+package io.github.mrrenan.myfitnesspartner.domain.repository;
+
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundDeadLetter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for outbound WhatsApp messages that could not be sent.
+ */
+@Repository
+public interface OutboundDeadLetterRepository extends JpaRepository<OutboundDeadLetter, Long> {
+
+    List<OutboundDeadLetter> findByReplayedAtIsNullOrderByDeadAtDesc(Pageable pageable);
+
+    long countByReplayedAtIsNull();
+}
@@ -0,0 +1,63 @@
+package io.github.mrrenan.myfitnesspartner.domain.repository;
+
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundMessage;
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundMessageStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the WhatsApp outbox (outbound_messages).
+ */
+@Repository
+public interface OutboundMessageRepository extends JpaRepository<OutboundMessage, Long> {
+
+    /**
+     * Locks the next due messages, like InboundMessageRepository#lockDue, but only
+     * the oldest unsent message of each number: a later message waits while an
+     * earlier one to the same number is still pending or being sent.
+     * Must run inside the transaction that marks them SENDING.
+     */
+    @Query(value = "SELECT * FROM outbound_messages o " +
+            "WHERE ((o.status = 'PENDING' AND o.next_attempt_at <= :now) " +
+            "OR (o.status = 'SENDING' AND o.locked_until < :now)) " +
+            "AND NOT EXISTS (SELECT 1 FROM outbound_messages p " +
+            "WHERE p.to_number = o.to_number AND p.id < o.id AND p.status IN ('PENDING', 'SENDING')) " +
+            "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboundMessage> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Devolve à fila mensagens em envio (desligamento antes da resposta do Twilio)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboundMessage m SET m.status = :pending, m.lockedUntil = NULL, " +
+            "m.attempts = m.attempts - 1, m.nextAttemptAt = :now " +
+            "WHERE m.id IN :ids AND m.status = :sending")
+    int release(
+            @Param("ids") Collection<Long> ids,
+            @Param("now") LocalDateTime now,
+            @Param("pending") OutboundMessageStatus pending,
+            @Param("sending") OutboundMessageStatus sending
+    );
+
+    /**
+     * Remove mensagens enviadas antes de olderThan
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboundMessage m WHERE m.status = :status AND m.sentAt < :olderThan")
+    int deleteSentBefore(
+            @Param("status") OutboundMessageStatus status,
+            @Param("olderThan") LocalDateTime olderThan
+    );
+
+    long countByStatus(OutboundMessageStatus status);
+}
@@ -0,0 +1,296 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * AIMD concurrency limiter for calls to the AI provider.
+ * The limit grows by one after each fast successful call made near the limit and
+ * is multiplied by the backoff ratio when a call fails or is slower than the
+ * latency threshold. Callers over the limit wait in a bounded queue; when the
+ * queue is full or the wait times out they get an {@link AiCapacityExceededException}.
+ * {@link #acquireAsync()} waits in the same queue without parking a thread.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Como a chamada terminou, para ajustar o limite
+     */
+    public enum Outcome {
+        SUCCESS,
+        DROPPED,
+        // Conta na concorrência mas não ajusta o limite (ex: streams longos)
+        IGNORED
+    }
+
+    private final AppProperties.Limiter properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+    private final Deque<CompletableFuture<Permit>> asyncWaiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+
+    private final Counter rejections;
+
+    public AdaptiveConcurrencyLimiter(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.properties = appProperties.getAi().getLimiter();
+        this.limit = properties.getInitialLimit();
+
+        this.rejections = Counter.builder("ai.limiter.rejected")
+                .description("AI calls rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("ai.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for AI calls")
+                .register(meterRegistry);
+        Gauge.builder("ai.limiter.in_flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("AI calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("ai.limiter.queued", this, AdaptiveConcurrencyLimiter::getWaiting)
+                .description("AI calls waiting for a free slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a chamada dentro do limite. Exceções reduzem o limite.
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        Permit permit = acquire();
+        try {
+            T result = call.get();
+            permit.release(Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException | Error e) {
+            permit.release(Outcome.DROPPED);
+            throw e;
+        }
+    }
+
+    /**
+     * Reserva um slot, esperando na fila se necessário.
+     * O chamador deve liberar a permissão exatamente uma vez.
+     */
+    public Permit acquire() {
+        if (!properties.isEnabled()) {
+            return new Permit(System.nanoTime(), false);
+        }
+
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                return new Permit(System.nanoTime(), true);
+            }
+            if (queued() >= properties.getMaxQueueSize()) {
+                throw reject("fila de espera cheia");
+            }
+
+            waiting++;
+            try {
+                long remaining = properties.getMaxWait().toNanos();
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        throw reject("tempo de espera esgotado");
+                    }
+                    remaining = slotAvailable.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejections.increment();
+                throw new AiCapacityExceededException("Interrompido aguardando vaga para chamar a IA", e);
+            } finally {
+                waiting--;
+            }
+
+            inFlight++;
+            return new Permit(System.nanoTime(), true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Versão não bloqueante de {@link #acquire()}: o futuro completa quando houver
+     * um slot, ou falha com AiCapacityExceededException pelos mesmos motivos.
+     * Se o futuro for cancelado, o slot entregue depois é devolvido.
+     */
+    public CompletableFuture<Permit> acquireAsync() {
+        if (!properties.isEnabled()) {
+            return CompletableFuture.completedFuture(new Permit(System.nanoTime(), false));
+        }
+
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit(System.nanoTime(), true));
+            }
+            if (queued() >= properties.getMaxQueueSize()) {
+                return CompletableFuture.failedFuture(reject("fila de espera cheia"));
+            }
+
+            CompletableFuture<Permit> waiter = new CompletableFuture<>();
+            asyncWaiters.addLast(waiter);
+            CompletableFuture.delayedExecutor(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)
+                    .execute(() -> expire(waiter));
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return queued();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long startNanos, Outcome outcome) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        List<CompletableFuture<Permit>> handOff;
+
+        lock.lock();
+        try {
+            boolean slow = latencyNanos > properties.getLatencyThreshold().toNanos();
+
+            if (outcome == Outcome.DROPPED || (outcome == Outcome.SUCCESS && slow)) {
+                double reduced = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+                if ((int) reduced < (int) limit) {
+                    log.warn("Reduzindo limite de chamadas à IA de {} para {} (latência {} ms, resultado {})",
+                            (int) limit, (int) reduced, TimeUnit.NANOSECONDS.toMillis(latencyNanos), outcome);
+                }
+                limit = reduced;
+            } else if (outcome == Outcome.SUCCESS && inFlight * 2 >= currentLimit()) {
+                // Só cresce quando o limite está de fato sendo usado
+                limit = Math.min(properties.getMaxLimit(), limit + 1);
+            }
+
+            inFlight--;
+            handOff = handOffToAsyncWaiters();
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        completeOutsideLock(handOff);
+    }
+
+    /**
+     * Entrega os slots livres para quem espera de forma assíncrona, em ordem de chegada.
+     * Chamado com o lock; os futuros são completados depois, fora dele.
+     */
+    private List<CompletableFuture<Permit>> handOffToAsyncWaiters() {
+        List<CompletableFuture<Permit>> handOff = new ArrayList<>();
+        while (!asyncWaiters.isEmpty() && inFlight < currentLimit()) {
+            inFlight++;
+            handOff.add(asyncWaiters.pollFirst());
+        }
+        return handOff;
+    }
+
+    private void completeOutsideLock(List<CompletableFuture<Permit>> handOff) {
+        for (CompletableFuture<Permit> waiter : handOff) {
+            Permit permit = new Permit(System.nanoTime(), true);
+            if (!waiter.complete(permit)) {
+                // Quem esperava desistiu (cancelou): devolve o slot
+                permit.release(Outcome.IGNORED);
+            }
+        }
+    }
+
+    private void expire(CompletableFuture<Permit> waiter) {
+        AiCapacityExceededException rejection;
+        lock.lock();
+        try {
+            // Se já saiu da fila, recebeu um slot a tempo
+            if (!asyncWaiters.remove(waiter)) {
+                return;
+            }
+            rejection = reject("tempo de espera esgotado");
+        } finally {
+            lock.unlock();
+        }
+        waiter.completeExceptionally(rejection);
+    }
+
+    private int queued() {
+        return waiting + asyncWaiters.size();
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private AiCapacityExceededException reject(String reason) {
+        rejections.increment();
+        log.warn("Chamada à IA rejeitada ({}): {} em andamento, limite {}", reason, inFlight, currentLimit());
+        return new AiCapacityExceededException(
+                "Assistente sobrecarregado no momento, tente novamente em instantes");
+    }
+
+    /**
+     * Slot reservado para uma chamada à IA
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final boolean tracked;
+        private boolean released;
+
+        private Permit(long startNanos, boolean tracked) {
+            this.startNanos = startNanos;
+            this.tracked = tracked;
+        }
+
+        public synchronized void release(Outcome outcome) {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (tracked) {
+                AdaptiveConcurrencyLimiter.this.release(startNanos, outcome);
+            }
+        }
+    }
+}
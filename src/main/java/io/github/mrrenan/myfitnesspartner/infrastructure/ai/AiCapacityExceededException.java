@@ -0,0 +1,17 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+/**
+ * Thrown when the AI concurrency limit is reached and the wait queue is full
+ * (or the wait for a free slot timed out). The request is rejected right away
+ * instead of piling up behind a slow AI provider.
+ */
+public class AiCapacityExceededException extends RuntimeException {
+
+    public AiCapacityExceededException(String message) {
+        super(message);
+    }
+
+    public AiCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
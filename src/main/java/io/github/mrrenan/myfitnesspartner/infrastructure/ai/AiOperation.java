@@ -0,0 +1,22 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+/**
+ * Kinds of AI calls made by the application. Each one has its own model
+ * route under app.ai.routes and its own metric tag.
+ */
+public enum AiOperation {
+    ANALYZE_FOOD("analyze_food"),
+    ANALYZE_FOOD_ESCALATION("analyze_food_escalation"),
+    CHAT("chat"),
+    SUMMARIZE("summarize");
+
+    private final String tag;
+
+    AiOperation(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+/**
+ * Thrown when an AI call (or the wait for a shared in-flight call) exceeds its time limit.
+ */
+public class AiTimeoutException extends RuntimeException {
+
+    public AiTimeoutException(String message) {
+        super(message);
+    }
+
+    public AiTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * FitnessAiPort decorator that serves repeated meal descriptions from
+ * {@link FoodEstimateCache} instead of calling the LLM.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CachingFitnessAiPort implements FitnessAiPort {
+
+    private final FitnessAiPort delegate;
+    private final FoodEstimateCache cache;
+
+    @Override
+    public CalorieEstimate analyzeFood(String description) {
+        String key = MealDescriptionNormalizer.normalize(description);
+        if (key.isEmpty()) {
+            return delegate.analyzeFood(description);
+        }
+
+        Optional<CalorieEstimate> cached = cache.get(key);
+        if (cached.isPresent()) {
+            log.debug("Estimativa servida do cache para: {}", key);
+            return cached.get();
+        }
+
+        CalorieEstimate estimate = delegate.analyzeFood(description);
+        cache.put(key, estimate);
+        return estimate;
+    }
+
+    @Override
+    public CompletableFuture<CalorieEstimate> analyzeFoodAsync(String description) {
+        String key = MealDescriptionNormalizer.normalize(description);
+        if (key.isEmpty()) {
+            return delegate.analyzeFoodAsync(description);
+        }
+
+        Optional<CalorieEstimate> cached = cache.get(key);
+        if (cached.isPresent()) {
+            log.debug("Estimativa servida do cache para: {}", key);
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        return delegate.analyzeFoodAsync(description).thenApply(estimate -> {
+            cache.put(key, estimate);
+            return estimate;
+        });
+    }
+
+    @Override
+    public List<CalorieEstimate> analyzeFoods(List<String> descriptions) {
+        List<CalorieEstimate> results = new ArrayList<>(descriptions.size());
+        List<Integer> missIndexes = new ArrayList<>();
+        List<String> misses = new ArrayList<>();
+
+        for (int i = 0; i < descriptions.size(); i++) {
+            String key = MealDescriptionNormalizer.normalize(descriptions.get(i));
+            Optional<CalorieEstimate> cached = key.isEmpty() ? Optional.empty() : cache.get(key);
+            results.add(cached.orElse(null));
+            if (cached.isEmpty()) {
+                missIndexes.add(i);
+                misses.add(descriptions.get(i));
+            }
+        }
+
+        if (misses.isEmpty()) {
+            log.debug("Lote de {} refeições servido inteiro do cache", descriptions.size());
+            return results;
+        }
+
+        // Só as refeições fora do cache vão para a IA
+        List<CalorieEstimate> estimates = delegate.analyzeFoods(misses);
+        for (int i = 0; i < misses.size(); i++) {
+            CalorieEstimate estimate = estimates.get(i);
+            String key = MealDescriptionNormalizer.normalize(misses.get(i));
+            if (!key.isEmpty()) {
+                cache.put(key, estimate);
+            }
+            results.set(missIndexes.get(i), estimate);
+        }
+        return results;
+    }
+
+    @Override
+    public String chat(String userMessage, String conversationHistory) {
+        return delegate.chat(userMessage, conversationHistory);
+    }
+
+    @Override
+    public Mono<String> chatAsync(String userMessage, String conversationHistory) {
+        return delegate.chatAsync(userMessage, conversationHistory);
+    }
+
+    @Override
+    public Flux<String> chatStream(String userMessage, String conversationHistory) {
+        return delegate.chatStream(userMessage, conversationHistory);
+    }
+
+    @Override
+    public String summarize(String previousSummary, String messages) {
+        return delegate.summarize(previousSummary, messages);
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Single-pass parser for the AI's calorie estimate answers.
+ * Skips markdown fences and leading prose by jumping straight to the first
+ * '{' (or '[' for batches) and binds fields with Jackson's streaming
+ * {@link JsonParser}, without building a tree or cleaning the text first.
+ * When there is no usable JSON, a char-level scanner looks for a plausible
+ * calorie number in the text.
+ */
+@Slf4j
+public class CalorieEstimateParser {
+
+    private static final double DEFAULT_CONFIDENCE = 0.8;
+    private static final double FALLBACK_CONFIDENCE = 0.5;
+
+    // Faixa aceita pelo fallback de texto
+    private static final int MIN_FALLBACK_CALORIES = 50;
+    private static final int MAX_FALLBACK_CALORIES = 3000;
+
+    private final JsonFactory jsonFactory;
+
+    public CalorieEstimateParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Lê uma estimativa da resposta da IA, com fallback para o texto livre.
+     *
+     * @throws RuntimeException se não houver JSON válido nem número plausível
+     */
+    public CalorieEstimate parse(String response) {
+        int start = response.indexOf('{');
+        if (start >= 0) {
+            try (JsonParser parser = parserAt(response, start)) {
+                parser.nextToken();
+                return readEstimate(parser).estimate();
+            } catch (IOException | IllegalStateException e) {
+                log.error("Erro ao parsear resposta da IA: {}", response, e);
+            }
+        }
+        return createFallbackEstimate(response);
+    }
+
+    /**
+     * Lê o array de estimativas da análise em lote.
+     * Posições ausentes ou inválidas ficam nulas.
+     */
+    public CalorieEstimate[] parseArray(String response, int expected) {
+        CalorieEstimate[] estimates = new CalorieEstimate[expected];
+
+        int start = response.indexOf('[');
+        if (start < 0) {
+            log.error("Resposta em lote da IA não é um array: {}", response);
+            return estimates;
+        }
+
+        try (JsonParser parser = parserAt(response, start)) {
+            parser.nextToken();
+            int position = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Parsed parsed = readEstimate(parser);
+                int index = parsed.index() >= 0 ? parsed.index() - 1 : position;
+                if (index >= 0 && index < expected && estimates[index] == null) {
+                    estimates[index] = parsed.estimate();
+                }
+                position++;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Mantém o que já foi lido; o restante é analisado individualmente
+            log.error("Erro ao parsear resposta em lote da IA: {}", response, e);
+        }
+        return estimates;
+    }
+
+    /**
+     * Procura, palavra a palavra, o primeiro número entre 50 e 3000.
+     * Caracteres não numéricos dentro da palavra são ignorados ("1.200kcal" → 1200).
+     *
+     * @return as calorias encontradas, ou null
+     */
+    static Integer scanCalories(CharSequence text) {
+        int value = 0;
+        boolean hasDigits = false;
+        boolean tooLarge = false;
+
+        for (int i = 0, length = text.length(); i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isWhitespace(c)) {
+                if (hasDigits && !tooLarge && value >= MIN_FALLBACK_CALORIES) {
+                    return value;
+                }
+                value = 0;
+                hasDigits = false;
+                tooLarge = false;
+            } else if (c >= '0' && c <= '9' && !tooLarge) {
+                hasDigits = true;
+                value = value * 10 + (c - '0');
+                tooLarge = value > MAX_FALLBACK_CALORIES;
+            }
+        }
+        return null;
+    }
+
+    private JsonParser parserAt(String response, int start) throws IOException {
+        StringReader reader = new StringReader(response);
+        reader.skip(start);
+        return jsonFactory.createParser(reader);
+    }
+
+    /**
+     * Lê um objeto a partir do START_OBJECT atual, parando no END_OBJECT correspondente
+     */
+    private Parsed readEstimate(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IllegalStateException("JSON da IA não começa com um objeto");
+        }
+
+        int index = -1;
+        int calories = 0;
+        double protein = 0.0;
+        double carbohydrates = 0.0;
+        double fat = 0.0;
+        String explanation = "";
+        double confidence = DEFAULT_CONFIDENCE;
+
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "index" -> index = parser.getValueAsInt(-1);
+                case "calories" -> calories = parser.getValueAsInt();
+                case "protein" -> protein = parser.getValueAsDouble();
+                case "carbohydrates" -> carbohydrates = parser.getValueAsDouble();
+                case "fat" -> fat = parser.getValueAsDouble();
+                case "explanation" -> explanation = parser.getValueAsString("");
+                case "confidence" -> confidence = value == JsonToken.VALUE_NULL
+                        ? DEFAULT_CONFIDENCE
+                        : parser.getValueAsDouble(DEFAULT_CONFIDENCE);
+                default -> {
+                    // campo desconhecido: ignora
+                }
+            }
+        }
+
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new IllegalStateException("Objeto JSON da IA incompleto");
+        }
+
+        return new Parsed(index, CalorieEstimate.builder()
+                .calories(calories)
+                .protein(protein)
+                .carbohydrates(carbohydrates)
+                .fat(fat)
+                .explanation(explanation)
+                .confidence(confidence)
+                .build());
+    }
+
+    private CalorieEstimate createFallbackEstimate(String aiResponse) {
+        log.warn("Usando fallback para estimar calorias do texto: {}", aiResponse);
+
+        Integer calories = scanCalories(aiResponse);
+        if (calories == null) {
+            throw new RuntimeException("Não foi possível extrair informações calóricas da resposta da IA");
+        }
+
+        return CalorieEstimate.builder()
+                .calories(calories)
+                .protein(0.0)
+                .carbohydrates(0.0)
+                .fat(0.0)
+                .explanation("Estimativa baseada em análise de texto (sem detalhes de macros)")
+                .confidence(FALLBACK_CONFIDENCE)
+                .build();
+    }
+
+    private record Parsed(int index, CalorieEstimate estimate) {
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * FitnessAiPort decorator that coalesces concurrent identical analyzeFood calls.
+ * The first caller for a normalized description runs the AI call; callers that
+ * arrive while it is in flight wait for the same result (or the same failure).
+ * CalorieEstimate is mutable, so each waiter gets its own copy of the result.
+ */
+@Slf4j
+public class CoalescingFitnessAiPort implements FitnessAiPort {
+
+    private final FitnessAiPort delegate;
+    private final Duration waitTimeout;
+    private final ConcurrentMap<String, CompletableFuture<CalorieEstimate>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaderCalls;
+    private final Counter coalescedCalls;
+    private final Counter waitTimeouts;
+
+    public CoalescingFitnessAiPort(FitnessAiPort delegate, Duration waitTimeout, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.waitTimeout = waitTimeout;
+        this.leaderCalls = resultCounter(meterRegistry, "leader");
+        this.coalescedCalls = resultCounter(meterRegistry, "coalesced");
+        this.waitTimeouts = resultCounter(meterRegistry, "timeout");
+
+        Gauge.builder("ai.coalescing.in_flight", inFlight, ConcurrentMap::size)
+                .description("Distinct analyzeFood calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CalorieEstimate analyzeFood(String description) {
+        String key = MealDescriptionNormalizer.normalize(description);
+        if (key.isEmpty()) {
+            return delegate.analyzeFood(description);
+        }
+
+        CompletableFuture<CalorieEstimate> mine = new CompletableFuture<>();
+        CompletableFuture<CalorieEstimate> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            coalescedCalls.increment();
+            log.debug("Aguardando chamada em andamento para: {}", key);
+            return await(existing, key);
+        }
+
+        leaderCalls.increment();
+        try {
+            CalorieEstimate estimate = delegate.analyzeFood(description);
+            inFlight.remove(key, mine);
+            mine.complete(estimate);
+            return estimate;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<CalorieEstimate> analyzeFoodAsync(String description) {
+        String key = MealDescriptionNormalizer.normalize(description);
+        if (key.isEmpty()) {
+            return delegate.analyzeFoodAsync(description);
+        }
+
+        CompletableFuture<CalorieEstimate> mine = new CompletableFuture<>();
+        CompletableFuture<CalorieEstimate> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            coalescedCalls.increment();
+            log.debug("Aguardando chamada em andamento para: {}", key);
+            return join(existing, key);
+        }
+
+        leaderCalls.increment();
+        try {
+            delegate.analyzeFoodAsync(description).whenComplete((estimate, e) -> {
+                inFlight.remove(key, mine);
+                if (e != null) {
+                    mine.completeExceptionally(unwrap(e));
+                } else {
+                    mine.complete(estimate);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        // Cópia: cancelar o retorno não cancela a chamada que os outros aguardam
+        return mine.copy();
+    }
+
+    @Override
+    public List<CalorieEstimate> analyzeFoods(List<String> descriptions) {
+        // Lotes já amortizam a chamada; não participam do agrupamento
+        return delegate.analyzeFoods(descriptions);
+    }
+
+    @Override
+    public String chat(String userMessage, String conversationHistory) {
+        return delegate.chat(userMessage, conversationHistory);
+    }
+
+    @Override
+    public Mono<String> chatAsync(String userMessage, String conversationHistory) {
+        return delegate.chatAsync(userMessage, conversationHistory);
+    }
+
+    @Override
+    public Flux<String> chatStream(String userMessage, String conversationHistory) {
+        return delegate.chatStream(userMessage, conversationHistory);
+    }
+
+    @Override
+    public String summarize(String previousSummary, String messages) {
+        return delegate.summarize(previousSummary, messages);
+    }
+
+    private CalorieEstimate await(CompletableFuture<CalorieEstimate> future, String key) {
+        try {
+            return copy(future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+            throw new AiTimeoutException("Tempo esgotado aguardando a análise da refeição: " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiTimeoutException("Interrompido aguardando a análise da refeição: " + key, e);
+        } catch (ExecutionException e) {
+            // Mesma falha do chamador original para todos que aguardavam
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Versão não bloqueante de {@link #await}: mesmo timeout, sem parar a thread
+     */
+    private CompletableFuture<CalorieEstimate> join(CompletableFuture<CalorieEstimate> future, String key) {
+        return future.thenApply(CoalescingFitnessAiPort::copy)
+                .orTimeout(waitTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof TimeoutException) {
+                        waitTimeouts.increment();
+                        throw new AiTimeoutException("Tempo esgotado aguardando a análise da refeição: " + key, cause);
+                    }
+                    throw e instanceof CompletionException completion ? completion : new CompletionException(cause);
+                });
+    }
+
+    /**
+     * Quem aguardava recebe sua própria instância: alterar uma não afeta as outras
+     */
+    private static CalorieEstimate copy(CalorieEstimate estimate) {
+        return estimate != null ? estimate.toBuilder().build() : null;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static Counter resultCounter(MeterRegistry registry, String result) {
+        return Counter.builder("ai.coalescing")
+                .description("analyzeFood calls by whether they ran or joined an in-flight call")
+                .tag("result", result)
+                .register(registry);
+    }
+}
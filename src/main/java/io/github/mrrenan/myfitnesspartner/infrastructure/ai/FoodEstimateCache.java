@@ -0,0 +1,226 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Two-tier cache for AI calorie estimates, keyed by normalized meal description.
+ * Tier 1: bounded in-process LRU. Tier 2: Redis, shared between instances.
+ */
+@Slf4j
+@Component
+public class FoodEstimateCache {
+
+    private static final String REDIS_PREFIX = "ai:food-estimate:";
+
+    private final AppProperties.Cache properties;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // LinkedHashMap em access-order = LRU; acesso sincronizado
+    private final Map<String, LocalEntry> localEntries;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+
+    public FoodEstimateCache(
+            AppProperties appProperties,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.properties = appProperties.getAi().getCache();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+
+        int maxEntries = properties.getLocalMaxEntries();
+        this.localEntries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.localHits = cacheCounter(meterRegistry, "local", "hit");
+        this.localMisses = cacheCounter(meterRegistry, "local", "miss");
+        this.redisHits = cacheCounter(meterRegistry, "redis", "hit");
+        this.redisMisses = cacheCounter(meterRegistry, "redis", "miss");
+        this.redisErrors = cacheCounter(meterRegistry, "redis", "error");
+
+        Gauge.builder("ai.food_estimate.cache.size", localEntries, this::localSize)
+                .description("Entries in the in-process food estimate cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Busca uma estimativa no cache local e, em seguida, no Redis
+     */
+    public Optional<CalorieEstimate> get(String key) {
+        CalorieEstimate local = getLocal(key);
+        if (local != null) {
+            localHits.increment();
+            return Optional.of(copy(local));
+        }
+        localMisses.increment();
+
+        if (!properties.isRedisEnabled()) {
+            return Optional.empty();
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(REDIS_PREFIX + key);
+            if (json == null) {
+                redisMisses.increment();
+                return Optional.empty();
+            }
+            redisHits.increment();
+            CalorieEstimate estimate = objectMapper.readValue(json, CalorieEstimate.class);
+            putLocal(key, estimate);
+            return Optional.of(copy(estimate));
+        } catch (Exception e) {
+            // Redis indisponível não pode derrubar a análise de refeições
+            redisErrors.increment();
+            log.warn("Erro ao ler cache de estimativas no Redis: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Armazena a estimativa nos dois níveis, se a confiança for suficiente
+     */
+    public void put(String key, CalorieEstimate estimate) {
+        if (!isCacheable(estimate)) {
+            log.debug("Estimativa não cacheada (confiança baixa): {}", key);
+            return;
+        }
+
+        putLocal(key, copy(estimate));
+
+        if (!properties.isRedisEnabled()) {
+            return;
+        }
+
+        try {
+            redisTemplate.opsForValue().set(
+                    REDIS_PREFIX + key,
+                    objectMapper.writeValueAsString(estimate),
+                    properties.getRedisTtl()
+            );
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Erro ao gravar cache de estimativas no Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Remove uma chave dos dois níveis
+     */
+    public void invalidate(String key) {
+        synchronized (localEntries) {
+            localEntries.remove(key);
+        }
+        if (properties.isRedisEnabled()) {
+            try {
+                redisTemplate.delete(REDIS_PREFIX + key);
+            } catch (Exception e) {
+                log.warn("Erro ao invalidar cache no Redis: {}", e.getMessage());
+            }
+        }
+        log.info("Cache de estimativas invalidado para: {}", key);
+    }
+
+    /**
+     * Limpa todo o cache (local e Redis)
+     */
+    public void invalidateAll() {
+        synchronized (localEntries) {
+            localEntries.clear();
+        }
+        if (properties.isRedisEnabled()) {
+            // SCAN em vez de KEYS para não bloquear o Redis
+            ScanOptions options = ScanOptions.scanOptions().match(REDIS_PREFIX + "*").count(500).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    redisTemplate.delete(cursor.next());
+                }
+            } catch (Exception e) {
+                log.warn("Erro ao limpar cache no Redis: {}", e.getMessage());
+            }
+        }
+        log.info("Cache de estimativas totalmente invalidado");
+    }
+
+    private CalorieEstimate getLocal(String key) {
+        synchronized (localEntries) {
+            LocalEntry entry = localEntries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                localEntries.remove(key);
+                return null;
+            }
+            return entry.estimate;
+        }
+    }
+
+    private void putLocal(String key, CalorieEstimate estimate) {
+        long expiresAt = System.currentTimeMillis() + properties.getLocalTtl().toMillis();
+        synchronized (localEntries) {
+            localEntries.put(key, new LocalEntry(estimate, expiresAt));
+        }
+    }
+
+    private double localSize(Map<String, LocalEntry> entries) {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private boolean isCacheable(CalorieEstimate estimate) {
+        return estimate != null
+                && estimate.getCalories() != null
+                && estimate.getConfidence() != null
+                && estimate.getConfidence() >= properties.getMinConfidence();
+    }
+
+    /**
+     * CalorieEstimate é mutável — nunca expõe a instância guardada no cache
+     */
+    private CalorieEstimate copy(CalorieEstimate estimate) {
+        return CalorieEstimate.builder()
+                .calories(estimate.getCalories())
+                .protein(estimate.getProtein())
+                .carbohydrates(estimate.getCarbohydrates())
+                .fat(estimate.getFat())
+                .explanation(estimate.getExplanation())
+                .confidence(estimate.getConfidence())
+                .build();
+    }
+
+    private static Counter cacheCounter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("ai.food_estimate.cache")
+                .description("Food estimate cache lookups")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record LocalEntry(CalorieEstimate estimate, long expiresAt) {
+    }
+}
@@ -0,0 +1,237 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes free-text meal descriptions (pt-BR) into a canonical form.
+ * Two descriptions of the same meal ("Arroz, feijão e frango grelhado" and
+ * "frango grelhado com feijao e arroz") produce the same key.
+ */
+public class MealDescriptionNormalizer {
+
+    // Separa itens da refeição: vírgula (exceto decimal), ponto e vírgula, "+", quebra de linha, " e ", " com "
+    private static final Pattern ITEM_SEPARATOR =
+            Pattern.compile("(?<!\\d),|,(?!\\d)|;|\\+|\\n|\\s+e\\s+|\\s+com\\s+");
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^a-z0-9.,]+");
+
+    private static final Pattern QUANTITY = Pattern.compile("^(\\d+(?:[.,]\\d+)?)([a-z]*)$");
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "de", "do", "da", "dos", "das", "o", "a", "os", "as", "no", "na", "nos", "nas",
+            "e", "com", "eu", "comi", "almocei", "jantei", "tomei", "bebi", "lanchei",
+            "hoje", "agora", "pouco", "mais", "meu", "minha", "em", "um", "uma"
+    );
+
+    private static final Map<String, BigDecimal> NUMBER_WORDS = Map.ofEntries(
+            Map.entry("um", BigDecimal.ONE),
+            Map.entry("uma", BigDecimal.ONE),
+            Map.entry("dois", BigDecimal.valueOf(2)),
+            Map.entry("duas", BigDecimal.valueOf(2)),
+            Map.entry("tres", BigDecimal.valueOf(3)),
+            Map.entry("quatro", BigDecimal.valueOf(4)),
+            Map.entry("cinco", BigDecimal.valueOf(5)),
+            Map.entry("seis", BigDecimal.valueOf(6)),
+            Map.entry("sete", BigDecimal.valueOf(7)),
+            Map.entry("oito", BigDecimal.valueOf(8)),
+            Map.entry("nove", BigDecimal.valueOf(9)),
+            Map.entry("dez", BigDecimal.TEN),
+            Map.entry("meio", new BigDecimal("0.5")),
+            Map.entry("meia", new BigDecimal("0.5"))
+    );
+
+    private static final Map<String, String> UNITS = Map.ofEntries(
+            Map.entry("g", "g"),
+            Map.entry("gr", "g"),
+            Map.entry("grama", "g"),
+            Map.entry("kg", "kg"),
+            Map.entry("quilo", "kg"),
+            Map.entry("ml", "ml"),
+            Map.entry("l", "l"),
+            Map.entry("litro", "l"),
+            Map.entry("colher", "colher"),
+            Map.entry("xicara", "xicara"),
+            Map.entry("fatia", "fatia"),
+            Map.entry("unidade", "unidade"),
+            Map.entry("un", "unidade"),
+            Map.entry("copo", "copo"),
+            Map.entry("concha", "concha"),
+            Map.entry("prato", "prato"),
+            Map.entry("porcao", "porcao"),
+            Map.entry("pedaco", "pedaco"),
+            Map.entry("lata", "lata")
+    );
+
+    // "colher de sopa" / "colher de chá" são medidas diferentes
+    private static final Set<String> UNIT_QUALIFIERS = Set.of("sopa", "cha", "sobremesa");
+
+    private static final BigDecimal THOUSAND = BigDecimal.valueOf(1000);
+
+    private MealDescriptionNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * Canonical cache key for a meal description.
+     * Items are sorted, so word order and separators do not matter.
+     */
+    public static String normalize(String description) {
+        List<String> keys = new ArrayList<>();
+        for (Item item : parseItems(description)) {
+            keys.add(item.toKey());
+        }
+        keys.sort(null);
+        return String.join("|", keys);
+    }
+
+    /**
+     * Splits a description into items ("2 ovos", "100g de arroz") with
+     * their quantity, unit and normalized food words.
+     */
+    public static List<Item> parseItems(String description) {
+        List<Item> items = new ArrayList<>();
+        if (description == null || description.isBlank()) {
+            return items;
+        }
+
+        String folded = foldAccents(description.toLowerCase(Locale.ROOT));
+        for (String rawItem : ITEM_SEPARATOR.split(folded)) {
+            Item item = parseItem(rawItem);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Remove acentos: "feijão" → "feijao"
+     */
+    public static String foldAccents(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    /**
+     * Reduz plurais do português para o singular: "ovos" → "ovo", "pães" → "pao",
+     * "pastéis" → "pastel", "colheres" → "colher".
+     * Expects lower-case, accent-free input.
+     */
+    public static String singularize(String word) {
+        if (word.length() <= 3 || !word.endsWith("s") || word.endsWith("ss") || word.endsWith("us")) {
+            return word;
+        }
+        if (word.endsWith("oes") || word.endsWith("aes")) {
+            return word.substring(0, word.length() - 3) + "ao";
+        }
+        if (word.endsWith("ais") || word.endsWith("eis") || word.endsWith("ois") || word.endsWith("uis")) {
+            return word.substring(0, word.length() - 2) + "l";
+        }
+        if (word.endsWith("ns")) {
+            return word.substring(0, word.length() - 2) + "m";
+        }
+        if (word.endsWith("eses")) {
+            // "franceses" → "frances" → "france" (mesmo resultado de "francês")
+            return singularize(word.substring(0, word.length() - 2));
+        }
+        if (word.endsWith("res") || word.endsWith("zes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        char beforeS = word.charAt(word.length() - 2);
+        if ("aeiou".indexOf(beforeS) >= 0) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static Item parseItem(String rawItem) {
+        BigDecimal quantity = null;
+        String unit = null;
+        List<String> words = new ArrayList<>();
+
+        for (String token : TOKEN_SEPARATOR.split(rawItem.trim())) {
+            if (token.isEmpty()) continue;
+
+            Matcher matcher = QUANTITY.matcher(token);
+            if (matcher.matches() && quantity == null) {
+                quantity = new BigDecimal(matcher.group(1).replace(',', '.'));
+                String attachedUnit = UNITS.get(singularize(matcher.group(2)));
+                if (attachedUnit != null) {
+                    unit = attachedUnit;
+                }
+                continue;
+            }
+
+            String word = token.replace(",", "").replace(".", "");
+            if (word.isEmpty()) continue;
+
+            if (quantity == null && words.isEmpty() && NUMBER_WORDS.containsKey(word)) {
+                quantity = NUMBER_WORDS.get(word);
+                continue;
+            }
+
+            String singular = singularize(word);
+            if (unit == null && quantity != null && words.isEmpty() && UNITS.containsKey(singular)) {
+                unit = UNITS.get(singular);
+                continue;
+            }
+
+            if ("colher".equals(unit) && words.isEmpty() && UNIT_QUALIFIERS.contains(word)) {
+                unit = unit + "-" + word;
+                continue;
+            }
+
+            if (!STOPWORDS.contains(word)) {
+                words.add(singular);
+            }
+        }
+
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        // Converte kg → g e l → ml para que "0,2kg" e "200g" gerem a mesma chave
+        if (quantity != null && "kg".equals(unit)) {
+            quantity = quantity.multiply(THOUSAND);
+            unit = "g";
+        } else if (quantity != null && "l".equals(unit)) {
+            quantity = quantity.multiply(THOUSAND);
+            unit = "ml";
+        }
+
+        return new Item(quantity != null ? quantity.doubleValue() : null, unit, List.copyOf(words));
+    }
+
+    /**
+     * A single food item of a meal description
+     */
+    @Value
+    public static class Item {
+        Double quantity; // null quando não informado
+        String unit;     // g, ml, colher, fatia... (null = unidades)
+        List<String> words;
+
+        public String toKey() {
+            List<String> sortedWords = new ArrayList<>(words);
+            sortedWords.sort(null);
+            String food = String.join(" ", sortedWords);
+            if (quantity == null) {
+                return food;
+            }
+            String amount = BigDecimal.valueOf(quantity).stripTrailingZeros().toPlainString();
+            return amount + (unit != null ? unit : "") + " " + food;
+        }
+    }
+}
@@ -1,32 +1,266 @@
 package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
 import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 @Component
+@Qualifier("aiBackend")
+@Profile("!simulator")
 @Slf4j
 public class SpringAiAdapter implements FitnessAiPort {
 
+    // Tamanho máximo pedido para o resumo da conversa
+    private static final int SUMMARY_MAX_WORDS = 120;
+
     private final ChatClient chatClient;
-    private final ObjectMapper objectMapper;
+    private final CalorieEstimateParser parser;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final AppProperties.Routes routes;
+    private final AppProperties.Cascade cascade;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter cascadeAccepted;
+    private final Counter cascadeEscalated;
+    private final Counter cascadeEscalationFailed;
 
-    public SpringAiAdapter(ChatClient.Builder builder, ObjectMapper objectMapper) {
+    public SpringAiAdapter(
+            ChatClient.Builder builder,
+            ObjectMapper objectMapper,
+            AdaptiveConcurrencyLimiter limiter,
+            AppProperties appProperties,
+            MeterRegistry meterRegistry) {
         this.chatClient = builder
                 .defaultSystem("Você é um assistente fitness. Responda sempre em português.")
                 .build();
-        this.objectMapper = objectMapper;
+        this.parser = new CalorieEstimateParser(objectMapper);
+        this.limiter = limiter;
+        this.routes = appProperties.getAi().getRoutes();
+        this.cascade = appProperties.getAi().getCascade();
+        this.meterRegistry = meterRegistry;
+        this.cascadeAccepted = cascadeCounter(meterRegistry, "accepted");
+        this.cascadeEscalated = cascadeCounter(meterRegistry, "escalated");
+        this.cascadeEscalationFailed = cascadeCounter(meterRegistry, "escalation_failed");
     }
 
     @Override
     public CalorieEstimate analyzeFood(String description) {
         log.info("Analisando refeição com IA: {}", description);
 
+        CalorieEstimate fast = estimate(description, AiOperation.ANALYZE_FOOD, routes.getAnalyzeFood());
+        if (!shouldEscalate(fast)) {
+            return fast;
+        }
+
+        log.info("Confiança {} abaixo de {}, escalando para o modelo mais forte: {}",
+                fast.getConfidence(), cascade.getMinConfidence(), description);
+        try {
+            CalorieEstimate strong = estimate(
+                    description, AiOperation.ANALYZE_FOOD_ESCALATION, routes.getAnalyzeFoodEscalation());
+            return best(fast, strong);
+        } catch (RuntimeException e) {
+            // O modelo forte falhou: a estimativa rápida ainda é melhor que nenhuma
+            log.warn("Escalonamento falhou ({}), mantendo a estimativa rápida para: {}", e.getMessage(), description);
+            cascadeEscalationFailed.increment();
+            return fast;
+        }
+    }
+
+    @Override
+    public List<CalorieEstimate> analyzeFoods(List<String> descriptions) {
+        if (descriptions.isEmpty()) {
+            return List.of();
+        }
+        if (descriptions.size() == 1) {
+            return List.of(analyzeFood(descriptions.get(0)));
+        }
+
+        log.info("Analisando {} refeições com IA em uma única chamada", descriptions.size());
+
+        CalorieEstimate[] estimates = estimateBatch(descriptions, AiOperation.ANALYZE_FOOD, routes.getAnalyzeFood());
+
+        List<Integer> lowConfidence = new ArrayList<>();
+        for (int i = 0; i < estimates.length; i++) {
+            if (estimates[i] == null) {
+                // Refeições que faltaram na resposta são analisadas individualmente (já com a cascata)
+                log.warn("Refeição {} ausente na resposta em lote, analisando individualmente", i + 1);
+                estimates[i] = analyzeFood(descriptions.get(i));
+            } else if (shouldEscalate(estimates[i])) {
+                lowConfidence.add(i);
+            }
+        }
+
+        if (!lowConfidence.isEmpty()) {
+            escalate(descriptions, estimates, lowConfidence);
+        }
+        return new ArrayList<>(Arrays.asList(estimates));
+    }
+
+    @Override
+    public CompletableFuture<CalorieEstimate> analyzeFoodAsync(String description) {
+        log.info("Analisando refeição com IA (assíncrono): {}", description);
+
+        return callAsync(AiOperation.ANALYZE_FOOD, routes.getAnalyzeFood(), foodPrompt(description))
+                .map(parser::parse)
+                .flatMap(fast -> {
+                    if (!shouldEscalate(fast)) {
+                        return Mono.just(fast);
+                    }
+                    log.info("Confiança {} abaixo de {}, escalando para o modelo mais forte: {}",
+                            fast.getConfidence(), cascade.getMinConfidence(), description);
+                    return callAsync(AiOperation.ANALYZE_FOOD_ESCALATION,
+                                    routes.getAnalyzeFoodEscalation(), foodPrompt(description))
+                            .map(parser::parse)
+                            .map(strong -> best(fast, strong))
+                            .onErrorResume(RuntimeException.class, e -> {
+                                log.warn("Escalonamento falhou ({}), mantendo a estimativa rápida para: {}",
+                                        e.getMessage(), description);
+                                cascadeEscalationFailed.increment();
+                                return Mono.just(fast);
+                            });
+                })
+                .toFuture();
+    }
+
+    @Override
+    public Mono<String> chatAsync(String userMessage, String context) {
+        log.info("Gerando resposta fitness (assíncrono) para: {}", userMessage);
+
+        return callAsync(AiOperation.CHAT, routes.getChat(), buildChatContent(userMessage, context));
+    }
+
+    @Override
+    public String chat(String userMessage, String context) {
+        log.info("Gerando resposta fitness para: {}", userMessage);
+
+        return call(AiOperation.CHAT, routes.getChat(), 1, buildChatContent(userMessage, context));
+    }
+
+    @Override
+    public Flux<String> chatStream(String userMessage, String context) {
+        log.info("Gerando resposta fitness (stream) para: {}", userMessage);
+
+        // O slot fica ocupado até o fim do stream; a duração não ajusta o limite
+        AppProperties.Route route = routes.getChat();
+        return Mono.fromFuture(limiter::acquireAsync).flatMapMany(permit -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return chatClient.prompt()
+                    .options(optionsFor(route, 1))
+                    .user(buildChatContent(userMessage, context))
+                    .stream()
+                    .content()
+                    .doFinally(signal -> {
+                        boolean failed = signal == SignalType.ON_ERROR;
+                        sample.stop(latencyTimer(AiOperation.CHAT, route, failed));
+                        permit.release(failed
+                                ? AdaptiveConcurrencyLimiter.Outcome.DROPPED
+                                : AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+                    });
+        });
+    }
+
+    @Override
+    public String summarize(String previousSummary, String messages) {
+        log.info("Atualizando resumo da conversa com IA");
+
         String prompt = """
+            Atualize o resumo de uma conversa entre um usuário e seu assistente fitness.
+            Mantenha só o que for útil para as próximas respostas: objetivos, restrições,
+            preferências, refeições e números citados. Descarte cumprimentos e repetições.
+            Responda APENAS com o novo resumo, em até %d palavras.
+
+            Resumo atual: %s
+
+            Novas mensagens:
+            %s
+            """.formatted(SUMMARY_MAX_WORDS,
+                (previousSummary == null || previousSummary.isBlank()) ? "(nenhum)" : previousSummary,
+                messages);
+
+        return call(AiOperation.SUMMARIZE, routes.getSummarize(), 1, prompt);
+    }
+
+    /**
+     * Reavalia com o modelo forte, em uma chamada, as refeições do lote com confiança baixa
+     */
+    private void escalate(List<String> descriptions, CalorieEstimate[] estimates, List<Integer> indexes) {
+        log.info("{} de {} refeições com confiança baixa, escalando para o modelo mais forte",
+                indexes.size(), descriptions.size());
+        List<String> pending = indexes.stream().map(descriptions::get).toList();
+        try {
+            CalorieEstimate[] strong = pending.size() == 1
+                    ? new CalorieEstimate[] {estimate(pending.get(0),
+                            AiOperation.ANALYZE_FOOD_ESCALATION, routes.getAnalyzeFoodEscalation())}
+                    : estimateBatch(pending, AiOperation.ANALYZE_FOOD_ESCALATION, routes.getAnalyzeFoodEscalation());
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                estimates[index] = best(estimates[index], strong[i]);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Escalonamento em lote falhou ({}), mantendo as estimativas rápidas", e.getMessage());
+            cascadeEscalationFailed.increment(indexes.size());
+        }
+    }
+
+    /**
+     * Decide se a estimativa rápida sobe para o modelo forte, contando o resultado
+     */
+    private boolean shouldEscalate(CalorieEstimate estimate) {
+        if (!cascade.isEnabled()) {
+            return false;
+        }
+        Double confidence = estimate.getConfidence();
+        if (confidence != null && confidence >= cascade.getMinConfidence()) {
+            cascadeAccepted.increment();
+            return false;
+        }
+        cascadeEscalated.increment();
+        return true;
+    }
+
+    /**
+     * Fica com a estimativa do modelo forte, a não ser que ela seja menos confiante que a rápida
+     */
+    private static CalorieEstimate best(CalorieEstimate fast, CalorieEstimate strong) {
+        if (strong == null) {
+            return fast;
+        }
+        double fastConfidence = Objects.requireNonNullElse(fast.getConfidence(), 0.0);
+        double strongConfidence = Objects.requireNonNullElse(strong.getConfidence(), 0.0);
+        return strongConfidence >= fastConfidence ? strong : fast;
+    }
+
+    /**
+     * Uma estimativa com a rota informada
+     */
+    private CalorieEstimate estimate(String description, AiOperation operation, AppProperties.Route route) {
+        return parser.parse(call(operation, route, 1, foodPrompt(description)));
+    }
+
+    private static String foodPrompt(String description) {
+        return """
             Analise a refeição e retorne APENAS JSON válido, sem markdown:
             {
               "calories": int,
@@ -38,71 +272,175 @@ public class SpringAiAdapter implements FitnessAiPort {
             }
             Refeição: "%s"
             """.formatted(description);
+    }
+
+    /**
+     * Várias estimativas em uma chamada; posições ausentes na resposta ficam nulas
+     */
+    private CalorieEstimate[] estimateBatch(List<String> descriptions, AiOperation operation, AppProperties.Route route) {
+        StringBuilder meals = new StringBuilder();
+        for (int i = 0; i < descriptions.size(); i++) {
+            meals.append(i + 1).append(". \"").append(descriptions.get(i)).append("\"\n");
+        }
 
-        String response = chatClient.prompt()
-                .user(prompt)
-                .call()
-                .content();
+        String prompt = """
+            Analise cada refeição numerada abaixo e retorne APENAS um array JSON válido, sem markdown,
+            com um objeto por refeição, na mesma ordem:
+            [
+              {
+                "index": int,
+                "calories": int,
+                "protein": double,
+                "carbohydrates": double,
+                "fat": double,
+                "explanation": "string",
+                "confidence": double
+              }
+            ]
+            Refeições:
+            %s""".formatted(meals);
 
-        return parseCalorieEstimate(response);
+        // Espaço de resposta para todas as refeições
+        String response = call(operation, route, descriptions.size(), prompt);
+        return parser.parseArray(response, descriptions.size());
     }
 
-    @Override
-    public String chat(String userMessage, String context) {
-        log.info("Gerando resposta fitness para: {}", userMessage);
+    /**
+     * Chamada síncrona com as opções da rota, dentro do limitador, registrando
+     * latência e tokens por operação e modelo
+     */
+    private String call(AiOperation operation, AppProperties.Route route, int maxTokensMultiplier, String prompt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean failed = true;
+        try {
+            ChatResponse response = limiter.execute(() -> chatClient.prompt()
+                    .options(optionsFor(route, maxTokensMultiplier))
+                    .user(prompt)
+                    .call()
+                    .chatResponse());
+            failed = false;
+            recordTokens(operation, route, response);
+            return textOf(response);
+        } finally {
+            sample.stop(latencyTimer(operation, route, failed));
+        }
+    }
 
-        String userContent = (context != null && !context.isBlank())
-                ? "Contexto anterior: " + context + "\n\nMensagem: " + userMessage
-                : userMessage;
+    /**
+     * Mesma chamada de {@link #call}, pelo caminho reativo do ChatClient: nenhuma
+     * thread fica parada esperando a vaga no limitador nem a resposta da IA
+     */
+    private Mono<String> callAsync(AiOperation operation, AppProperties.Route route, String prompt) {
+        return Mono.fromFuture(limiter::acquireAsync).flatMap(permit -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return chatClient.prompt()
+                    .options(optionsFor(route, 1))
+                    .user(prompt)
+                    .stream()
+                    .chatResponse()
+                    .collectList()
+                    .map(chunks -> {
+                        StringBuilder text = new StringBuilder();
+                        chunks.forEach(chunk -> text.append(textOf(chunk)));
+                        // O uso de tokens vem no último trecho do stream
+                        if (!chunks.isEmpty()) {
+                            recordTokens(operation, route, chunks.get(chunks.size() - 1));
+                        }
+                        return text.toString();
+                    })
+                    .doFinally(signal -> {
+                        boolean failed = signal == SignalType.ON_ERROR;
+                        sample.stop(latencyTimer(operation, route, failed));
+                        permit.release(switch (signal) {
+                            case ON_COMPLETE -> AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+                            case ON_ERROR -> AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+                            default -> AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+                        });
+                    });
+        });
+    }
 
-        return chatClient.prompt()
-                .user(userContent)
-                .call()
-                .content();
+    private ChatOptions optionsFor(AppProperties.Route route, int maxTokensMultiplier) {
+        return ChatOptions.builder()
+                .model(hasModel(route) ? route.getModel() : null)
+                .temperature(route.getTemperature())
+                .maxTokens(route.getMaxTokens() != null ? route.getMaxTokens() * maxTokensMultiplier : null)
+                .build();
     }
 
-    private CalorieEstimate parseCalorieEstimate(String response) {
-        try {
-            String clean = response.replaceAll("```json|```", "").trim();
-            JsonNode node = objectMapper.readTree(clean);
-
-            return CalorieEstimate.builder()
-                    .calories(node.path("calories").asInt())
-                    .protein(node.path("protein").asDouble())
-                    .carbohydrates(node.path("carbohydrates").asDouble())
-                    .fat(node.path("fat").asDouble())
-                    .explanation(node.path("explanation").asText())
-                    .confidence(node.path("confidence").asDouble(0.8))
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Erro ao parsear resposta da IA: {}", response, e);
-            return createFallbackEstimate(response); // ← aproveita o fallback
+    private Timer latencyTimer(AiOperation operation, AppProperties.Route route, boolean failed) {
+        return Timer.builder("ai.call.latency")
+                .description("Latency of AI calls by operation and model")
+                .tag("operation", operation.tag())
+                .tag("model", modelTag(route))
+                .tag("outcome", failed ? "error" : "success")
+                .register(meterRegistry);
+    }
+
+    private void recordTokens(AiOperation operation, AppProperties.Route route, ChatResponse response) {
+        if (response == null || response.getMetadata() == null) {
+            return;
+        }
+        Usage usage = response.getMetadata().getUsage();
+        if (usage == null) {
+            return;
         }
+        double promptTokens = valueOf(usage.getPromptTokens());
+        double completionTokens = valueOf(usage.getCompletionTokens());
+        tokenSummary(operation, route, "prompt").record(promptTokens);
+        tokenSummary(operation, route, "completion").record(completionTokens);
+
+        double cost = (promptTokens * route.getInputCostPerMillion()
+                + completionTokens * route.getOutputCostPerMillion()) / 1_000_000;
+        Counter.builder("ai.call.cost")
+                .description("Estimated cost of AI calls from token usage and app.ai.routes prices")
+                .baseUnit("usd")
+                .tag("operation", operation.tag())
+                .tag("model", modelTag(route))
+                .register(meterRegistry)
+                .increment(cost);
     }
 
-    private CalorieEstimate createFallbackEstimate(String aiResponse) {
-        log.warn("Usando fallback para estimar calorias do texto: {}", aiResponse);
-
-        String[] words = aiResponse.split("\\s+");
-        for (String word : words) {
-            try {
-                int number = Integer.parseInt(word.replaceAll("[^0-9]", ""));
-                if (number >= 50 && number <= 3000) {
-                    return CalorieEstimate.builder()
-                            .calories(number)
-                            .protein(0.0)
-                            .carbohydrates(0.0)
-                            .fat(0.0)
-                            .explanation("Estimativa baseada em análise de texto (sem detalhes de macros)")
-                            .confidence(0.5)
-                            .build();
-                }
-            } catch (NumberFormatException ignored) {
-                // continua buscando
-            }
+    private DistributionSummary tokenSummary(AiOperation operation, AppProperties.Route route, String type) {
+        return DistributionSummary.builder("ai.call.tokens")
+                .description("Tokens per AI call by operation, model and type")
+                .baseUnit("tokens")
+                .tag("operation", operation.tag())
+                .tag("model", modelTag(route))
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static Counter cascadeCounter(MeterRegistry registry, String result) {
+        return Counter.builder("ai.cascade")
+                .description("analyzeFood cascade decisions on the fast-tier estimate")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static String textOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
         }
+        String text = response.getResult().getOutput().getText();
+        return text != null ? text : "";
+    }
 
-        throw new RuntimeException("Não foi possível extrair informações calóricas da resposta da IA");
+    private static boolean hasModel(AppProperties.Route route) {
+        return route.getModel() != null && !route.getModel().isBlank();
+    }
+
+    private static String modelTag(AppProperties.Route route) {
+        return hasModel(route) ? route.getModel() : "default";
+    }
+
+    private static double valueOf(Integer tokens) {
+        return tokens != null ? tokens : 0;
+    }
+
+    private String buildChatContent(String userMessage, String context) {
+        return (context != null && !context.isBlank())
+                ? "Contexto anterior: " + context + "\n\nMensagem: " + userMessage
+                : userMessage;
     }
 }
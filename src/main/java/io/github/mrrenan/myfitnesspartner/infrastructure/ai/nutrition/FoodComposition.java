@@ -0,0 +1,19 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition;
+
+import lombok.Value;
+
+/**
+ * Nutritional composition of a food, per 100g.
+ * Loaded from the bundled food composition table (nutrition/foods.csv).
+ */
+@Value
+public class FoodComposition {
+
+    String name;
+    double calories;        // kcal / 100g
+    double protein;         // g / 100g
+    double carbohydrates;   // g / 100g
+    double fat;             // g / 100g
+    double portionGrams;    // porção padrão quando a quantidade não é informada
+    Double unitGrams;       // peso de 1 unidade (ovo, pão, fatia...), null quando não se aplica
+}
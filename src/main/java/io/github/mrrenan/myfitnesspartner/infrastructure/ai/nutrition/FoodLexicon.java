@@ -0,0 +1,122 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.MealDescriptionNormalizer;
+import lombok.Value;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Word-level trie over food names and their synonyms.
+ * Finds the longest food name starting at a given word ("frango grelhado" wins over "frango").
+ */
+public class FoodLexicon {
+
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Carrega o lexicon a partir da tabela CSV (separada por ';')
+     */
+    public static FoodLexicon load(Resource resource) {
+        FoodLexicon lexicon = new FoodLexicon();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+
+                String[] columns = line.split(";", -1);
+                if (columns.length < 7) {
+                    throw new IllegalStateException("Linha inválida na tabela nutricional: " + line);
+                }
+
+                String[] names = columns[0].split("\\|");
+                FoodComposition food = new FoodComposition(
+                        names[0].trim(),
+                        Double.parseDouble(columns[1]),
+                        Double.parseDouble(columns[2]),
+                        Double.parseDouble(columns[3]),
+                        Double.parseDouble(columns[4]),
+                        Double.parseDouble(columns[5]),
+                        columns[6].isBlank() ? null : Double.valueOf(columns[6])
+                );
+
+                for (String name : names) {
+                    lexicon.add(toWords(name), food);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível carregar a tabela nutricional", e);
+        }
+
+        return lexicon;
+    }
+
+    public void add(List<String> words, FoodComposition food) {
+        Node node = root;
+        for (String word : words) {
+            node = node.children.computeIfAbsent(word, w -> new Node());
+        }
+        if (node.food == null) {
+            size++;
+        }
+        node.food = food;
+    }
+
+    /**
+     * Longest food name starting at {@code start}, or null when no name matches
+     */
+    public Match longestMatch(List<String> words, int start) {
+        Node node = root;
+        Match best = null;
+
+        for (int i = start; i < words.size(); i++) {
+            node = node.children.get(words.get(i));
+            if (node == null) break;
+            if (node.food != null) {
+                best = new Match(node.food, i - start + 1);
+            }
+        }
+        return best;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static List<String> toWords(String name) {
+        String folded = MealDescriptionNormalizer.foldAccents(name.trim().toLowerCase(Locale.ROOT));
+        List<String> words = new ArrayList<>();
+        for (String word : folded.split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(MealDescriptionNormalizer.singularize(word));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * A food found in the description and how many words it spans
+     */
+    @Value
+    public static class Match {
+        FoodComposition food;
+        int length;
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private FoodComposition food;
+    }
+}
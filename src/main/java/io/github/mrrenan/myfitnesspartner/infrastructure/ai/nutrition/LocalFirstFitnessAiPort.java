@@ -0,0 +1,164 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * FitnessAiPort decorator that answers analyzeFood from the local food table
+ * when the estimate is confident enough, and only calls the AI otherwise.
+ * If the AI call fails, a partial local estimate is still returned when available.
+ */
+@Slf4j
+public class LocalFirstFitnessAiPort implements FitnessAiPort {
+
+    private final FitnessAiPort delegate;
+    private final LocalNutritionResolver resolver;
+    private final double minConfidence;
+
+    private final Counter resolvedLocally;
+    private final Counter delegatedToAi;
+    private final Counter servedDegraded;
+
+    public LocalFirstFitnessAiPort(
+            FitnessAiPort delegate,
+            LocalNutritionResolver resolver,
+            double minConfidence,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.resolver = resolver;
+        this.minConfidence = minConfidence;
+        this.resolvedLocally = resultCounter(meterRegistry, "local");
+        this.delegatedToAi = resultCounter(meterRegistry, "ai");
+        this.servedDegraded = resultCounter(meterRegistry, "degraded");
+    }
+
+    @Override
+    public CalorieEstimate analyzeFood(String description) {
+        Optional<CalorieEstimate> local = resolver.resolve(description);
+
+        if (local.isPresent() && local.get().getConfidence() >= minConfidence) {
+            log.debug("Refeição estimada localmente (confiança {}): {}",
+                    local.get().getConfidence(), description);
+            resolvedLocally.increment();
+            return local.get();
+        }
+
+        delegatedToAi.increment();
+        try {
+            return delegate.analyzeFood(description);
+        } catch (RuntimeException e) {
+            if (local.isEmpty()) {
+                throw e;
+            }
+            // IA indisponível: melhor uma estimativa parcial do que perder o registro
+            log.warn("IA falhou ({}), usando estimativa local parcial para: {}", e.getMessage(), description);
+            servedDegraded.increment();
+            return local.get();
+        }
+    }
+
+    @Override
+    public CompletableFuture<CalorieEstimate> analyzeFoodAsync(String description) {
+        Optional<CalorieEstimate> local = resolver.resolve(description);
+
+        if (local.isPresent() && local.get().getConfidence() >= minConfidence) {
+            log.debug("Refeição estimada localmente (confiança {}): {}",
+                    local.get().getConfidence(), description);
+            resolvedLocally.increment();
+            return CompletableFuture.completedFuture(local.get());
+        }
+
+        delegatedToAi.increment();
+        return delegate.analyzeFoodAsync(description).exceptionally(e -> {
+            if (local.isEmpty()) {
+                throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+            }
+            // IA indisponível: melhor uma estimativa parcial do que perder o registro
+            log.warn("IA falhou ({}), usando estimativa local parcial para: {}", e.getMessage(), description);
+            servedDegraded.increment();
+            return local.get();
+        });
+    }
+
+    @Override
+    public List<CalorieEstimate> analyzeFoods(List<String> descriptions) {
+        List<CalorieEstimate> results = new ArrayList<>(descriptions.size());
+        List<Optional<CalorieEstimate>> locals = new ArrayList<>(descriptions.size());
+        List<Integer> aiIndexes = new ArrayList<>();
+        List<String> aiDescriptions = new ArrayList<>();
+
+        for (int i = 0; i < descriptions.size(); i++) {
+            Optional<CalorieEstimate> local = resolver.resolve(descriptions.get(i));
+            locals.add(local);
+            if (local.isPresent() && local.get().getConfidence() >= minConfidence) {
+                resolvedLocally.increment();
+                results.add(local.get());
+            } else {
+                results.add(null);
+                aiIndexes.add(i);
+                aiDescriptions.add(descriptions.get(i));
+            }
+        }
+
+        if (aiDescriptions.isEmpty()) {
+            return results;
+        }
+
+        delegatedToAi.increment(aiDescriptions.size());
+        try {
+            List<CalorieEstimate> estimates = delegate.analyzeFoods(aiDescriptions);
+            for (int i = 0; i < aiIndexes.size(); i++) {
+                results.set(aiIndexes.get(i), estimates.get(i));
+            }
+            return results;
+        } catch (RuntimeException e) {
+            // Só dá para degradar se todas as refeições pendentes tiverem estimativa local
+            if (aiIndexes.stream().anyMatch(i -> locals.get(i).isEmpty())) {
+                throw e;
+            }
+            log.warn("IA falhou ({}), usando estimativas locais parciais para {} refeições",
+                    e.getMessage(), aiIndexes.size());
+            servedDegraded.increment(aiIndexes.size());
+            aiIndexes.forEach(i -> results.set(i, locals.get(i).get()));
+            return results;
+        }
+    }
+
+    @Override
+    public String chat(String userMessage, String conversationHistory) {
+        return delegate.chat(userMessage, conversationHistory);
+    }
+
+    @Override
+    public Mono<String> chatAsync(String userMessage, String conversationHistory) {
+        return delegate.chatAsync(userMessage, conversationHistory);
+    }
+
+    @Override
+    public Flux<String> chatStream(String userMessage, String conversationHistory) {
+        return delegate.chatStream(userMessage, conversationHistory);
+    }
+
+    @Override
+    public String summarize(String previousSummary, String messages) {
+        return delegate.summarize(previousSummary, messages);
+    }
+
+    private static Counter resultCounter(MeterRegistry registry, String source) {
+        return Counter.builder("ai.local_nutrition")
+                .description("analyzeFood requests by the source that answered them")
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.MealDescriptionNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Deterministic calorie estimator backed by the bundled food composition table.
+ * Parses the description into items and portions and matches each item against
+ * the {@link FoodLexicon}. The confidence reflects how much of the description
+ * was recognized and how precise the portions were.
+ */
+@Slf4j
+@Component
+public class LocalNutritionResolver {
+
+    private static final String FOOD_TABLE = "nutrition/foods.csv";
+
+    // Certeza da porção conforme a forma como a quantidade foi informada
+    private static final double EXPLICIT_MASS_CERTAINTY = 1.0;
+    private static final double UNIT_WEIGHT_CERTAINTY = 0.9;
+    private static final double HOUSEHOLD_MEASURE_CERTAINTY = 0.85;
+    private static final double SERVING_CERTAINTY = 0.8;
+    private static final double DEFAULT_PORTION_CERTAINTY = 0.7;
+
+    // Medidas caseiras em gramas (ou ml)
+    private static final Map<String, Double> HOUSEHOLD_MEASURES = Map.of(
+            "colher", 15.0,
+            "colher-sopa", 15.0,
+            "colher-sobremesa", 10.0,
+            "colher-cha", 5.0,
+            "xicara", 160.0,
+            "copo", 200.0,
+            "concha", 140.0,
+            "lata", 350.0
+    );
+
+    private final FoodLexicon lexicon;
+
+    public LocalNutritionResolver() {
+        this(FoodLexicon.load(new ClassPathResource(FOOD_TABLE)));
+    }
+
+    public LocalNutritionResolver(FoodLexicon lexicon) {
+        this.lexicon = lexicon;
+        log.info("Tabela nutricional local carregada com {} nomes de alimentos", lexicon.size());
+    }
+
+    /**
+     * Estima calorias e macros localmente.
+     * Retorna vazio quando nenhum alimento da descrição foi reconhecido.
+     */
+    public Optional<CalorieEstimate> resolve(String description) {
+        List<MealDescriptionNormalizer.Item> items = MealDescriptionNormalizer.parseItems(description);
+        if (items.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int totalWords = 0;
+        int matchedWords = 0;
+        double calories = 0;
+        double protein = 0;
+        double carbohydrates = 0;
+        double fat = 0;
+        double weightedCertainty = 0;
+        List<String> parts = new ArrayList<>();
+
+        for (MealDescriptionNormalizer.Item item : items) {
+            List<String> words = item.getWords();
+            totalWords += words.size();
+            boolean quantityUsed = false;
+
+            int i = 0;
+            while (i < words.size()) {
+                FoodLexicon.Match match = lexicon.longestMatch(words, i);
+                if (match == null) {
+                    i++;
+                    continue;
+                }
+
+                FoodComposition food = match.getFood();
+                // A quantidade do item vale só para o primeiro alimento reconhecido
+                Portion portion = quantityUsed ? defaultPortion(food) : portionFor(item, food);
+                quantityUsed = true;
+
+                double factor = portion.grams / 100.0;
+                double foodCalories = food.getCalories() * factor;
+
+                calories += foodCalories;
+                protein += food.getProtein() * factor;
+                carbohydrates += food.getCarbohydrates() * factor;
+                fat += food.getFat() * factor;
+                weightedCertainty += foodCalories * portion.certainty;
+                parts.add("%s (%.0fg, %.0f kcal)".formatted(food.getName(), portion.grams, foodCalories));
+
+                matchedWords += match.getLength();
+                i += match.getLength();
+            }
+        }
+
+        if (matchedWords == 0) {
+            return Optional.empty();
+        }
+
+        double coverage = (double) matchedWords / totalWords;
+        double portionCertainty = calories > 0 ? weightedCertainty / calories : DEFAULT_PORTION_CERTAINTY;
+        double confidence = round(coverage * portionCertainty, 2);
+
+        return Optional.of(CalorieEstimate.builder()
+                .calories((int) Math.round(calories))
+                .protein(round(protein, 1))
+                .carbohydrates(round(carbohydrates, 1))
+                .fat(round(fat, 1))
+                .explanation("Estimativa pela tabela nutricional: " + String.join(", ", parts))
+                .confidence(confidence)
+                .build());
+    }
+
+    private Portion portionFor(MealDescriptionNormalizer.Item item, FoodComposition food) {
+        Double quantity = item.getQuantity();
+        String unit = item.getUnit();
+
+        if (quantity == null) {
+            return defaultPortion(food);
+        }
+        if ("g".equals(unit) || "ml".equals(unit)) {
+            return new Portion(quantity, EXPLICIT_MASS_CERTAINTY);
+        }
+        if (unit == null || "unidade".equals(unit)) {
+            return food.getUnitGrams() != null
+                    ? new Portion(quantity * food.getUnitGrams(), UNIT_WEIGHT_CERTAINTY)
+                    : new Portion(quantity * food.getPortionGrams(), SERVING_CERTAINTY);
+        }
+
+        Double measure = HOUSEHOLD_MEASURES.get(unit);
+        if (measure != null) {
+            return new Portion(quantity * measure, HOUSEHOLD_MEASURE_CERTAINTY);
+        }
+
+        // fatia, pedaço, porção, prato: usa o peso da unidade do alimento
+        double grams = food.getUnitGrams() != null ? food.getUnitGrams() : food.getPortionGrams();
+        return new Portion(quantity * grams, SERVING_CERTAINTY);
+    }
+
+    private Portion defaultPortion(FoodComposition food) {
+        return new Portion(food.getPortionGrams(), DEFAULT_PORTION_CERTAINTY);
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    private record Portion(double grams, double certainty) {
+    }
+}
@@ -0,0 +1,174 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.simulator;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.MealDescriptionNormalizer;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition.LocalNutritionResolver;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Deterministic stand-in for the AI provider, shared by the in-process
+ * {@link SimulatedFitnessAiPort} and the HTTP {@link OpenAiSimulatorController}.
+ * Estimates depend only on the seed and the normalized description; latency and
+ * failures are drawn from a seeded random source using the configured distribution.
+ */
+@Slf4j
+@Component
+@Profile({"simulator", "simulator-server"})
+public class AiSimulator {
+
+    // z-score do percentil 99 da normal padrão
+    private static final double Z_99 = 2.326;
+
+    private static final List<String> CHAT_REPLIES = List.of(
+            "Ótima pergunta! Manter a constância é o que mais faz diferença no resultado.",
+            "Você está no caminho certo. Capriche na proteína e beba bastante água ao longo do dia.",
+            "Para a sua meta, vale distribuir melhor as calorias entre as refeições e evitar longos jejuns.",
+            "Boa escolha! Combine com uma porção de vegetais para aumentar a saciedade.",
+            "Lembre de dormir bem: o sono influencia a fome e a recuperação dos treinos."
+    );
+
+    private final AppProperties.Simulator properties;
+    private final LocalNutritionResolver localNutritionResolver;
+    private final Random random;
+
+    public AiSimulator(AppProperties appProperties, LocalNutritionResolver localNutritionResolver) {
+        this.properties = appProperties.getAi().getSimulator();
+        this.localNutritionResolver = localNutritionResolver;
+        this.random = new Random(properties.getSeed());
+        log.warn("Simulador de IA ativo (semente {}, latência {}, taxa de erro {}) — nenhuma chamada real será feita",
+                properties.getSeed(), properties.getLatency().getDistribution(), properties.getErrorRate());
+    }
+
+    /**
+     * Estimativa determinística para a refeição: pela tabela local quando possível,
+     * senão gerada a partir da semente e da descrição normalizada
+     */
+    public CalorieEstimate estimate(String description) {
+        if (properties.isUseFoodTable()) {
+            Optional<CalorieEstimate> local = localNutritionResolver.resolve(description);
+            if (local.isPresent() && local.get().getConfidence() >= 0.5) {
+                CalorieEstimate estimate = local.get();
+                estimate.setExplanation("[simulado] " + estimate.getExplanation());
+                return estimate;
+            }
+        }
+
+        Random seeded = new Random(properties.getSeed() * 31 + MealDescriptionNormalizer.normalize(description).hashCode());
+        int calories = 150 + seeded.nextInt(751);
+        double proteinShare = 0.15 + seeded.nextDouble() * 0.2;
+        double fatShare = 0.2 + seeded.nextDouble() * 0.15;
+        double carbShare = 1.0 - proteinShare - fatShare;
+
+        return CalorieEstimate.builder()
+                .calories(calories)
+                .protein(round(calories * proteinShare / 4))
+                .carbohydrates(round(calories * carbShare / 4))
+                .fat(round(calories * fatShare / 9))
+                .explanation("[simulado] Estimativa gerada para: " + description)
+                .confidence(round(0.6 + seeded.nextDouble() * 0.35, 2))
+                .build();
+    }
+
+    /**
+     * Resposta de chat de tamanho variável, derivada da mensagem
+     */
+    public String chatReply(String userMessage) {
+        Random seeded = new Random(properties.getSeed() * 31 + userMessage.hashCode());
+        int sentences = 1 + seeded.nextInt(3);
+        StringBuilder reply = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            if (i > 0) {
+                reply.append(' ');
+            }
+            reply.append(CHAT_REPLIES.get(seeded.nextInt(CHAT_REPLIES.size())));
+        }
+        return reply.toString();
+    }
+
+    /**
+     * Resumo simulado: mantém o resumo anterior e o começo das novas mensagens
+     */
+    public String summary(String previousSummary, String messages) {
+        String fresh = messages.replace('\n', ' ');
+        if (fresh.length() > 200) {
+            fresh = fresh.substring(0, 200) + "…";
+        }
+        return (previousSummary == null || previousSummary.isBlank())
+                ? "[simulado] " + fresh
+                : previousSummary + " " + fresh;
+    }
+
+    /**
+     * Sorteia a latência da próxima chamada
+     */
+    public Duration nextLatency() {
+        AppProperties.SimulatorLatency latency = properties.getLatency();
+        return switch (latency.getDistribution()) {
+            case FIXED -> latency.getMedian();
+            case UNIFORM -> {
+                long min = latency.getMin().toMillis();
+                long max = Math.max(min, latency.getMax().toMillis());
+                yield Duration.ofMillis(min + (long) (nextDouble() * (max - min)));
+            }
+            case LOG_NORMAL -> {
+                double median = Math.max(1, latency.getMedian().toMillis());
+                double p99 = Math.max(median, latency.getP99().toMillis());
+                double sigma = Math.log(p99 / median) / Z_99;
+                yield Duration.ofMillis(Math.round(median * Math.exp(sigma * nextGaussian())));
+            }
+        };
+    }
+
+    /**
+     * Decide se a próxima chamada deve falhar, conforme a taxa de erro
+     */
+    public boolean nextFailure() {
+        return properties.getErrorRate() > 0 && nextDouble() < properties.getErrorRate();
+    }
+
+    /**
+     * Quebra o texto em trechos de N palavras, como um stream de tokens
+     */
+    public List<String> chunks(String text) {
+        String[] words = text.split(" ");
+        int size = properties.getStreamChunkWords();
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < words.length; i += size) {
+            int end = Math.min(words.length, i + size);
+            String chunk = String.join(" ", Arrays.copyOfRange(words, i, end));
+            chunks.add(end < words.length ? chunk + " " : chunk);
+        }
+        return chunks;
+    }
+
+    public Duration streamChunkDelay() {
+        return properties.getStreamChunkDelay();
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private synchronized double nextGaussian() {
+        return random.nextGaussian();
+    }
+
+    private static double round(double value) {
+        return round(value, 1);
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local HTTP stand-in for the OpenAI chat-completions API, active with the
+ * 'simulator-server' profile. Point spring.ai.openai.base-url at
+ * {@code http://localhost:8080/api/simulator} to load-test the real
+ * SpringAiAdapter (HTTP client, limiter, parser) without a provider.
+ *
+ * The kind of answer is inferred from the prompts SpringAiAdapter sends:
+ * single estimate, batch estimate, summary or free chat. Supports "stream": true.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/simulator/v1")
+@Profile("simulator-server")
+@RequiredArgsConstructor
+public class OpenAiSimulatorController {
+
+    private static final Pattern SINGLE_MEAL = Pattern.compile("Refeição: \"(.*)\"");
+    private static final Pattern BATCH_MEAL = Pattern.compile("(?m)^\\s*(\\d+)\\. \"(.*)\"\\s*$");
+    private static final Pattern SUMMARY_MESSAGES = Pattern.compile("(?s)Novas mensagens:\\s*(.*)$");
+
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+
+    private final AiSimulator simulator;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping("/chat/completions")
+    public ResponseEntity<ResponseBodyEmitter> chatCompletions(@RequestBody JsonNode request) {
+        String model = request.path("model").asText("simulator");
+        String prompt = lastUserMessage(request);
+        boolean stream = request.path("stream").asBoolean(false);
+        boolean fail = simulator.nextFailure();
+        long latencyMs = simulator.nextLatency().toMillis();
+
+        if (fail) {
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+            Mono.delay(Duration.ofMillis(latencyMs))
+                    .subscribe(tick -> send(emitter, error(), MediaType.APPLICATION_JSON));
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(emitter);
+        }
+
+        String content = answer(prompt);
+        String id = "chatcmpl-sim-" + UUID.randomUUID();
+
+        if (!stream) {
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+            Mono.delay(Duration.ofMillis(latencyMs))
+                    .subscribe(tick -> send(emitter, completion(id, model, prompt, content), MediaType.APPLICATION_JSON));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(emitter);
+        }
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Flux.fromIterable(simulator.chunks(content))
+                .delayElements(simulator.streamChunkDelay())
+                .delaySubscription(Duration.ofMillis(latencyMs))
+                .subscribe(
+                        chunk -> sendEvent(emitter, chunk(id, model, chunk, null).toString()),
+                        emitter::completeWithError,
+                        () -> {
+                            sendEvent(emitter, chunk(id, model, null, "stop").toString());
+                            sendEvent(emitter, "[DONE]");
+                            emitter.complete();
+                        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(emitter);
+    }
+
+    /**
+     * Monta a resposta conforme o tipo de prompt recebido
+     */
+    private String answer(String prompt) {
+        if (prompt.contains("array JSON")) {
+            ArrayNode array = objectMapper.createArrayNode();
+            Matcher matcher = BATCH_MEAL.matcher(prompt);
+            while (matcher.find()) {
+                ObjectNode node = estimateNode(simulator.estimate(matcher.group(2)));
+                node.put("index", Integer.parseInt(matcher.group(1)));
+                array.add(node);
+            }
+            return array.toString();
+        }
+
+        Matcher single = SINGLE_MEAL.matcher(prompt);
+        if (prompt.contains("APENAS JSON") && single.find()) {
+            return estimateNode(simulator.estimate(single.group(1))).toString();
+        }
+
+        Matcher summary = SUMMARY_MESSAGES.matcher(prompt);
+        if (prompt.contains("resumo") && summary.find()) {
+            return simulator.summary(null, summary.group(1).trim());
+        }
+
+        return simulator.chatReply(prompt);
+    }
+
+    private ObjectNode estimateNode(CalorieEstimate estimate) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("calories", estimate.getCalories());
+        node.put("protein", estimate.getProtein());
+        node.put("carbohydrates", estimate.getCarbohydrates());
+        node.put("fat", estimate.getFat());
+        node.put("explanation", estimate.getExplanation());
+        node.put("confidence", estimate.getConfidence());
+        return node;
+    }
+
+    private ObjectNode completion(String id, String model, String prompt, String content) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", id);
+        response.put("object", "chat.completion");
+        response.put("created", Instant.now().getEpochSecond());
+        response.put("model", model);
+
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message")
+                .put("role", "assistant")
+                .put("content", content);
+        choice.put("finish_reason", "stop");
+
+        int promptTokens = estimateTokens(prompt);
+        int completionTokens = estimateTokens(content);
+        response.putObject("usage")
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+        return response;
+    }
+
+    private ObjectNode chunk(String id, String model, String content, String finishReason) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", id);
+        response.put("object", "chat.completion.chunk");
+        response.put("created", Instant.now().getEpochSecond());
+        response.put("model", model);
+
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode delta = choice.putObject("delta");
+        if (content != null) {
+            delta.put("role", "assistant");
+            delta.put("content", content);
+        }
+        if (finishReason != null) {
+            choice.put("finish_reason", finishReason);
+        } else {
+            choice.putNull("finish_reason");
+        }
+        return response;
+    }
+
+    private ObjectNode error() {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putObject("error")
+                .put("message", "Falha simulada da IA")
+                .put("type", "server_error")
+                .put("code", "simulated_failure");
+        return response;
+    }
+
+    private String lastUserMessage(JsonNode request) {
+        List<String> userMessages = new ArrayList<>();
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                userMessages.add(message.path("content").asText(""));
+            }
+        }
+        return userMessages.isEmpty() ? "" : userMessages.get(userMessages.size() - 1);
+    }
+
+    private static int estimateTokens(String text) {
+        return (text.length() + 3) / 4;
+    }
+
+    private void send(ResponseBodyEmitter emitter, Object body, MediaType mediaType) {
+        try {
+            emitter.send(body, mediaType);
+            emitter.complete();
+        } catch (IOException e) {
+            log.debug("Cliente do simulador desconectou: {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void sendEvent(SseEmitter emitter, String data) {
+        try {
+            emitter.send(SseEmitter.event().data(data));
+        } catch (IOException e) {
+            log.debug("Cliente do simulador desconectou: {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.simulator;
+
+/**
+ * Failure injected by the AI simulator according to app.ai.simulator.error-rate.
+ */
+public class SimulatedAiException extends RuntimeException {
+
+    public SimulatedAiException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.simulator;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.AdaptiveConcurrencyLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * In-process FitnessAiPort backed by {@link AiSimulator}, active with the
+ * 'simulator' profile in place of SpringAiAdapter. Calls still go through the
+ * adaptive concurrency limiter, so load tests exercise the same back-pressure.
+ */
+@Slf4j
+@Component
+@Qualifier("aiBackend")
+@Profile("simulator")
+@RequiredArgsConstructor
+public class SimulatedFitnessAiPort implements FitnessAiPort {
+
+    private final AiSimulator simulator;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public CalorieEstimate analyzeFood(String description) {
+        return simulate(() -> simulator.estimate(description));
+    }
+
+    @Override
+    public CompletableFuture<CalorieEstimate> analyzeFoodAsync(String description) {
+        return simulateAsync(() -> simulator.estimate(description)).toFuture();
+    }
+
+    @Override
+    public List<CalorieEstimate> analyzeFoods(List<String> descriptions) {
+        // Um lote custa uma única chamada simulada
+        return simulate(() -> descriptions.stream().map(simulator::estimate).toList());
+    }
+
+    @Override
+    public String chat(String userMessage, String conversationHistory) {
+        return simulate(() -> simulator.chatReply(userMessage));
+    }
+
+    @Override
+    public Mono<String> chatAsync(String userMessage, String conversationHistory) {
+        return simulateAsync(() -> simulator.chatReply(userMessage));
+    }
+
+    @Override
+    public Flux<String> chatStream(String userMessage, String conversationHistory) {
+        return Mono.fromFuture(limiter::acquireAsync).flatMapMany(permit -> {
+            Duration firstToken = simulator.nextLatency();
+
+            Flux<String> tokens = simulator.nextFailure()
+                    ? Flux.error(new SimulatedAiException("Falha simulada no stream da IA"))
+                    : Flux.fromIterable(simulator.chunks(simulator.chatReply(userMessage)))
+                            .delayElements(simulator.streamChunkDelay());
+
+            return tokens
+                    .delaySubscription(firstToken)
+                    .doFinally(signal -> permit.release(signal == SignalType.ON_ERROR
+                            ? AdaptiveConcurrencyLimiter.Outcome.DROPPED
+                            : AdaptiveConcurrencyLimiter.Outcome.IGNORED));
+        });
+    }
+
+    @Override
+    public String summarize(String previousSummary, String messages) {
+        return simulate(() -> simulator.summary(previousSummary, messages));
+    }
+
+    private <T> T simulate(Supplier<T> response) {
+        return limiter.execute(() -> {
+            sleep(simulator.nextLatency());
+            if (simulator.nextFailure()) {
+                throw new SimulatedAiException("Falha simulada da IA");
+            }
+            return response.get();
+        });
+    }
+
+    /**
+     * Como {@link #simulate}, mas a latência é um timer: nenhuma thread fica parada
+     */
+    private <T> Mono<T> simulateAsync(Supplier<T> response) {
+        return Mono.fromFuture(limiter::acquireAsync).flatMap(permit -> {
+            Duration latency = simulator.nextLatency();
+            Mono<T> result = simulator.nextFailure()
+                    ? Mono.error(new SimulatedAiException("Falha simulada da IA"))
+                    : Mono.fromSupplier(response);
+
+            return result
+                    .delaySubscription(latency)
+                    .doFinally(signal -> permit.release(switch (signal) {
+                        case ON_COMPLETE -> AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+                        case ON_ERROR -> AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+                        default -> AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+                    }));
+        });
+    }
+
+    private static void sleep(Duration latency) {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimulatedAiException("Chamada simulada interrompida");
+        }
+    }
+}
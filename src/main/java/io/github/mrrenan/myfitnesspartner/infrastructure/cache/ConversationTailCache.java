@@ -0,0 +1,310 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
+import io.github.mrrenan.myfitnesspartner.domain.model.User;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-user cache of the conversation tail used to build the chat context:
+ * conversation id, rolling summary and the last messages outside it.
+ * Tier 1: in-process LRU bounded by total size. Tier 2 (optional): Redis.
+ * Written through on every turn, so active users skip loading the conversation
+ * and its messages. Another node may have saved turns or a summary this cache
+ * never saw, so callers check an entry against the conversation row's counters
+ * (ConversationRepository.findLatestVersion) before using it.
+ */
+@Slf4j
+@Component
+public class ConversationTailCache {
+
+    private static final String REDIS_PREFIX = "chat:tail:";
+
+    // Overhead aproximado por entrada e por mensagem (objetos, mapa, LocalDateTime)
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+    private static final long MESSAGE_OVERHEAD_BYTES = 96;
+
+    private final AppProperties.TailCache properties;
+    private final int maxMessages;
+    private final long maxBytes;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // LinkedHashMap em access-order = LRU; acesso sincronizado
+    private final LinkedHashMap<Long, LocalEntry> localEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long localBytes;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+    private final Counter evictions;
+
+    public ConversationTailCache(
+            AppProperties appProperties,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.properties = appProperties.getAi().getTailCache();
+        this.maxMessages = appProperties.getAi().getContext().tailLimit();
+        this.maxBytes = properties.getLocalMaxSize().toBytes();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+
+        this.localHits = cacheCounter(meterRegistry, "local", "hit");
+        this.localMisses = cacheCounter(meterRegistry, "local", "miss");
+        this.redisHits = cacheCounter(meterRegistry, "redis", "hit");
+        this.redisMisses = cacheCounter(meterRegistry, "redis", "miss");
+        this.redisErrors = cacheCounter(meterRegistry, "redis", "error");
+        this.evictions = Counter.builder("chat.tail_cache.evictions")
+                .description("Tails evicted from the in-process cache to stay within its size limit")
+                .register(meterRegistry);
+
+        Gauge.builder("chat.tail_cache.bytes", this, ConversationTailCache::localBytes)
+                .description("Estimated size of the in-process conversation tail cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Busca a cauda do usuário no cache local e, em seguida, no Redis
+     */
+    public Optional<Tail> get(Long userId) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        Tail local = getLocal(userId);
+        if (local != null) {
+            localHits.increment();
+            return Optional.of(local);
+        }
+        localMisses.increment();
+
+        if (!properties.isRedisEnabled()) {
+            return Optional.empty();
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(REDIS_PREFIX + userId);
+            if (json == null) {
+                redisMisses.increment();
+                return Optional.empty();
+            }
+            redisHits.increment();
+            Tail tail = objectMapper.readValue(json, Tail.class);
+            putLocal(userId, tail);
+            return Optional.of(tail);
+        } catch (Exception e) {
+            // Redis indisponível: o chat segue lendo do banco
+            redisErrors.increment();
+            log.warn("Erro ao ler cauda da conversa no Redis: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Write-through depois que uma rodada foi gravada.
+     * history é a cauda usada no contexto (lida com a conversa em startCount mensagens);
+     * se outra rodada entrou no meio, a entrada é descartada e a próxima leitura vai ao banco.
+     */
+    public void recordTurn(Long userId, Conversation conversation, int startCount,
+                           List<Conversation.Message> history, List<Conversation.Message> turn) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (conversation.getMessageCount() != startCount + turn.size()) {
+            log.debug("Rodada concorrente na conversa {}, cauda do usuário {} descartada",
+                    conversation.getId(), userId);
+            invalidate(userId);
+            return;
+        }
+
+        List<Conversation.Message> messages = new ArrayList<>(history);
+        messages.addAll(turn);
+        if (messages.size() > maxMessages) {
+            messages = new ArrayList<>(messages.subList(messages.size() - maxMessages, messages.size()));
+        }
+
+        Tail tail = new Tail(
+                conversation.getId(),
+                conversation.getContext(),
+                conversation.getSummarizedCount(),
+                conversation.getMessageCount(),
+                List.copyOf(messages));
+        put(userId, tail);
+    }
+
+    /**
+     * Write-through do resumo: só atualiza se a entrada for da mesma conversa e estiver atrás
+     */
+    public void applySummary(Long userId, Long conversationId, String summary, int summarizedCount) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Tail current = getLocal(userId);
+        if (current == null || !current.conversationId().equals(conversationId)) {
+            // Sem cópia local confiável (o Redis pode ter uma antiga): a próxima leitura vai ao banco
+            invalidate(userId);
+            return;
+        }
+        if (current.summarizedCount() >= summarizedCount) {
+            return;
+        }
+        put(userId, new Tail(conversationId, summary, summarizedCount, current.messageCount(), current.messages()));
+    }
+
+    /**
+     * Remove a cauda do usuário dos dois níveis
+     */
+    public void invalidate(Long userId) {
+        synchronized (localEntries) {
+            LocalEntry removed = localEntries.remove(userId);
+            if (removed != null) {
+                localBytes -= removed.bytes;
+            }
+        }
+        if (properties.isRedisEnabled()) {
+            try {
+                redisTemplate.delete(REDIS_PREFIX + userId);
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("Erro ao invalidar cauda da conversa no Redis: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void put(Long userId, Tail tail) {
+        putLocal(userId, tail);
+
+        if (!properties.isRedisEnabled()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(
+                    REDIS_PREFIX + userId,
+                    objectMapper.writeValueAsString(tail),
+                    properties.getRedisTtl()
+            );
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Erro ao gravar cauda da conversa no Redis: {}", e.getMessage());
+        }
+    }
+
+    private Tail getLocal(Long userId) {
+        synchronized (localEntries) {
+            LocalEntry entry = localEntries.get(userId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                localEntries.remove(userId);
+                localBytes -= entry.bytes;
+                return null;
+            }
+            return entry.tail;
+        }
+    }
+
+    private void putLocal(Long userId, Tail tail) {
+        long bytes = estimateBytes(tail);
+        if (bytes > maxBytes) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + properties.getLocalTtl().toMillis();
+        synchronized (localEntries) {
+            LocalEntry previous = localEntries.put(userId, new LocalEntry(tail, bytes, expiresAt));
+            localBytes += bytes - (previous != null ? previous.bytes : 0);
+
+            // Remove as menos usadas até caber no limite de memória
+            Iterator<LocalEntry> eldest = localEntries.values().iterator();
+            while (localBytes > maxBytes && eldest.hasNext()) {
+                LocalEntry evicted = eldest.next();
+                eldest.remove();
+                localBytes -= evicted.bytes;
+                evictions.increment();
+            }
+        }
+    }
+
+    private double localBytes() {
+        synchronized (localEntries) {
+            return localBytes;
+        }
+    }
+
+    /**
+     * Strings em Java: ~2 bytes por caractere, mais overhead fixo
+     */
+    private static long estimateBytes(Tail tail) {
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * length(tail.summary());
+        for (Conversation.Message m : tail.messages()) {
+            bytes += MESSAGE_OVERHEAD_BYTES + 2L * (length(m.getRole()) + length(m.getContent()));
+        }
+        return bytes;
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    private static Counter cacheCounter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("chat.tail_cache")
+                .description("Conversation tail cache lookups")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Cauda da conversa mais recente do usuário.
+     * messages são as últimas mensagens, terminando na seq messageCount - 1.
+     */
+    public record Tail(
+            Long conversationId,
+            String summary,
+            int summarizedCount,
+            int messageCount,
+            List<Conversation.Message> messages) {
+
+        /**
+         * Mensagens ainda fora do resumo
+         */
+        public List<Conversation.Message> unsummarized() {
+            int firstSeq = messageCount - messages.size();
+            int skip = Math.max(0, summarizedCount - firstSeq);
+            return skip >= messages.size() ? List.of() : messages.subList(skip, messages.size());
+        }
+
+        /**
+         * Conversa destacada com o suficiente para a rodada, sem ler o banco
+         */
+        public Conversation toConversation(User user) {
+            return Conversation.builder()
+                    .id(conversationId)
+                    .user(user)
+                    .context(summary)
+                    .summarizedMessageCount(summarizedCount)
+                    .messageCount(messageCount)
+                    .build();
+        }
+    }
+
+    private record LocalEntry(Tail tail, long bytes, long expiresAt) {
+    }
+}
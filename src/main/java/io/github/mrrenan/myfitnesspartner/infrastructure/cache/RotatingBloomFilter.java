@@ -0,0 +1,95 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.BitSet;
+
+/**
+ * Bloom filter over strings that forgets old entries. Inserts go to the current
+ * generation and lookups check both; every period the older generation is
+ * dropped, so an entry is remembered for one to two periods in bounded memory.
+ * "Absent" is always exact; "present" may be a false positive at roughly the
+ * configured rate.
+ */
+public class RotatingBloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private final long periodNanos;
+
+    private BitSet current;
+    private BitSet previous;
+    private long rotatedAt;
+
+    public RotatingBloomFilter(int expectedInsertions, double falsePositiveRate, Duration period) {
+        double ln2 = Math.log(2);
+        this.bits = (int) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+        this.periodNanos = period.toNanos();
+        this.current = new BitSet(bits);
+        this.previous = new BitSet(bits);
+        this.rotatedAt = System.nanoTime();
+    }
+
+    /**
+     * Registra o valor
+     *
+     * @return true se o valor com certeza ainda não tinha sido visto
+     */
+    public synchronized boolean put(String value) {
+        rotateIfDue();
+        long hash = hash(value);
+        boolean absent = false;
+        for (int i = 0; i < hashes; i++) {
+            int index = index(hash, i);
+            if (!current.get(index)) {
+                absent = true;
+                current.set(index);
+            }
+        }
+        return absent && !contains(previous, hash);
+    }
+
+    public synchronized boolean mightContain(String value) {
+        rotateIfDue();
+        long hash = hash(value);
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    private boolean contains(BitSet set, long hash) {
+        for (int i = 0; i < hashes; i++) {
+            if (!set.get(index(hash, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rotateIfDue() {
+        long now = System.nanoTime();
+        if (now - rotatedAt >= periodNanos) {
+            previous = current;
+            current = new BitSet(bits);
+            rotatedAt = now;
+        }
+    }
+
+    // Duplo hashing (Kirsch-Mitzenmacher) a partir de um FNV-1a de 64 bits
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, bits);
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // Mistura final para espalhar os bits altos e baixos
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for persistent retry queues.
+ */
+public final class Backoff {
+
+    private Backoff() {
+    }
+
+    /**
+     * Backoff exponencial a partir de initial, limitado a max, com ±20% de variação
+     * para que falhas simultâneas não voltem todas no mesmo instante
+     */
+    public static Duration exponential(int attempts, Duration initial, Duration max) {
+        long base = initial.toMillis() << Math.min(Math.max(attempts - 1, 0), 20);
+        long capped = Math.min(base, max.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+}
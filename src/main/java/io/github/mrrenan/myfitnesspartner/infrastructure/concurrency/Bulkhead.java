@@ -0,0 +1,96 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.concurrency;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Semaphore limiting concurrent calls to one downstream dependency.
+ * With virtual threads the executor no longer bounds concurrency, so each
+ * blocking dependency keeps its own limit; callers wait up to max-wait for a
+ * slot and then get a {@link BulkheadFullException}.
+ */
+@Slf4j
+public class Bulkhead {
+
+    private final String dependency;
+    private final AppProperties.Limit limit;
+    private final Semaphore permits;
+
+    private final Counter rejections;
+    private final Timer waitTime;
+
+    public Bulkhead(String dependency, AppProperties.Limit limit, MeterRegistry meterRegistry) {
+        this.dependency = dependency;
+        this.limit = limit;
+        this.permits = new Semaphore(limit.getMaxConcurrent(), true);
+
+        this.rejections = Counter.builder("bulkhead.rejected")
+                .description("Calls rejected because the dependency was at its concurrency limit")
+                .tag("dependency", dependency)
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("bulkhead.wait")
+                .description("Time spent waiting for a free slot")
+                .tag("dependency", dependency)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.in_flight", this, Bulkhead::getInFlight)
+                .description("Calls currently in flight to the dependency")
+                .tag("dependency", dependency)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .description("Callers waiting for a free slot")
+                .tag("dependency", dependency)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a chamada dentro do limite da dependência
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!limit.isEnabled()) {
+            return call.get();
+        }
+
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public int getInFlight() {
+        return limit.getMaxConcurrent() - permits.availablePermits();
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(limit.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+            waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejections.increment();
+                log.warn("Limite de {} chamadas simultâneas para {} atingido", limit.getMaxConcurrent(), dependency);
+                throw new BulkheadFullException("Muitas chamadas simultâneas para " + dependency);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejections.increment();
+            throw new BulkheadFullException("Interrompido aguardando vaga para " + dependency, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.concurrency;
+
+/**
+ * Thrown when a dependency already has its maximum number of concurrent calls
+ * and no slot frees up within the bulkhead's max-wait.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+
+    public BulkheadFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.concurrency;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulkheads for the blocking dependencies (app.bulkheads).
+ * AI calls are limited separately by the AdaptiveConcurrencyLimiter.
+ */
+@Component
+public class Bulkheads {
+
+    private final Bulkhead database;
+    private final Bulkhead whatsapp;
+
+    public Bulkheads(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.Bulkheads config = appProperties.getBulkheads();
+        this.database = new Bulkhead("database", config.getDatabase(), meterRegistry);
+        this.whatsapp = new Bulkhead("whatsapp", config.getWhatsapp(), meterRegistry);
+    }
+
+    public Bulkhead database() {
+        return database;
+    }
+
+    public Bulkhead whatsapp() {
+        return whatsapp;
+    }
+}
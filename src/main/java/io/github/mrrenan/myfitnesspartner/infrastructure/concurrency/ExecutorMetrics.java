@@ -0,0 +1,62 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queue depth, active tasks and rejections of an executor, the same for the
+ * pooled and the virtual-thread modes. Tasks are counted as queued when
+ * submitted and as active while running.
+ */
+public class ExecutorMetrics implements TaskDecorator {
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter rejections;
+
+    public ExecutorMetrics(String name, MeterRegistry meterRegistry) {
+        this.rejections = Counter.builder("async.executor.rejected")
+                .description("Tasks rejected because the executor queue was full")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("async.executor.queued", queued, AtomicInteger::get)
+                .description("Tasks submitted and waiting for a thread")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("async.executor.active", active, AtomicInteger::get)
+                .description("Tasks currently running")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        queued.incrementAndGet();
+        return () -> {
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * Conta a recusa e mantém o comportamento padrão (AbortPolicy)
+     */
+    public RejectedExecutionHandler rejectionHandler() {
+        return (task, executor) -> {
+            queued.decrementAndGet();
+            rejections.increment();
+            throw new RejectedExecutionException("Task " + task + " rejected from " + executor);
+        };
+    }
+}
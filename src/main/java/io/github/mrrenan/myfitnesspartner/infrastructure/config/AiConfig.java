@@ -0,0 +1,52 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.config;
+
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.CachingFitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.CoalescingFitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.FoodEstimateCache;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition.LocalFirstFitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition.LocalNutritionResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Assembles the FitnessAiPort used by the application services.
+ * The AI backend (SpringAiAdapter, or SimulatedFitnessAiPort with the 'simulator'
+ * profile) is wrapped by optional layers configured under 'app.ai',
+ * from the outermost: local nutrition table → cache → coalescing → AI.
+ */
+@Configuration
+public class AiConfig {
+
+    @Bean
+    @Primary
+    public FitnessAiPort fitnessAiPort(
+            @Qualifier("aiBackend") FitnessAiPort aiBackend,
+            FoodEstimateCache foodEstimateCache,
+            LocalNutritionResolver localNutritionResolver,
+            AppProperties appProperties,
+            MeterRegistry meterRegistry) {
+
+        FitnessAiPort port = aiBackend;
+
+        AppProperties.Coalescing coalescing = appProperties.getAi().getCoalescing();
+        if (coalescing.isEnabled()) {
+            port = new CoalescingFitnessAiPort(port, coalescing.getWaitTimeout(), meterRegistry);
+        }
+
+        if (appProperties.getAi().getCache().isEnabled()) {
+            port = new CachingFitnessAiPort(port, foodEstimateCache);
+        }
+
+        AppProperties.LocalNutrition localNutrition = appProperties.getAi().getLocalNutrition();
+        if (localNutrition.isEnabled()) {
+            port = new LocalFirstFitnessAiPort(
+                    port, localNutritionResolver, localNutrition.getMinConfidence(), meterRegistry);
+        }
+
+        return port;
+    }
+}
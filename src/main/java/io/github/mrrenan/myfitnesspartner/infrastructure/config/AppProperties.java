@@ -1,13 +1,18 @@
 package io.github.mrrenan.myfitnesspartner.infrastructure.config;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Application-specific configuration properties.
@@ -25,6 +30,27 @@ public class AppProperties {
     @NotNull
     private Ai ai = new Ai();
 
+    @NotNull
+    private Chat chat = new Chat();
+
+    @NotNull
+    private Executor executor = new Executor();
+
+    @NotNull
+    private Bulkheads bulkheads = new Bulkheads();
+
+    @NotNull
+    private Security security = new Security();
+
+    /**
+     * Acesso às rotas administrativas (/admin/**)
+     */
+    @Data
+    public static class Security {
+        // Números de WhatsApp cujos tokens recebem ROLE_ADMIN (formato: +5511999999999)
+        private List<String> adminNumbers = new ArrayList<>();
+    }
+
     @Data
     public static class Fitness {
         @Min(value = 1000, message = "Default calorie goal must be at least 1000")
@@ -32,11 +58,464 @@ public class AppProperties {
 
         @Min(value = 1, message = "Max daily meals must be at least 1")
         private Integer maxDailyMeals;
+
+        @NotNull
+        private Estimation estimation = new Estimation();
+    }
+
+    /**
+     * Estimativa em segundo plano das refeições PENDING_ESTIMATE (MealEstimationWorker)
+     */
+    @Data
+    public static class Estimation {
+        // Intervalo entre buscas por estimativas pendentes ou a repetir
+        private Duration pollInterval = Duration.ofSeconds(30);
+
+        @Min(value = 1, message = "Estimation batch size must be at least 1")
+        private int batchSize = 20;
+
+        // Depois disso uma estimativa sem resposta volta a ficar disponível (ex: o nó caiu)
+        private Duration lease = Duration.ofMinutes(2);
+
+        @Min(value = 1, message = "Estimation max attempts must be at least 1")
+        private int maxAttempts = 5;
+
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        private Duration maxBackoff = Duration.ofMinutes(30);
+    }
+
+    /**
+     * Executor das tarefas assíncronas (@Async("taskExecutor"), fila do chat, workers)
+     */
+    @Data
+    public static class Executor {
+        public enum Mode {
+            // Pool fixo de threads de plataforma com fila limitada
+            POOLED,
+            // Uma thread virtual por tarefa; a concorrência é limitada por dependência (app.bulkheads)
+            VIRTUAL
+        }
+
+        @NotNull
+        private Mode mode = Mode.POOLED;
+
+        @Min(value = 1, message = "Core pool size must be at least 1")
+        private int corePoolSize = 5;
+
+        @Min(value = 1, message = "Max pool size must be at least 1")
+        private int maxPoolSize = 10;
+
+        @Min(value = 0, message = "Queue capacity cannot be negative")
+        private int queueCapacity = 100;
+
+        // Tempo para terminar as tarefas em andamento no desligamento
+        private Duration awaitTermination = Duration.ofSeconds(60);
+    }
+
+    /**
+     * Limites de chamadas simultâneas por dependência externa.
+     * A IA já tem o limitador adaptativo (app.ai.limiter).
+     */
+    @Data
+    public static class Bulkheads {
+        @NotNull
+        private Limit database = new Limit(20, Duration.ofSeconds(10));
+
+        @NotNull
+        private Limit whatsapp = new Limit(20, Duration.ofSeconds(10));
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Limit {
+        private boolean enabled = true;
+
+        @Min(value = 1, message = "Max concurrent calls must be at least 1")
+        private int maxConcurrent;
+
+        // Espera por uma vaga antes de recusar a chamada
+        private Duration maxWait;
+
+        public Limit(int maxConcurrent, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWait = maxWait;
+        }
+    }
+
+    /**
+     * Processamento das mensagens de chat recebidas pelo WhatsApp (app.chat)
+     */
+    @Data
+    public static class Chat {
+        @NotNull
+        private Mailbox mailbox = new Mailbox();
+
+        @NotNull
+        private Debounce debounce = new Debounce();
+
+        @NotNull
+        private Inbox inbox = new Inbox();
+
+        @NotNull
+        private Dedup dedup = new Dedup();
+
+        @NotNull
+        private Outbox outbox = new Outbox();
+    }
+
+    /**
+     * Fila por usuário: mensagens do mesmo número são processadas em ordem, uma por vez
+     */
+    @Data
+    public static class Mailbox {
+        // Mensagens aguardando por usuário; acima disso a mensagem é recusada
+        @Min(value = 1, message = "Mailbox must hold at least 1 pending message")
+        private int maxPending = 10;
+
+        // Tempo máximo de uma mensagem; depois disso a próxima do mesmo usuário é liberada
+        private Duration processingTimeout = Duration.ofMinutes(2);
+    }
+
+    /**
+     * Descarte de webhooks repetidos pelo Twilio, pelo MessageSid
+     */
+    @Data
+    public static class Dedup {
+        private boolean enabled = true;
+
+        // Por quanto tempo um MessageSid é lembrado
+        private Duration ttl = Duration.ofHours(24);
+
+        // Mensagens esperadas por período de ttl, para dimensionar o filtro em memória
+        @Min(value = 1000, message = "Dedup filter must expect at least 1000 messages")
+        private int expectedMessages = 100_000;
+
+        private double falsePositiveRate = 0.01;
+
+        // SET NX no Redis, compartilhado entre instâncias (o Redis já é obrigatório pelo JwtService)
+        private boolean redisEnabled = true;
+    }
+
+    /**
+     * Fila persistente das mensagens recebidas (tabela inbound_messages)
+     */
+    @Data
+    public static class Inbox {
+        // Intervalo entre buscas por mensagens pendentes; mensagens novas deste nó acordam a busca na hora
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        @Min(value = 1, message = "Inbox batch size must be at least 1")
+        private int batchSize = 20;
+
+        // Mensagens sendo respondidas ao mesmo tempo por este nó
+        @Min(value = 1, message = "Inbox must process at least 1 message at a time")
+        private int maxInFlight = 50;
+
+        // Depois disso uma mensagem em processamento volta a ficar disponível (ex: o nó caiu)
+        private Duration lease = Duration.ofMinutes(5);
+
+        @Min(value = 1, message = "Inbox max attempts must be at least 1")
+        private int maxAttempts = 5;
+
+        private Duration initialBackoff = Duration.ofSeconds(10);
+
+        private Duration maxBackoff = Duration.ofMinutes(10);
+
+        // Espera pelas mensagens em andamento no desligamento
+        private Duration drainTimeout = Duration.ofSeconds(30);
+
+        // Mensagens respondidas são apagadas depois disso; as descartadas (DEAD) ficam
+        private Duration retention = Duration.ofDays(7);
+    }
+
+    /**
+     * Fila persistente das mensagens enviadas (tabela outbound_messages)
+     */
+    @Data
+    public static class Outbox {
+        // Intervalo entre buscas por mensagens pendentes; mensagens novas deste nó acordam a busca na hora
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        @Min(value = 1, message = "Outbox batch size must be at least 1")
+        private int batchSize = 50;
+
+        // Envios aguardando o Twilio ao mesmo tempo neste nó
+        @Min(value = 1, message = "Outbox must send at least 1 message at a time")
+        private int maxInFlight = 100;
+
+        // Depois disso um envio sem resposta volta a ficar disponível (ex: o nó caiu)
+        private Duration lease = Duration.ofMinutes(2);
+
+        @Min(value = 1, message = "Outbox max attempts must be at least 1")
+        private int maxAttempts = 8;
+
+        private Duration initialBackoff = Duration.ofSeconds(5);
+
+        private Duration maxBackoff = Duration.ofMinutes(15);
+
+        // Espera pelos envios em andamento no desligamento
+        private Duration drainTimeout = Duration.ofSeconds(20);
+
+        // Mensagens enviadas são apagadas depois disso; as que falharam ficam em outbound_dead_letters
+        private Duration retention = Duration.ofDays(3);
+    }
+
+    /**
+     * Junta rajadas de mensagens do mesmo usuário ("almocei", "arroz e feijão", "e um bife")
+     * em uma única chamada à IA
+     */
+    @Data
+    public static class Debounce {
+        private boolean enabled = true;
+
+        // Silêncio após a última mensagem para considerar a rajada encerrada
+        private Duration quietPeriod = Duration.ofSeconds(2);
+
+        // Espera máxima desde a primeira mensagem, mesmo que o usuário continue digitando
+        private Duration maxWait = Duration.ofSeconds(6);
+
+        // Quantidade de mensagens que encerra a rajada na hora
+        @Min(value = 1, message = "Debounce must merge at least 1 message")
+        private int maxMessages = 10;
     }
 
     @Data
     public static class Ai {
         @NotBlank(message = "System prompt is required")
         private String systemPrompt;
+
+        @NotNull
+        private Cache cache = new Cache();
+
+        @NotNull
+        private LocalNutrition localNutrition = new LocalNutrition();
+
+        @NotNull
+        private Coalescing coalescing = new Coalescing();
+
+        @NotNull
+        private Limiter limiter = new Limiter();
+
+        @NotNull
+        private Context context = new Context();
+
+        @NotNull
+        private TailCache tailCache = new TailCache();
+
+        @NotNull
+        private Simulator simulator = new Simulator();
+
+        @NotNull
+        private Routes routes = new Routes();
+
+        @NotNull
+        private Cascade cascade = new Cascade();
+    }
+
+    /**
+     * Modelo e parâmetros por operação (app.ai.routes)
+     */
+    @Data
+    public static class Routes {
+        // Extração estruturada: modelo pequeno, determinístico e com resposta curta
+        @NotNull
+        private Route analyzeFood = new Route(null, 0.1, 300);
+
+        @NotNull
+        private Route chat = new Route(null, 0.7, 1024);
+
+        @NotNull
+        private Route summarize = new Route(null, 0.2, 400);
+
+        // Modelo mais forte, usado pela cascata quando a estimativa rápida tem confiança baixa
+        @NotNull
+        private Route analyzeFoodEscalation = new Route(null, 0.1, 300);
+    }
+
+    /**
+     * Campos vazios usam o padrão de spring.ai.openai.chat.options
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Route {
+        private String model;
+        private Double temperature;
+        private Integer maxTokens;
+
+        // Preço do modelo em dólares por milhão de tokens, para a métrica de custo
+        private double inputCostPerMillion = 0.0;
+        private double outputCostPerMillion = 0.0;
+
+        public Route(String model, Double temperature, Integer maxTokens) {
+            this.model = model;
+            this.temperature = temperature;
+            this.maxTokens = maxTokens;
+        }
+    }
+
+    /**
+     * Cascata de modelos na estimativa de calorias (app.ai.cascade)
+     */
+    @Data
+    public static class Cascade {
+        private boolean enabled = false;
+
+        // Estimativas da rota analyze-food abaixo dessa confiança sobem para analyze-food-escalation
+        private double minConfidence = 0.7;
+    }
+
+    /**
+     * Cache de estimativas de calorias (app.ai.cache)
+     */
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+
+        @Min(value = 1, message = "Local cache must hold at least 1 entry")
+        private int localMaxEntries = 1000;
+
+        private Duration localTtl = Duration.ofHours(6);
+
+        private boolean redisEnabled = true;
+
+        private Duration redisTtl = Duration.ofDays(7);
+
+        // Estimativas abaixo dessa confiança (ex: fallback de texto) não são cacheadas
+        private double minConfidence = 0.6;
+    }
+
+    /**
+     * Estimativa local pela tabela nutricional (app.ai.local-nutrition)
+     */
+    @Data
+    public static class LocalNutrition {
+        private boolean enabled = true;
+
+        // Abaixo dessa confiança a refeição é enviada para a IA
+        private double minConfidence = 0.8;
+    }
+
+    /**
+     * Agrupamento de chamadas idênticas simultâneas (app.ai.coalescing)
+     */
+    @Data
+    public static class Coalescing {
+        private boolean enabled = true;
+
+        // Quanto tempo quem chegou depois espera pela chamada em andamento
+        private Duration waitTimeout = Duration.ofSeconds(60);
+    }
+
+    /**
+     * Limite adaptativo (AIMD) de chamadas simultâneas à IA (app.ai.limiter)
+     */
+    @Data
+    public static class Limiter {
+        private boolean enabled = true;
+
+        @Min(value = 1, message = "Initial limit must be at least 1")
+        private int initialLimit = 10;
+
+        @Min(value = 1, message = "Min limit must be at least 1")
+        private int minLimit = 2;
+
+        @Min(value = 1, message = "Max limit must be at least 1")
+        private int maxLimit = 50;
+
+        // Fator aplicado ao limite quando uma chamada falha ou passa do limiar de latência
+        private double backoffRatio = 0.9;
+
+        private Duration latencyThreshold = Duration.ofSeconds(15);
+
+        @Min(value = 0, message = "Queue size cannot be negative")
+        private int maxQueueSize = 20;
+
+        private Duration maxWait = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Contexto enviado no chat: resumo + mensagens recentes (app.ai.context)
+     */
+    @Data
+    public static class Context {
+        // Orçamento aproximado de tokens para resumo + mensagens recentes
+        @Min(value = 50, message = "Context token budget must be at least 50")
+        private int tokenBudget = 600;
+
+        // Mensagens mais recentes que nunca entram no resumo
+        @Min(value = 1, message = "Must keep at least 1 recent message")
+        private int recentMessages = 6;
+
+        // Quantas mensagens antigas acumular antes de atualizar o resumo
+        @Min(value = 1, message = "Summarize batch size must be at least 1")
+        private int summarizeBatchSize = 6;
+
+        /**
+         * Mensagens fora do resumo lidas para o contexto: as recentes + um lote ainda não resumido
+         */
+        public int tailLimit() {
+            return recentMessages + summarizeBatchSize;
+        }
+    }
+
+    /**
+     * Cache da cauda da conversa por usuário, usado no chat (app.ai.tail-cache)
+     */
+    @Data
+    public static class TailCache {
+        private boolean enabled = true;
+
+        // Limite de memória do nível local; as caudas menos usadas saem primeiro
+        private DataSize localMaxSize = DataSize.ofMegabytes(32);
+
+        private Duration localTtl = Duration.ofMinutes(30);
+
+        // Segundo nível compartilhado entre instâncias
+        private boolean redisEnabled = false;
+
+        private Duration redisTtl = Duration.ofHours(24);
+    }
+
+    /**
+     * Simulador de IA para testes de carga (app.ai.simulator).
+     * Usado nos profiles 'simulator' (em processo) e 'simulator-server' (HTTP compatível com OpenAI).
+     */
+    @Data
+    public static class Simulator {
+        // Mesma semente + mesma refeição = mesma estimativa
+        private long seed = 42L;
+
+        @NotNull
+        private SimulatorLatency latency = new SimulatorLatency();
+
+        // Fração das chamadas que falham (0.0 a 1.0)
+        private double errorRate = 0.0;
+
+        // Usa a tabela nutricional local quando ela reconhece a refeição
+        private boolean useFoodTable = true;
+
+        @Min(value = 1, message = "Stream chunks must have at least 1 word")
+        private int streamChunkWords = 3;
+
+        private Duration streamChunkDelay = Duration.ofMillis(40);
+    }
+
+    /**
+     * Distribuição de latência do simulador
+     */
+    @Data
+    public static class SimulatorLatency {
+        public enum Distribution { FIXED, UNIFORM, LOG_NORMAL }
+
+        private Distribution distribution = Distribution.LOG_NORMAL;
+
+        // FIXED usa a mediana; LOG_NORMAL usa mediana e p99
+        private Duration median = Duration.ofMillis(800);
+        private Duration p99 = Duration.ofSeconds(4);
+
+        // UNIFORM sorteia entre min e max
+        private Duration min = Duration.ofMillis(200);
+        private Duration max = Duration.ofSeconds(2);
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,10 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 
 @Data
 @Validated
@@ -25,4 +28,39 @@ public class TwilioProperties {
      */
     @NotBlank(message = "Twilio WhatsApp number is required")
     private String whatsappNumber;
+
+    public enum Sender {
+        // API REST via WebClient, não bloqueante
+        REST,
+        // SDK oficial do Twilio, bloqueante (fallback)
+        SDK
+    }
+
+    @NotNull
+    private Sender sender = Sender.REST;
+
+    @NotBlank
+    private String apiBaseUrl = "https://api.twilio.com";
+
+    @NotNull
+    private Http http = new Http();
+
+    /**
+     * Pool de conexões do envio REST (HTTP/2 quando o servidor aceita, keep-alive)
+     */
+    @Data
+    public static class Http {
+        @Min(value = 1, message = "Twilio connection pool must have at least 1 connection")
+        private int maxConnections = 50;
+
+        // Espera por uma conexão livre do pool
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration responseTimeout = Duration.ofSeconds(15);
+
+        // Conexões ociosas por mais tempo que isso são fechadas
+        private Duration maxIdleTime = Duration.ofSeconds(60);
+    }
 }
\ No newline at end of file
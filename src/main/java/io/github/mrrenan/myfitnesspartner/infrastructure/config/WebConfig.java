@@ -1,7 +1,10 @@
 package io.github.mrrenan.myfitnesspartner.infrastructure.config;
 
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.ExecutorMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -26,17 +29,33 @@ public class WebConfig implements WebMvcConfigurer {
 
     /**
      * Configure thread pool for async processing
-     * This replaces RabbitMQ for the MVP version
+     * This replaces RabbitMQ for the MVP version.
+     * In VIRTUAL mode each task gets its own virtual thread, so blocking on the DB,
+     * the AI or Twilio no longer fills a fixed queue; concurrency is bounded per
+     * dependency instead (Bulkheads and the AI limiter).
      */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.Executor config = appProperties.getExecutor();
+        ExecutorMetrics metrics = new ExecutorMetrics("taskExecutor", meterRegistry);
+
+        if (config.getMode() == AppProperties.Executor.Mode.VIRTUAL) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-vt-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(metrics);
+            executor.setTaskTerminationTimeout(config.getAwaitTermination().toMillis());
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(config.getCorePoolSize());
+        executor.setMaxPoolSize(config.getMaxPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
         executor.setThreadNamePrefix("async-task-");
+        executor.setTaskDecorator(metrics);
+        executor.setRejectedExecutionHandler(metrics.rejectionHandler());
         executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60);
+        executor.setAwaitTerminationSeconds((int) config.getAwaitTermination().toSeconds());
         executor.initialize();
         return executor;
     }
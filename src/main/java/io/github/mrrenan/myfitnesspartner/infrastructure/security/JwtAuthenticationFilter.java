@@ -4,9 +4,11 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -20,7 +22,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final List<SimpleGrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
     private final JwtService jwtService;
+    private final AppProperties appProperties;
 
     @Override
     protected void doFilterInternal(
@@ -52,7 +58,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         new UsernamePasswordAuthenticationToken(
                                 whatsappNumber,
                                 null,
-                                List.of() // sem roles por enquanto
+                                authorities(whatsappNumber)
                         );
 
                 authentication.setDetails(
@@ -69,4 +75,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 7. Continua a cadeia de filtros
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Só os números em app.security.admin-numbers acessam as rotas administrativas
+     */
+    private List<SimpleGrantedAuthority> authorities(String whatsappNumber) {
+        return appProperties.getSecurity().getAdminNumbers().contains(whatsappNumber)
+                ? ADMIN_AUTHORITIES
+                : List.of();
+    }
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package io.github.mrrenan.myfitnesspartner.infrastructure.security;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -18,6 +21,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final Environment environment;
 
     // Endpoints públicos — não precisam de token
     private static final String[] PUBLIC_ENDPOINTS = {
@@ -29,6 +33,9 @@ public class SecurityConfig {
             "/swagger-ui.html"    // Swagger UI
     };
 
+    // Simulador de IA: só é público (e só existe) no profile simulator-server
+    private static final String SIMULATOR_ENDPOINTS = "/simulator/**";
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -40,10 +47,18 @@ public class SecurityConfig {
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
                 // Define quais endpoints são públicos e quais precisam de token
-                .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
-                        .anyRequest().authenticated()
-                )
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers(PUBLIC_ENDPOINTS).permitAll();
+                    if (environment.acceptsProfiles(Profiles.of("simulator-server"))) {
+                        auth.requestMatchers(SIMULATOR_ENDPOINTS).permitAll();
+                    }
+                    auth
+                            // Rotas administrativas expõem dados de todos os usuários
+                            .requestMatchers("/admin/**").hasRole("ADMIN")
+                            // Limpar o cache de estimativas afeta todos os usuários
+                            .requestMatchers(HttpMethod.DELETE, "/ai/cache").hasRole("ADMIN")
+                            .anyRequest().authenticated();
+                })
 
                 // Adiciona nosso filtro JWT antes do filtro padrão do Spring
                 .addFilterBefore(
@@ -0,0 +1,172 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One mailbox per sender: tasks for the same key run one at a time, in arrival
+ * order, and the next one only starts when the previous Mono completes.
+ * Different keys run in parallel on the taskExecutor. Idle mailboxes are removed,
+ * each mailbox holds at most app.chat.mailbox.max-pending waiting tasks, and a task
+ * running longer than processing-timeout is cancelled so the next one can start.
+ * A task the taskExecutor rejects is handed to its onRejected callback, so the
+ * caller can release the message instead of waiting for a task that never runs.
+ */
+@Slf4j
+@Component
+public class ChatMailboxes {
+
+    private final Executor taskExecutor;
+    private final int maxPending;
+    private final Duration processingTimeout;
+
+    // Todas as mudanças de estado de uma caixa passam por compute(), que trava a chave
+    private final ConcurrentHashMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Timer waitTime;
+
+    public ChatMailboxes(
+            AppProperties appProperties,
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            MeterRegistry meterRegistry) {
+        this.taskExecutor = taskExecutor;
+        this.maxPending = appProperties.getChat().getMailbox().getMaxPending();
+        this.processingTimeout = appProperties.getChat().getMailbox().getProcessingTimeout();
+
+        this.accepted = submissionCounter(meterRegistry, "accepted");
+        this.rejected = submissionCounter(meterRegistry, "rejected");
+        this.waitTime = Timer.builder("chat.mailbox.wait")
+                .description("Time a message waits in its sender's mailbox before processing starts")
+                .register(meterRegistry);
+
+        Gauge.builder("chat.mailbox.active", mailboxes, ConcurrentHashMap::size)
+                .description("Senders with a message being processed")
+                .register(meterRegistry);
+        Gauge.builder("chat.mailbox.pending", pending, AtomicInteger::get)
+                .description("Messages waiting behind another message of the same sender")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileira a tarefa na caixa do remetente.
+     *
+     * @param onRejected chamado com o erro se o executor recusar a tarefa quando chegar a vez dela
+     * @return false se a caixa já está cheia (a tarefa não será executada)
+     */
+    public boolean submit(String key, Supplier<Mono<?>> task, Consumer<Throwable> onRejected) {
+        Entry entry = new Entry(task, onRejected, System.nanoTime());
+        boolean[] outcome = new boolean[2]; // [aceita, começa agora]
+
+        mailboxes.compute(key, (k, box) -> {
+            if (box == null) {
+                box = new Mailbox();
+            }
+            if (!box.running) {
+                box.running = true;
+                outcome[0] = outcome[1] = true;
+            } else if (box.waiting.size() < maxPending) {
+                box.waiting.addLast(entry);
+                pending.incrementAndGet();
+                outcome[0] = true;
+            }
+            return box;
+        });
+
+        if (!outcome[0]) {
+            rejected.increment();
+            log.warn("Caixa de mensagens de {} cheia ({} aguardando), mensagem recusada", key, maxPending);
+            return false;
+        }
+        accepted.increment();
+        if (outcome[1]) {
+            start(key, entry);
+        }
+        return true;
+    }
+
+    private void start(String key, Entry entry) {
+        try {
+            taskExecutor.execute(() -> run(key, entry));
+        } catch (RejectedExecutionException e) {
+            log.warn("Executor cheio, mensagem de {} devolvida", key);
+            try {
+                // A tarefa não vai rodar: quem enviou precisa saber para tentar de novo
+                entry.onRejected.accept(e);
+            } finally {
+                next(key);
+            }
+        }
+    }
+
+    private void run(String key, Entry entry) {
+        waitTime.record(System.nanoTime() - entry.enqueuedAt, TimeUnit.NANOSECONDS);
+        Mono<?> work;
+        try {
+            work = entry.task.get();
+        } catch (Exception e) {
+            log.error("Erro ao processar mensagem de {}: {}", key, e.getMessage(), e);
+            next(key);
+            return;
+        }
+        // Uma tarefa que nunca termina não pode travar a caixa do remetente
+        work.timeout(processingTimeout)
+                .doFinally(signal -> next(key))
+                .subscribe(
+                        result -> { },
+                        e -> log.error("Erro ao processar mensagem de {}: {}", key, e.getMessage(), e));
+    }
+
+    /**
+     * Passa para a próxima tarefa do remetente ou remove a caixa se não há mais nada
+     */
+    private void next(String key) {
+        Entry[] following = new Entry[1];
+        mailboxes.computeIfPresent(key, (k, box) -> {
+            following[0] = box.waiting.pollFirst();
+            if (following[0] == null) {
+                return null;
+            }
+            pending.decrementAndGet();
+            return box;
+        });
+        if (following[0] != null) {
+            start(key, following[0]);
+        }
+    }
+
+    private static Counter submissionCounter(MeterRegistry registry, String result) {
+        return Counter.builder("chat.mailbox.submissions")
+                .description("Messages submitted to per-sender mailboxes")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static final class Mailbox {
+        private final Deque<Entry> waiting = new ArrayDeque<>();
+        private boolean running;
+    }
+
+    private record Entry(Supplier<Mono<?>> task, Consumer<Throwable> onRejected, long enqueuedAt) {
+    }
+}
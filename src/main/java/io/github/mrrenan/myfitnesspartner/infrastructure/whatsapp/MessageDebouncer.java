@@ -0,0 +1,160 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-sender debounce: messages arriving in a quick burst are handed over
+ * together once the sender goes quiet for quiet-period, or max-wait after the
+ * first message at the latest.
+ */
+@Slf4j
+@Component
+public class MessageDebouncer {
+
+    private final AppProperties.Debounce config;
+    private final Scheduler scheduler;
+
+    // Todas as mudanças de uma rajada passam por compute(), que trava a chave
+    private final ConcurrentHashMap<String, Burst> bursts = new ConcurrentHashMap<>();
+
+    private final Counter messages;
+    private final DistributionSummary burstSize;
+
+    @Autowired
+    public MessageDebouncer(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this(appProperties, meterRegistry, Schedulers.parallel());
+    }
+
+    MessageDebouncer(AppProperties appProperties, MeterRegistry meterRegistry, Scheduler scheduler) {
+        this.config = appProperties.getChat().getDebounce();
+        this.scheduler = scheduler;
+
+        this.messages = Counter.builder("chat.debounce.messages")
+                .description("Messages received through the debounce window")
+                .register(meterRegistry);
+        this.burstSize = DistributionSummary.builder("chat.debounce.burst_size")
+                .description("Messages merged into each AI call")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Acrescenta a mensagem à rajada do remetente. Quando a rajada fecha,
+     * onFlush recebe todas as mensagens, na ordem de chegada.
+     * O onFlush (e o tipo da mensagem) de uma mesma chave deve ser sempre o mesmo.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void submit(String key, T message, Consumer<List<T>> onFlush) {
+        messages.increment();
+        if (!config.isEnabled() || config.getQuietPeriod().isZero()) {
+            flush(key, List.of(message), onFlush);
+            return;
+        }
+
+        Consumer<List<Object>> callback = (Consumer<List<Object>>) (Consumer<?>) onFlush;
+        List<Object> ready = new ArrayList<>();
+        bursts.compute(key, (k, burst) -> {
+            long now = scheduler.now(TimeUnit.NANOSECONDS);
+            if (burst == null) {
+                burst = new Burst(now, callback);
+            } else {
+                burst.timer.dispose();
+            }
+            burst.messages.add(message);
+            burst.generation++;
+
+            long untilMaxWait = config.getMaxWait().toNanos() - (now - burst.startedAt);
+            if (burst.messages.size() >= config.getMaxMessages() || untilMaxWait <= 0) {
+                ready.addAll(burst.messages);
+                return null;
+            }
+
+            // Reagenda para o fim do silêncio, sem passar do limite desde a primeira mensagem
+            long delay = Math.min(config.getQuietPeriod().toNanos(), untilMaxWait);
+            Burst current = burst;
+            int generation = burst.generation;
+            burst.timer = Mono.delay(Duration.ofNanos(delay), scheduler)
+                    .subscribe(tick -> expire(key, current, generation));
+            return burst;
+        });
+
+        if (!ready.isEmpty()) {
+            flush(key, ready, callback);
+        }
+    }
+
+    /**
+     * Fecha a rajada quando o timer dela dispara. Se outra mensagem reagendou
+     * a rajada nesse meio tempo, o timer antigo não faz nada.
+     */
+    private void expire(String key, Burst expected, int generation) {
+        List<Object> ready = new ArrayList<>();
+        bursts.computeIfPresent(key, (k, burst) -> {
+            if (burst != expected || burst.generation != generation) {
+                return burst;
+            }
+            ready.addAll(burst.messages);
+            return null;
+        });
+        if (!ready.isEmpty()) {
+            flush(key, ready, expected.onFlush);
+        }
+    }
+
+    private <T> void flush(String key, List<T> burst, Consumer<List<T>> onFlush) {
+        burstSize.record(burst.size());
+        if (burst.size() > 1) {
+            log.debug("{} mensagens de {} agrupadas em uma só", burst.size(), key);
+        }
+        try {
+            onFlush.accept(List.copyOf(burst));
+        } catch (Exception e) {
+            log.error("Erro ao processar mensagens agrupadas de {}: {}", key, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Entrega as rajadas em aberto no desligamento, em vez de perdê-las
+     */
+    @PreDestroy
+    public void flushAll() {
+        bursts.keySet().forEach(key -> {
+            Burst removed = bursts.remove(key);
+            if (removed != null) {
+                removed.timer.dispose();
+                flush(key, removed.messages, removed.onFlush);
+            }
+        });
+    }
+
+    private static final class Burst {
+        private final long startedAt;
+        private final Consumer<List<Object>> onFlush;
+        private final List<Object> messages = new ArrayList<>();
+        private Disposable timer = Disposables.disposed();
+        private int generation;
+
+        private Burst(long startedAt, Consumer<List<Object>> onFlush) {
+            this.startedAt = startedAt;
+            this.onFlush = onFlush;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.domain.repository.InboundMessageRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.cache.RotatingBloomFilter;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recognizes webhooks Twilio delivers again (retries after slow responses or
+ * errors) by their MessageSid, so most duplicates are dropped before touching
+ * the database. An in-memory Bloom filter answers "never seen" exactly; a Redis
+ * SET NX with TTL (on by default) decides across instances, and without Redis a
+ * "maybe seen" is confirmed against the inbox.
+ * This is only a fast path: the guarantee across nodes is the unique index on
+ * inbound_messages.message_sid. When two nodes both accept the same webhook
+ * (Redis down or disabled), only one insert succeeds and WhatsAppInbox drops
+ * the other.
+ */
+@Slf4j
+@Component
+public class MessageSidDeduplicator {
+
+    private static final String REDIS_PREFIX = "whatsapp:message-sid:";
+
+    private final AppProperties.Dedup properties;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final InboundMessageRepository inboundMessageRepository;
+    private final RotatingBloomFilter seen;
+
+    private final Counter fresh;
+    private final Counter duplicates;
+    private final Counter redisErrors;
+
+    public MessageSidDeduplicator(
+            AppProperties appProperties,
+            RedisTemplate<String, String> redisTemplate,
+            InboundMessageRepository inboundMessageRepository,
+            MeterRegistry meterRegistry) {
+        this.properties = appProperties.getChat().getDedup();
+        this.redisTemplate = redisTemplate;
+        this.inboundMessageRepository = inboundMessageRepository;
+        this.seen = new RotatingBloomFilter(properties.getExpectedMessages(),
+                properties.getFalsePositiveRate(), properties.getTtl());
+
+        this.fresh = dedupCounter(meterRegistry, "new");
+        this.duplicates = dedupCounter(meterRegistry, "duplicate");
+        this.redisErrors = Counter.builder("chat.dedup.redis_errors")
+                .description("Redis failures while checking a MessageSid")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o MessageSid
+     *
+     * @return false se o webhook já foi recebido antes (retentativa do Twilio)
+     */
+    public boolean firstSeen(String messageSid) {
+        if (!properties.isEnabled() || messageSid == null || messageSid.isBlank()) {
+            return true;
+        }
+
+        boolean neverSeenHere = seen.put(messageSid);
+
+        if (properties.isRedisEnabled()) {
+            try {
+                Boolean claimed = redisTemplate.opsForValue()
+                        .setIfAbsent(REDIS_PREFIX + messageSid, "1", properties.getTtl());
+                if (claimed != null) {
+                    return record(messageSid, claimed);
+                }
+            } catch (Exception e) {
+                // Sem Redis, decide só com o filtro local e o banco
+                redisErrors.increment();
+                log.warn("Erro ao verificar MessageSid no Redis: {}", e.getMessage());
+            }
+        }
+
+        if (neverSeenHere) {
+            return record(messageSid, true);
+        }
+        // Talvez seja repetida (o filtro admite falsos positivos): confirma no banco
+        return record(messageSid, !inboundMessageRepository.existsByMessageSid(messageSid));
+    }
+
+    /**
+     * Esquece o MessageSid quando a mensagem não chegou a ser gravada,
+     * para que a retentativa do Twilio seja aceita
+     */
+    public void forget(String messageSid) {
+        if (!properties.isEnabled() || !properties.isRedisEnabled() || messageSid == null) {
+            return;
+        }
+        try {
+            redisTemplate.delete(REDIS_PREFIX + messageSid);
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Erro ao remover MessageSid do Redis: {}", e.getMessage());
+        }
+    }
+
+    private boolean record(String messageSid, boolean first) {
+        if (first) {
+            fresh.increment();
+        } else {
+            duplicates.increment();
+            log.info("Webhook repetido ignorado: {}", messageSid);
+        }
+        return first;
+    }
+
+    private static Counter dedupCounter(MeterRegistry registry, String result) {
+        return Counter.builder("chat.dedup")
+                .description("Inbound WhatsApp webhooks checked by MessageSid")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.TwilioProperties;
+import io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp.dto.TwilioMessageResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends WhatsApp messages through Twilio's REST API with a non-blocking WebClient.
+ * No thread is held while Twilio answers: connections come from a pooled,
+ * keep-alive client that negotiates HTTP/2 when available. Default sender
+ * (twilio.sender=rest).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "twilio", name = "sender", havingValue = "rest", matchIfMissing = true)
+public class TwilioRestMessageSender implements WhatsAppMessageSender {
+
+    private static final String MESSAGES_PATH = "/2010-04-01/Accounts/{accountSid}/Messages.json";
+
+    private final TwilioProperties twilioProperties;
+    private final WebClient webClient;
+    private final WhatsAppSendMetrics metrics;
+
+    @Autowired
+    public TwilioRestMessageSender(TwilioProperties twilioProperties, WebClient webClient, MeterRegistry meterRegistry) {
+        this(twilioProperties, webClient.mutate()
+                .clientConnector(new ReactorClientHttpConnector(httpClient(twilioProperties.getHttp())))
+                .build(), new WhatsAppSendMetrics("rest", meterRegistry));
+    }
+
+    TwilioRestMessageSender(TwilioProperties twilioProperties, WebClient webClient, WhatsAppSendMetrics metrics) {
+        this.twilioProperties = twilioProperties;
+        this.webClient = webClient.mutate()
+                .baseUrl(twilioProperties.getApiBaseUrl())
+                .defaultHeaders(headers -> headers.setBasicAuth(
+                        twilioProperties.getAccountSid(), twilioProperties.getAuthToken()))
+                .build();
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String to, String message) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("To", WhatsAppMessageSender.toWhatsApp(to));
+        form.add("From", twilioProperties.getWhatsappNumber());
+        form.add("Body", message);
+
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return webClient.post()
+                            .uri(MESSAGES_PATH, twilioProperties.getAccountSid())
+                            .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                            .body(BodyInserters.fromFormData(form))
+                            .retrieve()
+                            .bodyToMono(TwilioMessageResponse.class)
+                            .map(TwilioMessageResponse::getSid)
+                            .doOnSuccess(sid -> {
+                                metrics.record(to, start, null);
+                                log.info("Mensagem enviada para {} — SID: {}", to, sid);
+                            })
+                            .onErrorMap(e -> {
+                                metrics.record(to, start, e);
+                                log.error("Erro ao enviar mensagem para {}: {}", to, e.getMessage());
+                                return toSendException(e);
+                            });
+                })
+                .toFuture();
+    }
+
+    private static WhatsAppSendException toSendException(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return new WhatsAppSendException("Twilio recusou a mensagem (" + response.getStatusCode().value()
+                    + "): " + response.getResponseBodyAsString(), response.getStatusCode().value(), error);
+        }
+        return new WhatsAppSendException("Falha ao enviar mensagem WhatsApp: " + error.getMessage(), 0, error);
+    }
+
+    /**
+     * Cliente HTTP dedicado ao Twilio: pool limitado, keep-alive e HTTP/2 quando disponível
+     */
+    private static HttpClient httpClient(TwilioProperties.Http http) {
+        ConnectionProvider pool = ConnectionProvider.builder("twilio")
+                .maxConnections(http.getMaxConnections())
+                .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+                .maxIdleTime(http.getMaxIdleTime())
+                .build();
+        return HttpClient.create(pool)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .responseTimeout(http.getResponseTimeout());
+    }
+}
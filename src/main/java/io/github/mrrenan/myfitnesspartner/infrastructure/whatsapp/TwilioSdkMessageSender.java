@@ -0,0 +1,95 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import com.twilio.Twilio;
+import com.twilio.exception.ApiException;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Bulkheads;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.TwilioProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Responsável por enviar mensagens via Twilio WhatsApp Sandbox com o SDK oficial.
+ * Cada envio ocupa uma thread durante a chamada HTTPS; fica como fallback
+ * do TwilioRestMessageSender (twilio.sender=sdk).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "twilio", name = "sender", havingValue = "sdk")
+public class TwilioSdkMessageSender implements WhatsAppMessageSender {
+
+    private final TwilioProperties twilioProperties;
+    private final Bulkheads bulkheads;
+    private final Executor taskExecutor;
+    private final WhatsAppSendMetrics metrics;
+
+    public TwilioSdkMessageSender(
+            TwilioProperties twilioProperties,
+            Bulkheads bulkheads,
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            MeterRegistry meterRegistry) {
+        this.twilioProperties = twilioProperties;
+        this.bulkheads = bulkheads;
+        this.taskExecutor = taskExecutor;
+        this.metrics = new WhatsAppSendMetrics("sdk", meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Log para verificar as credenciais carregadas (mostra só os primeiros caracteres)
+        log.info("Twilio Account SID: {}...",
+                twilioProperties.getAccountSid().substring(0, 8));
+        log.info("Twilio Auth Token: {}...",
+                twilioProperties.getAuthToken().substring(0, 4));
+        log.info("Twilio WhatsApp Number: {}",
+                twilioProperties.getWhatsappNumber());
+
+        Twilio.init(
+                twilioProperties.getAccountSid(),
+                twilioProperties.getAuthToken()
+        );
+        log.info("Twilio inicializado com sucesso");
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String to, String message) {
+        return CompletableFuture.supplyAsync(() -> send(to, message), taskExecutor);
+    }
+
+    @Override
+    public void sendMessage(String to, String message) {
+        send(to, message);
+    }
+
+    private String send(String to, String message) {
+        long start = System.nanoTime();
+        try {
+            // A chamada ao Twilio é bloqueante: limita quantas ficam em andamento ao mesmo tempo
+            Message twilioMessage = bulkheads.whatsapp().call(() -> Message.creator(
+                    new PhoneNumber(WhatsAppMessageSender.toWhatsApp(to)),
+                    new PhoneNumber(twilioProperties.getWhatsappNumber()),
+                    message
+            ).create());
+
+            metrics.record(to, start, null);
+            log.info("Mensagem enviada para {} — SID: {}", to, twilioMessage.getSid());
+            return twilioMessage.getSid();
+
+        } catch (Exception e) {
+            metrics.record(to, start, e);
+            log.error("Erro ao enviar mensagem para {}: {}", to, e.getMessage());
+            int status = e instanceof ApiException apiException && apiException.getStatusCode() != null
+                    ? apiException.getStatusCode()
+                    : 0;
+            throw new WhatsAppSendException("Falha ao enviar mensagem WhatsApp: " + e.getMessage(), status, e);
+        }
+    }
+}
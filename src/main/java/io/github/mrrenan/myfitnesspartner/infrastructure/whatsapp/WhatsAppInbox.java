@@ -0,0 +1,316 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.application.service.TimedTransactions;
+import io.github.mrrenan.myfitnesspartner.domain.model.InboundMessage;
+import io.github.mrrenan.myfitnesspartner.domain.model.InboundMessageStatus;
+import io.github.mrrenan.myfitnesspartner.domain.repository.InboundMessageRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Backoff;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable inbox for WhatsApp messages. The webhook only inserts the message;
+ * a poller on each node claims due messages with FOR UPDATE SKIP LOCKED, leases
+ * them and hands them to the WhatsAppWebhookHandler. Failed messages are retried
+ * with exponential backoff and kept as DEAD after max-attempts. On shutdown the
+ * poller stops, in-flight messages get drain-timeout to finish and the rest are
+ * released for another node.
+ */
+@Slf4j
+@Component
+public class WhatsAppInbox implements SmartLifecycle {
+
+    private final InboundMessageRepository repository;
+    private final TimedTransactions transactions;
+    private final WhatsAppWebhookHandler webhookHandler;
+    private final MessageSidDeduplicator deduplicator;
+    private final AppProperties.Inbox config;
+
+    // Mensagens deste nó em processamento, com o número da tentativa que as reivindicou
+    private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile ScheduledExecutorService poller;
+    private volatile LocalDateTime lastPurge = LocalDateTime.MIN;
+
+    private final Counter accepted;
+    private final Counter done;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer lag;
+
+    public WhatsAppInbox(
+            InboundMessageRepository repository,
+            TimedTransactions transactions,
+            WhatsAppWebhookHandler webhookHandler,
+            MessageSidDeduplicator deduplicator,
+            AppProperties appProperties,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transactions = transactions;
+        this.webhookHandler = webhookHandler;
+        this.deduplicator = deduplicator;
+        this.config = appProperties.getChat().getInbox();
+
+        this.accepted = Counter.builder("chat.inbox.accepted")
+                .description("WhatsApp messages persisted by the webhook")
+                .register(meterRegistry);
+        this.done = processedCounter(meterRegistry, "done");
+        this.retried = processedCounter(meterRegistry, "retry");
+        this.dead = processedCounter(meterRegistry, "dead");
+        this.lag = Timer.builder("chat.inbox.lag")
+                .description("Time between the webhook and the first claim of a message")
+                .register(meterRegistry);
+        Gauge.builder("chat.inbox.in_flight", inFlight, Map::size)
+                .description("Messages claimed by this node and not finished yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava a mensagem recebida. É tudo o que o webhook faz antes de responder ao Twilio.
+     * Webhooks repetidos (mesmo MessageSid) são ignorados.
+     */
+    public void accept(String from, String body, String messageSid) {
+        if (!deduplicator.firstSeen(messageSid)) {
+            return;
+        }
+
+        try {
+            repository.save(InboundMessage.builder()
+                    .messageSid(messageSid)
+                    .fromNumber(from)
+                    .body(body)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            if (messageSid == null) {
+                throw e;
+            }
+            // Outra entrega do mesmo webhook gravou primeiro
+            log.info("Webhook repetido ignorado: {}", messageSid);
+            return;
+        } catch (RuntimeException e) {
+            deduplicator.forget(messageSid);
+            throw e;
+        }
+        accepted.increment();
+        wakeUp();
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "whatsapp-inbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller = executor;
+        running = true;
+        executor.scheduleWithFixedDelay(this::poll, 0, config.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Fila de mensagens do WhatsApp iniciada");
+    }
+
+    /**
+     * Para de buscar mensagens, espera as que estão em andamento e devolve o resto à fila
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (poller != null) {
+            poller.shutdown();
+        }
+
+        long deadline = System.nanoTime() + config.getDrainTimeout().toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!inFlight.isEmpty()) {
+            int released = repository.release(List.copyOf(inFlight.keySet()), LocalDateTime.now(),
+                    InboundMessageStatus.PENDING, InboundMessageStatus.PROCESSING);
+            log.warn("{} mensagens devolvidas à fila no desligamento", released);
+        }
+        log.info("Fila de mensagens do WhatsApp parada");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Busca mensagens novas sem esperar o próximo ciclo. As buscas nunca se sobrepõem:
+     * o poller tem uma thread só.
+     */
+    private void wakeUp() {
+        ScheduledExecutorService executor = poller;
+        if (running && executor != null && wakeUpScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    wakeUpScheduled.set(false);
+                    poll();
+                });
+            } catch (RejectedExecutionException e) {
+                // Desligando: a mensagem já está gravada e será buscada por outro nó
+                wakeUpScheduled.set(false);
+            }
+        }
+    }
+
+    void poll() {
+        if (!running) {
+            return;
+        }
+        try {
+            int limit = Math.min(config.getBatchSize(), config.getMaxInFlight() - inFlight.size());
+            if (limit <= 0) {
+                return;
+            }
+
+            List<InboundMessage> claimed = claim(limit);
+            claimed.forEach(this::dispatch);
+            purgeIfDue();
+
+            // Lote cheio: provavelmente há mais mensagens esperando
+            if (claimed.size() == limit) {
+                wakeUp();
+            }
+        } catch (Exception e) {
+            log.error("Erro ao buscar mensagens do WhatsApp: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reivindica até limit mensagens: marca como PROCESSING e arrenda até lockedUntil
+     */
+    private List<InboundMessage> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return transactions.execute("inbox.claim", status -> {
+            List<InboundMessage> due = repository.lockDue(now, limit);
+            due.forEach(message -> {
+                message.setStatus(InboundMessageStatus.PROCESSING);
+                message.setAttempts(message.getAttempts() + 1);
+                message.setLockedUntil(now.plus(config.getLease()));
+            });
+            return due;
+        });
+    }
+
+    private void dispatch(InboundMessage message) {
+        if (message.getAttempts() == 1) {
+            lag.record(Duration.between(message.getCreatedAt(), LocalDateTime.now()));
+        }
+        inFlight.put(message.getId(), message.getAttempts());
+        try {
+            webhookHandler.process(message.getFromNumber(), message.getBody(), message.getMessageSid(),
+                    error -> finish(message.getId(), message.getAttempts(), error));
+        } catch (Exception e) {
+            finish(message.getId(), message.getAttempts(), e);
+        }
+    }
+
+    /**
+     * Conclui a tentativa: DONE, de volta para PENDING com backoff ou DEAD.
+     * Se o arrendamento expirou e outra tentativa reivindicou a mensagem, não mexe nela.
+     */
+    void finish(Long id, int attempt, Throwable error) {
+        try {
+            InboundMessageStatus result = transactions.execute("inbox.finish", status ->
+                    repository.findById(id)
+                            .filter(message -> message.getStatus() == InboundMessageStatus.PROCESSING
+                                    && message.getAttempts() == attempt)
+                            .map(message -> complete(message, error))
+                            .orElse(null));
+            record(id, result, error);
+        } catch (Exception e) {
+            // A mensagem volta a ficar disponível quando o arrendamento expirar
+            log.error("Erro ao concluir a mensagem {} da fila: {}", id, e.getMessage(), e);
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    private InboundMessageStatus complete(InboundMessage message, Throwable error) {
+        LocalDateTime now = LocalDateTime.now();
+        message.setLockedUntil(null);
+        if (error == null) {
+            message.setStatus(InboundMessageStatus.DONE);
+            message.setProcessedAt(now);
+            return InboundMessageStatus.DONE;
+        }
+
+        message.setLastError(truncate(error.getMessage()));
+        if (message.getAttempts() >= config.getMaxAttempts()) {
+            message.setStatus(InboundMessageStatus.DEAD);
+            message.setProcessedAt(now);
+            return InboundMessageStatus.DEAD;
+        }
+        message.setStatus(InboundMessageStatus.PENDING);
+        message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+        return InboundMessageStatus.PENDING;
+    }
+
+    private void record(Long id, InboundMessageStatus result, Throwable error) {
+        if (result == InboundMessageStatus.DONE) {
+            done.increment();
+        } else if (result == InboundMessageStatus.PENDING) {
+            retried.increment();
+            log.warn("Mensagem {} falhou e será reprocessada: {}", id, error.getMessage());
+        } else if (result == InboundMessageStatus.DEAD) {
+            dead.increment();
+            log.error("Mensagem {} descartada após {} tentativas: {}", id, config.getMaxAttempts(), error.getMessage());
+        }
+    }
+
+    Duration backoff(int attempts) {
+        return Backoff.exponential(attempts, config.getInitialBackoff(), config.getMaxBackoff());
+    }
+
+    private void purgeIfDue() {
+        LocalDateTime now = LocalDateTime.now();
+        if (lastPurge.isAfter(now.minusHours(1))) {
+            return;
+        }
+        lastPurge = now;
+        int deleted = repository.deleteProcessedBefore(InboundMessageStatus.DONE, now.minus(config.getRetention()));
+        if (deleted > 0) {
+            log.info("{} mensagens respondidas removidas da fila", deleted);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private static Counter processedCounter(MeterRegistry registry, String result) {
+        return Counter.builder("chat.inbox.processed")
+                .description("WhatsApp messages finished by the inbox, per result")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -1,63 +1,42 @@
 package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
-import io.github.mrrenan.myfitnesspartner.infrastructure.config.TwilioProperties;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
- * Responsável por enviar mensagens via Twilio WhatsApp Sandbox.
+ * Envio de mensagens pelo WhatsApp (Twilio).
+ * A implementação é escolhida por twilio.sender: rest (padrão, não bloqueante)
+ * ou sdk (SDK oficial do Twilio, bloqueante).
  */
-@Slf4j
-@Component
-@RequiredArgsConstructor
-public class WhatsAppMessageSender {
-
-    private final TwilioProperties twilioProperties;
-
-    @PostConstruct
-    public void init() {
-        // Log para verificar as credenciais carregadas (mostra só os primeiros caracteres)
-        log.info("Twilio Account SID: {}...",
-                twilioProperties.getAccountSid().substring(0, 8));
-        log.info("Twilio Auth Token: {}...",
-                twilioProperties.getAuthToken().substring(0, 4));
-        log.info("Twilio WhatsApp Number: {}",
-                twilioProperties.getWhatsappNumber());
-
-        Twilio.init(
-                twilioProperties.getAccountSid(),
-                twilioProperties.getAuthToken()
-        );
-        log.info("Twilio inicializado com sucesso");
-    }
+public interface WhatsAppMessageSender {
 
     /**
      * Envia uma mensagem de texto via WhatsApp
      *
      * @param to      número do destinatário (formato: +5511999999999)
      * @param message texto da mensagem
+     * @return futuro com o SID da mensagem no Twilio; falha com WhatsAppSendException
      */
-    public void sendMessage(String to, String message) {
-        try {
-            // Twilio exige o prefixo "whatsapp:" no número
-            String toWhatsApp = to.startsWith("whatsapp:") ? to : "whatsapp:" + to;
-
-            Message twilioMessage = Message.creator(
-                    new PhoneNumber(toWhatsApp),
-                    new PhoneNumber(twilioProperties.getWhatsappNumber()),
-                    message
-            ).create();
-
-            log.info("Mensagem enviada para {} — SID: {}", to, twilioMessage.getSid());
+    CompletableFuture<String> sendMessageAsync(String to, String message);
 
-        } catch (Exception e) {
-            log.error("Erro ao enviar mensagem para {}: {}", to, e.getMessage());
-            throw new RuntimeException("Falha ao enviar mensagem WhatsApp: " + e.getMessage(), e);
+    /**
+     * Versão bloqueante de {@link #sendMessageAsync(String, String)}
+     */
+    default void sendMessage(String to, String message) {
+        try {
+            sendMessageAsync(to, message).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Twilio exige o prefixo "whatsapp:" no número
+     */
+    static String toWhatsApp(String number) {
+        return number.startsWith("whatsapp:") ? number : "whatsapp:" + number;
+    }
+}
@@ -0,0 +1,407 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.application.service.TimedTransactions;
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundDeadLetter;
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundMessage;
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundMessageStatus;
+import io.github.mrrenan.myfitnesspartner.domain.repository.OutboundDeadLetterRepository;
+import io.github.mrrenan.myfitnesspartner.domain.repository.OutboundMessageRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Backoff;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable outbox for WhatsApp messages. Answers are persisted before they are
+ * sent, so a Twilio failure is retried from the database with exponential
+ * backoff instead of being recomputed by the AI. Messages to the same number
+ * go out in order. Messages Twilio refuses for good (4xx) or that fail
+ * max-attempts times are moved to outbound_dead_letters, from where they can
+ * be replayed. Works like the WhatsAppInbox: claim with FOR UPDATE SKIP LOCKED,
+ * lease, drain on shutdown.
+ */
+@Slf4j
+@Component
+public class WhatsAppOutbox implements SmartLifecycle {
+
+    private static final int DEAD_LETTER_PAGE_SIZE = 100;
+
+    private final OutboundMessageRepository repository;
+    private final OutboundDeadLetterRepository deadLetterRepository;
+    private final TimedTransactions transactions;
+    private final WhatsAppMessageSender messageSender;
+    private final Executor taskExecutor;
+    private final AppProperties.Outbox config;
+
+    // Envios deste nó aguardando o Twilio, com o número da tentativa que os reivindicou
+    private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile ScheduledExecutorService poller;
+    private volatile LocalDateTime lastPurge = LocalDateTime.MIN;
+
+    private final Counter enqueued;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Counter replayed;
+
+    public WhatsAppOutbox(
+            OutboundMessageRepository repository,
+            OutboundDeadLetterRepository deadLetterRepository,
+            TimedTransactions transactions,
+            WhatsAppMessageSender messageSender,
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            AppProperties appProperties,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.transactions = transactions;
+        this.messageSender = messageSender;
+        this.taskExecutor = taskExecutor;
+        this.config = appProperties.getChat().getOutbox();
+
+        this.enqueued = Counter.builder("chat.outbox.enqueued")
+                .description("WhatsApp messages persisted to be sent")
+                .register(meterRegistry);
+        this.sent = processedCounter(meterRegistry, "sent");
+        this.retried = processedCounter(meterRegistry, "retry");
+        this.dead = processedCounter(meterRegistry, "dead");
+        this.replayed = Counter.builder("chat.outbox.replayed")
+                .description("Dead letters put back in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("chat.outbox.in_flight", inFlight, Map::size)
+                .description("Messages claimed by this node and waiting for Twilio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava a mensagem para envio. Retorna assim que ela está no banco;
+     * o envio acontece em seguida, respeitando a ordem das mensagens para o mesmo número.
+     */
+    public void enqueue(String to, String body) {
+        enqueue(to, body, null);
+    }
+
+    /**
+     * Como {@link #enqueue(String, String)}, para a resposta a uma mensagem recebida.
+     * Se a resposta a essa mensagem já está na fila (nova tentativa da mesma mensagem), não grava de novo.
+     */
+    public void enqueue(String to, String body, String replyToSid) {
+        try {
+            repository.save(OutboundMessage.builder()
+                    .toNumber(to)
+                    .body(body)
+                    .replyToSid(replyToSid)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            if (replyToSid == null) {
+                throw e;
+            }
+            log.info("Resposta à mensagem {} já está na fila de envio", replyToSid);
+            return;
+        }
+        enqueued.increment();
+        wakeUp();
+    }
+
+    /**
+     * Mensagens descartadas que ainda não foram reenviadas, das mais recentes para as mais antigas
+     */
+    public List<OutboundDeadLetter> deadLetters() {
+        return deadLetterRepository.findByReplayedAtIsNullOrderByDeadAtDesc(PageRequest.of(0, DEAD_LETTER_PAGE_SIZE));
+    }
+
+    /**
+     * Coloca uma mensagem descartada de volta na fila, como a última do seu número.
+     * Vazio se ela não existe ou já foi reenviada.
+     */
+    public Optional<OutboundMessage> replay(Long deadLetterId) {
+        Optional<OutboundMessage> message = transactions.execute("outbox.replay", status ->
+                deadLetterRepository.findById(deadLetterId)
+                        .filter(deadLetter -> deadLetter.getReplayedAt() == null)
+                        .map(deadLetter -> {
+                            deadLetter.setReplayedAt(LocalDateTime.now());
+                            return repository.save(OutboundMessage.builder()
+                                    .toNumber(deadLetter.getToNumber())
+                                    .body(deadLetter.getBody())
+                                    .build());
+                        }));
+        message.ifPresent(m -> {
+            replayed.increment();
+            log.info("Mensagem descartada {} reenviada como {}", deadLetterId, m.getId());
+            wakeUp();
+        });
+        return message;
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "whatsapp-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller = executor;
+        running = true;
+        executor.scheduleWithFixedDelay(this::poll, 0, config.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Fila de envio do WhatsApp iniciada");
+    }
+
+    /**
+     * Para de buscar mensagens, espera os envios em andamento e devolve o resto à fila
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (poller != null) {
+            poller.shutdown();
+        }
+
+        long deadline = System.nanoTime() + config.getDrainTimeout().toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!inFlight.isEmpty()) {
+            int released = repository.release(List.copyOf(inFlight.keySet()), LocalDateTime.now(),
+                    OutboundMessageStatus.PENDING, OutboundMessageStatus.SENDING);
+            log.warn("{} envios devolvidos à fila no desligamento", released);
+        }
+        log.info("Fila de envio do WhatsApp parada");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Para depois da WhatsAppInbox: as respostas que ela ainda termina no desligamento
+     * entram nesta fila
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    /**
+     * Busca mensagens novas sem esperar o próximo ciclo. As buscas nunca se sobrepõem:
+     * o poller tem uma thread só.
+     */
+    private void wakeUp() {
+        ScheduledExecutorService executor = poller;
+        if (running && executor != null && wakeUpScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    wakeUpScheduled.set(false);
+                    poll();
+                });
+            } catch (RejectedExecutionException e) {
+                // Desligando: a mensagem já está gravada e será enviada por outro nó
+                wakeUpScheduled.set(false);
+            }
+        }
+    }
+
+    void poll() {
+        if (!running) {
+            return;
+        }
+        try {
+            int limit = Math.min(config.getBatchSize(), config.getMaxInFlight() - inFlight.size());
+            if (limit <= 0) {
+                return;
+            }
+
+            List<OutboundMessage> claimed = claim(limit);
+            claimed.forEach(this::dispatch);
+            purgeIfDue();
+
+            // Lote cheio: provavelmente há mais mensagens esperando
+            if (claimed.size() == limit) {
+                wakeUp();
+            }
+        } catch (Exception e) {
+            log.error("Erro ao buscar mensagens para envio: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reivindica até limit mensagens (no máximo uma por número): marca como SENDING
+     * e arrenda até lockedUntil
+     */
+    private List<OutboundMessage> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return transactions.execute("outbox.claim", status -> {
+            List<OutboundMessage> due = repository.lockDue(now, limit);
+            due.forEach(message -> {
+                message.setStatus(OutboundMessageStatus.SENDING);
+                message.setAttempts(message.getAttempts() + 1);
+                message.setLockedUntil(now.plus(config.getLease()));
+            });
+            return due;
+        });
+    }
+
+    void dispatch(OutboundMessage message) {
+        Long id = message.getId();
+        int attempt = message.getAttempts();
+        inFlight.put(id, attempt);
+        try {
+            messageSender.sendMessageAsync(message.getToNumber(), message.getBody())
+                    .whenComplete((sid, error) -> finishAsync(id, attempt, sid, unwrap(error)));
+        } catch (Exception e) {
+            finish(id, attempt, null, e);
+        }
+    }
+
+    /**
+     * A conclusão grava no banco: sai da thread de I/O do envio. Com o executor
+     * cheio, conclui ali mesmo — senão a mensagem ficaria presa em inFlight.
+     */
+    private void finishAsync(Long id, int attempt, String twilioSid, Throwable error) {
+        try {
+            taskExecutor.execute(() -> finish(id, attempt, twilioSid, error));
+        } catch (RejectedExecutionException e) {
+            finish(id, attempt, twilioSid, error);
+        }
+    }
+
+    /**
+     * Conclui a tentativa: SENT, de volta para PENDING com backoff ou movida para
+     * outbound_dead_letters. Se o arrendamento expirou e outra tentativa reivindicou
+     * a mensagem, não mexe nela.
+     */
+    void finish(Long id, int attempt, String twilioSid, Throwable error) {
+        try {
+            String result = transactions.execute("outbox.finish", status ->
+                    repository.findById(id)
+                            .filter(message -> message.getStatus() == OutboundMessageStatus.SENDING
+                                    && message.getAttempts() == attempt)
+                            .map(message -> complete(message, twilioSid, error))
+                            .orElse(null));
+            record(id, result, error);
+        } catch (Exception e) {
+            // A mensagem volta a ficar disponível quando o arrendamento expirar
+            log.error("Erro ao concluir o envio {}: {}", id, e.getMessage(), e);
+        } finally {
+            inFlight.remove(id);
+        }
+        // A próxima mensagem do mesmo número pode ter sido liberada
+        wakeUp();
+    }
+
+    private String complete(OutboundMessage message, String twilioSid, Throwable error) {
+        LocalDateTime now = LocalDateTime.now();
+        message.setLockedUntil(null);
+        if (error == null) {
+            message.setStatus(OutboundMessageStatus.SENT);
+            message.setTwilioSid(twilioSid);
+            message.setSentAt(now);
+            return "sent";
+        }
+
+        int httpStatus = error instanceof WhatsAppSendException sendError ? sendError.getStatus() : 0;
+        if (isPermanent(httpStatus) || message.getAttempts() >= config.getMaxAttempts()) {
+            deadLetterRepository.save(OutboundDeadLetter.builder()
+                    .outboundMessageId(message.getId())
+                    .toNumber(message.getToNumber())
+                    .body(message.getBody())
+                    .attempts(message.getAttempts())
+                    .lastStatus(httpStatus)
+                    .lastError(truncate(error.getMessage()))
+                    .createdAt(message.getCreatedAt())
+                    .deadAt(now)
+                    .build());
+            // Sai da fila para não segurar as próximas mensagens do número
+            repository.delete(message);
+            return "dead";
+        }
+
+        message.setStatus(OutboundMessageStatus.PENDING);
+        message.setLastError(truncate(error.getMessage()));
+        message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+        return "retry";
+    }
+
+    private void record(Long id, String result, Throwable error) {
+        if ("sent".equals(result)) {
+            sent.increment();
+        } else if ("retry".equals(result)) {
+            retried.increment();
+            log.warn("Envio {} falhou e será repetido: {}", id, error.getMessage());
+        } else if ("dead".equals(result)) {
+            dead.increment();
+            log.error("Envio {} descartado: {}", id, error.getMessage());
+        }
+    }
+
+    /**
+     * O Twilio recusou a mensagem em si (número inválido, corpo grande demais...):
+     * repetir não adianta. Timeout (408) e limite de taxa (429) são temporários.
+     */
+    static boolean isPermanent(int httpStatus) {
+        return httpStatus >= 400 && httpStatus < 500 && httpStatus != 408 && httpStatus != 429;
+    }
+
+    Duration backoff(int attempts) {
+        return Backoff.exponential(attempts, config.getInitialBackoff(), config.getMaxBackoff());
+    }
+
+    private void purgeIfDue() {
+        LocalDateTime now = LocalDateTime.now();
+        if (lastPurge.isAfter(now.minusHours(1))) {
+            return;
+        }
+        lastPurge = now;
+        int deleted = repository.deleteSentBefore(OutboundMessageStatus.SENT, now.minus(config.getRetention()));
+        if (deleted > 0) {
+            log.info("{} mensagens enviadas removidas da fila", deleted);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private static Counter processedCounter(MeterRegistry registry, String result) {
+        return Counter.builder("chat.outbox.processed")
+                .description("WhatsApp messages finished by the outbox, per result")
+                .tag("result", result)
+                .register(registry);
+    }
+}
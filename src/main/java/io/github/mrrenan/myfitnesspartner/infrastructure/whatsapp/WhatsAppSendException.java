@@ -0,0 +1,20 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+/**
+ * Thrown when Twilio does not accept an outbound WhatsApp message.
+ * status is the HTTP status returned by Twilio, or 0 when the request
+ * never got a response (connection error, timeout).
+ */
+public class WhatsAppSendException extends RuntimeException {
+
+    private final int status;
+
+    public WhatsAppSendException(String message, int status, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
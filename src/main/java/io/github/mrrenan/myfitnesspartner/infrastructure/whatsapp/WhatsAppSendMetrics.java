@@ -0,0 +1,48 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and outcome of outbound WhatsApp sends (whatsapp.send), per sender
+ * implementation and destination. The destination tag is the country calling
+ * code, not the full number, to keep the metric's cardinality bounded.
+ */
+class WhatsAppSendMetrics {
+
+    private final String sender;
+    private final MeterRegistry meterRegistry;
+
+    WhatsAppSendMetrics(String sender, MeterRegistry meterRegistry) {
+        this.sender = sender;
+        this.meterRegistry = meterRegistry;
+    }
+
+    void record(String to, long startNanos, Throwable error) {
+        Timer.builder("whatsapp.send")
+                .description("Outbound WhatsApp messages sent through Twilio")
+                .tag("sender", sender)
+                .tag("destination", destination(to))
+                .tag("outcome", error == null ? "success" : "error")
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Código do país do número (+55 → "55"). Aproximado: códigos de 3 dígitos
+     * ficam agrupados pelos 2 primeiros.
+     */
+    static String destination(String to) {
+        String digits = to.replace("whatsapp:", "").replace("+", "");
+        if (digits.isEmpty()) {
+            return "unknown";
+        }
+        // Plano de numeração norte-americano (+1) e Rússia/Cazaquistão (+7)
+        if (digits.charAt(0) == '1' || digits.charAt(0) == '7') {
+            return digits.substring(0, 1);
+        }
+        return digits.substring(0, Math.min(2, digits.length()));
+    }
+}
@@ -1,6 +1,5 @@
 package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
 
-import io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp.dto.WhatsAppWebhookPayload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
@@ -18,11 +17,12 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class WhatsAppWebhookController {
 
-    private final WhatsAppWebhookHandler webhookHandler;
+    private final WhatsAppInbox inbox;
 
     /**
      * Recebe mensagens do Twilio via form-urlencoded.
-     * Retorna TwiML vazio — a resposta é enviada de forma assíncrona.
+     * Só grava a mensagem na fila persistente e retorna TwiML vazio —
+     * a resposta é enviada de forma assíncrona pela WhatsAppInbox.
      */
     @PostMapping(
             consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
@@ -30,44 +30,16 @@ public class WhatsAppWebhookController {
     )
     public ResponseEntity<String> receiveMessage(
             @RequestParam("Body") String body,
-            @RequestParam("From") String from) {
+            @RequestParam("From") String from,
+            @RequestParam(value = "MessageSid", required = false) String messageSid) {
 
-        log.info("Mensagem recebida de {}: {}", from, body);
+        log.info("Mensagem recebida de {} ({}): {}", from, messageSid, body);
 
-        // Monta payload e processa de forma assíncrona
-        // Twilio tem timeout de 15s — retornamos imediatamente
-        WhatsAppWebhookPayload payload = buildPayload(from, body);
-        webhookHandler.handle(payload);
+        // Twilio tem timeout de 15s — retornamos assim que a mensagem está gravada
+        String number = "+" + from.replace("whatsapp:+", ""); // ex: +5511999999999
+        inbox.accept(number, body, messageSid);
 
         // TwiML vazio — resposta real é enviada via Twilio API
         return ResponseEntity.ok("<Response></Response>");
     }
-
-    /**
-     * Adapta os parâmetros do Twilio para o payload padrão
-     */
-    private WhatsAppWebhookPayload buildPayload(String from, String body) {
-        WhatsAppWebhookPayload.TextBody text = new WhatsAppWebhookPayload.TextBody();
-        text.setBody(body);
-
-        WhatsAppWebhookPayload.Message message = new WhatsAppWebhookPayload.Message();
-        message.setFrom(from.replace("whatsapp:+", "")); // remove prefixo whatsapp:+
-        message.setType("text");
-        message.setText(text);
-
-        WhatsAppWebhookPayload.Value value = new WhatsAppWebhookPayload.Value();
-        value.setMessages(java.util.List.of(message));
-
-        WhatsAppWebhookPayload.Change change = new WhatsAppWebhookPayload.Change();
-        change.setValue(value);
-
-        WhatsAppWebhookPayload.Entry entry = new WhatsAppWebhookPayload.Entry();
-        entry.setChanges(java.util.List.of(change));
-
-        WhatsAppWebhookPayload payload = new WhatsAppWebhookPayload();
-        payload.setObject("whatsapp_business_account");
-        payload.setEntry(java.util.List.of(entry));
-
-        return payload;
-    }
 }
\ No newline at end of file
@@ -1,20 +1,37 @@
 package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
 
+import io.github.mrrenan.myfitnesspartner.application.dto.StoredReply;
 import io.github.mrrenan.myfitnesspartner.application.service.ConversationService;
 import io.github.mrrenan.myfitnesspartner.domain.repository.UserRepository;
-import io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp.dto.WhatsAppWebhookPayload;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
- * Processa os eventos recebidos pelo webhook do WhatsApp.
- * Executa de forma assíncrona para retornar 200 imediatamente para a Meta.
+ * Responde as mensagens recebidas pelo WhatsApp, entregues pela WhatsAppInbox.
+ * A chamada à IA é composta de forma não bloqueante: nenhuma thread fica presa
+ * esperando a IA. As respostas saem pela WhatsAppOutbox, que as entrega em ordem
+ * e repete falhas do Twilio a partir do banco.
+ * Mensagens enviadas em sequência rápida são agrupadas (MessageDebouncer) e
+ * respondidas com uma única chamada à IA.
+ * Cada remetente tem sua fila (ChatMailboxes): suas mensagens são respondidas
+ * em ordem, enquanto usuários diferentes seguem em paralelo.
+ * Uma nova tentativa de mensagem já respondida (ex.: timeout depois do commit),
+ * sozinha ou numa rajada, reenfileira a resposta gravada, sem chamar a IA de novo.
  */
 @Slf4j
 @Component
@@ -24,50 +41,55 @@ public class WhatsAppWebhookHandler {
     private final ConversationService conversationService;
     private final WhatsAppMessageSender messageSender;
     private final UserRepository userRepository;
+    private final ChatMailboxes mailboxes;
+    private final MessageDebouncer debouncer;
+    private final WhatsAppOutbox outbox;
 
     /**
-     * Processa o payload recebido de forma assíncrona.
-     * O @Async garante que o controller retorna 200 imediatamente.
+     * Processa uma mensagem da fila. onDone é chamado uma única vez quando a
+     * resposta termina: com null em caso de sucesso ou com o erro, para nova tentativa.
      */
-    @Async("taskExecutor")
-    public void handle(WhatsAppWebhookPayload payload) {
-        try {
-            if (payload.getEntry() == null) return;
+    public void process(String from, String text, String messageSid, Consumer<Throwable> onDone) {
+        log.debug("Processando mensagem de {}: {}", from, text);
 
-            payload.getEntry().forEach(entry -> {
-                if (entry.getChanges() == null) return;
-
-                entry.getChanges().forEach(change -> {
-                    WhatsAppWebhookPayload.Value value = change.getValue();
-                    if (value == null || value.getMessages() == null) return;
-
-                    value.getMessages().forEach(message ->
-                            processMessage(message, value.getMetadata()));
-                });
-            });
-
-        } catch (Exception e) {
-            log.error("Erro ao processar payload do webhook: {}", e.getMessage(), e);
-        }
+        // Uma rajada de mensagens vira uma só pergunta para a IA
+        debouncer.submit(from, new Incoming(text, messageSid, onDone), burst -> enqueue(from, burst));
     }
 
     /**
-     * Processa uma mensagem individual
+     * Coloca a rajada na fila do remetente e avisa cada mensagem quando a resposta termina
      */
-    private void processMessage(
-            WhatsAppWebhookPayload.Message message,
-            WhatsAppWebhookPayload.Metadata metadata) {
-
-        // Só processa mensagens de texto por enquanto
-        if (!"text".equals(message.getType())) {
-            log.debug("Tipo de mensagem não suportado: {}", message.getType());
-            return;
+    private void enqueue(String from, List<Incoming> burst) {
+        String text = burst.stream()
+                .map(Incoming::text)
+                .collect(Collectors.joining("\n"));
+        // Todos os SIDs da rajada ficam na resposta: qualquer um deles, repetido sozinho, a encontra
+        List<String> messageSids = burst.stream()
+                .map(Incoming::messageSid)
+                .filter(Objects::nonNull)
+                .toList();
+
+        // Mensagens do mesmo usuário são respondidas em ordem, uma por vez
+        boolean accepted = mailboxes.submit(from, () -> Mono.defer(() -> respond(from, text, messageSids))
+                .doOnSuccess(v -> done(burst, null))
+                .doOnError(e -> done(burst, e))
+                // Cancelada pelo timeout da caixa do remetente
+                .doOnCancel(() -> done(burst, new TimeoutException("Tempo de processamento esgotado"))),
+                // Executor cheio: a fila persistente tenta de novo mais tarde
+                e -> done(burst, e));
+        if (!accepted) {
+            // A fila persistente tenta de novo mais tarde
+            done(burst, new RejectedExecutionException("Caixa de mensagens de " + from + " cheia"));
         }
+    }
 
-        String from = "+" + message.getFrom(); // ex: +5511999999999
-        String text = message.getText().getBody();
-
-        log.info("Mensagem recebida de {}: {}", from, text);
+    /**
+     * Responde uma mensagem. Roda na caixa do remetente: a próxima mensagem dele
+     * só começa quando o Mono retornado termina.
+     */
+    private Mono<Void> respond(String from, String text, List<String> messageSids) {
+        // A resposta entra na fila de envio pelo último SID da rajada
+        String replyKey = messageSids.isEmpty() ? null : messageSids.get(messageSids.size() - 1);
 
         // Verifica se o usuário está cadastrado
         boolean userExists = userRepository
@@ -76,26 +98,75 @@ public class WhatsAppWebhookHandler {
 
         if (!userExists) {
             log.warn("Usuário não cadastrado: {}", from);
-            messageSender.sendMessage(from,
+            outbox.enqueue(from,
                     "Olá! 👋 Você ainda não está cadastrado no MyFitnessPartner.\n\n" +
-                            "Para começar, cadastre-se pelo nosso app e depois volte aqui!");
-            return;
+                            "Para começar, cadastre-se pelo nosso app e depois volte aqui!",
+                    replyKey);
+            return Mono.empty();
+        }
+
+        // Nova tentativa de mensagens cujas rodadas já foram gravadas: só reenfileira as respostas
+        Optional<List<StoredReply>> storedReplies = findStoredReplies(from, messageSids);
+        if (storedReplies.isPresent()) {
+            log.info("Mensagens {} de {} já respondidas; reenfileirando a resposta gravada", messageSids, from);
+            // Pela chave original: a resposta já na fila não é gravada de novo
+            storedReplies.get().forEach(reply -> outbox.enqueue(from, reply.content(), reply.messageSid()));
+            return Mono.empty();
         }
 
-        // Envia indicador de processamento
-        messageSender.sendMessage(from, "⏳ Processando...");
+        // Envia indicador de processamento; se falhar, a resposta segue mesmo assim
+        Mono<String> progress = Mono.fromFuture(() -> messageSender.sendMessageAsync(from, "⏳ Processando..."))
+                .onErrorResume(e -> Mono.just(""));
 
-        // Chama a IA via ConversationService
+        // Chama a IA via ConversationService, sem bloquear a thread atual
         ChatRequest chatRequest = ChatRequest.builder()
                 .whatsappNumber(from)
                 .message(text)
                 .build();
 
-        ChatResponse response = conversationService.chat(chatRequest);
+        // Indicador e IA em paralelo; a resposta vai para a fila de envio, que
+        // repete falhas do Twilio sem chamar a IA de novo
+        return Mono.zip(conversationService.chatAsync(chatRequest, messageSids), progress)
+                // Gravar na fila é JDBC: sai da thread de I/O do indicador
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(result -> sendReply(from, replyKey, result.getT1()))
+                .then();
+    }
+
+    /**
+     * Respostas já gravadas para as mensagens, sem repetir a mesma resposta.
+     * Vazio se alguma ainda não foi respondida: a rajada inteira vai para a IA.
+     */
+    private Optional<List<StoredReply>> findStoredReplies(String from, List<String> messageSids) {
+        if (messageSids.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, StoredReply> replies = new LinkedHashMap<>();
+        for (String messageSid : messageSids) {
+            Optional<StoredReply> reply = conversationService.findWhatsAppReply(from, messageSid);
+            if (reply.isEmpty()) {
+                return Optional.empty();
+            }
+            replies.putIfAbsent(reply.get().messageSid(), reply.get());
+        }
+        return Optional.of(List.copyOf(replies.values()));
+    }
+
+    /**
+     * Coloca a resposta da IA na fila de envio
+     */
+    private void sendReply(String from, String messageSid, ChatResponse response) {
+        outbox.enqueue(from, response.getAiResponse(), messageSid);
+        log.info("Resposta enfileirada para: {}", from);
+    }
 
-        // Envia a resposta
-        messageSender.sendMessage(from, response.getAiResponse());
+    private static void done(List<Incoming> burst, Throwable error) {
+        burst.forEach(message -> message.onDone().accept(error));
+    }
 
-        log.info("Resposta enviada para: {}", from);
+    /**
+     * Mensagem aguardando na rajada, com o retorno para a fila persistente
+     */
+    private record Incoming(String text, String messageSid, Consumer<Throwable> onDone) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * Resposta da API REST do Twilio ao criar uma mensagem (apenas os campos usados).
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TwilioMessageResponse {
+
+    @JsonProperty("sid")
+    private String sid;
+
+    @JsonProperty("status")
+    private String status;
+}
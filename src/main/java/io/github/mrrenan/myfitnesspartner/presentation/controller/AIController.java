@@ -2,6 +2,8 @@ package io.github.mrrenan.myfitnesspartner.presentation.controller;
 
 import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
 import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.FoodEstimateCache;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.MealDescriptionNormalizer;
 import io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp.WhatsAppMessageSender;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -25,6 +27,7 @@ public class AIController {
 
     private final FitnessAiPort fitnessAiPort;
     private final WhatsAppMessageSender messageSender;
+    private final FoodEstimateCache foodEstimateCache;
 
     @PostMapping("/test-twilio")
     public ResponseEntity<String> testTwilio() {
@@ -45,4 +48,22 @@ public class AIController {
         return ResponseEntity.ok(estimate);
     }
 
+    @DeleteMapping("/cache")
+    @Operation(
+            summary = "Invalidate food estimate cache",
+            description = "Remove a cached estimate for one meal description, or the whole cache when no description is given. Requires ROLE_ADMIN: the cache is shared by all users"
+    )
+    public ResponseEntity<Map<String, String>> invalidateCache(
+            @RequestParam(required = false) String description) {
+        log.info("DELETE /ai/cache - Description: {}", description);
+
+        if (description == null || description.isBlank()) {
+            foodEstimateCache.invalidateAll();
+            return ResponseEntity.ok(Map.of("message", "Cache de estimativas limpo"));
+        }
+
+        String key = MealDescriptionNormalizer.normalize(description);
+        foodEstimateCache.invalidate(key);
+        return ResponseEntity.ok(Map.of("message", "Cache invalidado", "key", key));
+    }
 }
\ No newline at end of file
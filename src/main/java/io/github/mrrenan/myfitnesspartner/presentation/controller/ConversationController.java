@@ -5,15 +5,19 @@ import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatResponse;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationSummaryResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import reactor.core.publisher.Flux;
 
 @Slf4j
 @RestController
@@ -35,17 +39,59 @@ public class ConversationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Send message (streaming)",
+            description = "Send a message to the AI fitness assistant and receive the response as Server-Sent Events"
+    )
+    public Flux<ServerSentEvent<String>> chatStream(@Valid @RequestBody ChatRequest request) {
+        log.info("POST /conversations/chat/stream - User: {}", request.getWhatsappNumber());
+        return toServerSentEvents(conversationService.chatStream(request));
+    }
+
+    @GetMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Send message (streaming, GET)",
+            description = "Same as POST /chat/stream, for clients using EventSource"
+    )
+    public Flux<ServerSentEvent<String>> chatStreamGet(@Valid @ModelAttribute ChatRequest request) {
+        // Parâmetros da query validados como o corpo do POST
+        log.info("GET /conversations/chat/stream - User: {}", request.getWhatsappNumber());
+        return toServerSentEvents(conversationService.chatStream(request));
+    }
+
     @GetMapping("/history")
     @Operation(
             summary = "Get history",
-            description = "Get all conversations for a user"
+            description = "Get a page of the user's conversations, newest first, with counts and last message. "
+                    + "Pass nextCursor as cursor to get the next page"
     )
-    public ResponseEntity<List<ConversationResponse>> getHistory(@RequestParam String whatsappNumber) {
+    public ResponseEntity<CursorPage<ConversationSummaryResponse>> getHistory(
+            @RequestParam String whatsappNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         log.info("GET /conversations/history - User: {}", whatsappNumber);
-        List<ConversationResponse> history = conversationService.getHistory(whatsappNumber);
+        CursorPage<ConversationSummaryResponse> history = conversationService.getHistory(whatsappNumber, cursor, limit);
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/{conversationId}/messages")
+    @Operation(
+            summary = "Get conversation messages",
+            description = "Get a page of a conversation's messages, latest first. "
+                    + "Pass nextCursor as cursor to get older messages"
+    )
+    public ResponseEntity<CursorPage<ConversationResponse.MessageResponse>> getMessages(
+            @PathVariable Long conversationId,
+            @RequestParam String whatsappNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("GET /conversations/{}/messages - User: {}", conversationId, whatsappNumber);
+        CursorPage<ConversationResponse.MessageResponse> messages =
+                conversationService.getMessages(whatsappNumber, conversationId, cursor, limit);
+        return ResponseEntity.ok(messages);
+    }
+
     @GetMapping("/last")
     @Operation(
             summary = "Get last conversation",
@@ -56,4 +102,13 @@ public class ConversationController {
         ConversationResponse conversation = conversationService.getLastConversation(whatsappNumber);
         return ResponseEntity.ok(conversation);
     }
+
+    /**
+     * Cada trecho da IA vira um evento "message"; "done" sinaliza que a conversa foi salva
+     */
+    private Flux<ServerSentEvent<String>> toServerSentEvents(Flux<String> tokens) {
+        return tokens
+                .map(token -> ServerSentEvent.builder(token).event("message").build())
+                .concatWith(Flux.just(ServerSentEvent.builder("").event("done").build()));
+    }
 }
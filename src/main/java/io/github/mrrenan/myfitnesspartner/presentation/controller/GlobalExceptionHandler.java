@@ -1,6 +1,7 @@
 package io.github.mrrenan.myfitnesspartner.presentation.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -126,6 +127,70 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    /**
+     * Handle AiTimeoutException (AI took too long to answer)
+     */
+    @ExceptionHandler(io.github.mrrenan.myfitnesspartner.infrastructure.ai.AiTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleAiTimeoutException(
+            io.github.mrrenan.myfitnesspartner.infrastructure.ai.AiTimeoutException ex,
+            WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.GATEWAY_TIMEOUT.value())
+                .error("AI Timeout")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        log.warn("AI timeout: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
+    /**
+     * Handle AiCapacityExceededException (too many concurrent AI calls)
+     */
+    @ExceptionHandler(io.github.mrrenan.myfitnesspartner.infrastructure.ai.AiCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleAiCapacityExceededException(
+            io.github.mrrenan.myfitnesspartner.infrastructure.ai.AiCapacityExceededException ex,
+            WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("AI Overloaded")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        log.warn("AI capacity exceeded: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(errorResponse);
+    }
+
+    /**
+     * Handle BulkheadFullException (a downstream dependency is at its concurrency limit)
+     */
+    @ExceptionHandler(io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFullException(
+            io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.BulkheadFullException ex,
+            WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Overloaded")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        log.warn("Bulkhead full: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(errorResponse);
+    }
+
     /**
      * Handle generic exceptions
      */
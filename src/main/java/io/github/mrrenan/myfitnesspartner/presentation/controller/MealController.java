@@ -1,7 +1,9 @@
 package io.github.mrrenan.myfitnesspartner.presentation.controller;
 
 import io.github.mrrenan.myfitnesspartner.application.service.MealService;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealFromDescriptionRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealRequest;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealsFromDescriptionsRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.MealResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,8 +12,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -49,6 +54,31 @@ public class MealController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/from-description/async")
+    @Operation(
+            summary = "Register meal from description, estimate later (AI)",
+            description = "Saves the meal immediately as PENDING_ESTIMATE and returns 202. Calories are filled in the background; poll GET /meals/{mealId} or subscribe to GET /meals/{mealId}/estimate."
+    )
+    public ResponseEntity<MealResponse> registerMealFromDescriptionAsync(
+            @Valid @RequestBody CreateMealFromDescriptionRequest request) {
+        log.info("POST /meals/from-description/async - AI meal registration for: {}", request.getWhatsappNumber());
+        MealResponse response = mealService.registerMealFromDescriptionAsync(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @PostMapping("/from-descriptions")
+    @Operation(
+            summary = "Register several meals from descriptions (AI)",
+            description = "Register up to 20 meals at once. All descriptions are estimated in a single AI call and the meals are saved together."
+    )
+    public ResponseEntity<List<MealResponse>> registerMealsFromDescriptions(
+            @Valid @RequestBody CreateMealsFromDescriptionsRequest request) {
+        log.info("POST /meals/from-descriptions - AI batch registration of {} meals for: {}",
+                request.getMeals().size(), request.getWhatsappNumber());
+        List<MealResponse> response = mealService.registerMealsFromDescriptions(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     @GetMapping
     @Operation(summary = "Get all meals", description = "Get all meals for a user")
     public ResponseEntity<List<MealResponse>> getAllMeals(@RequestParam String whatsappNumber) {
@@ -97,6 +127,19 @@ public class MealController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/{mealId}/estimate", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Follow meal estimate",
+            description = "Server-sent events with the meal's current state and, if it is PENDING_ESTIMATE, the meal again when the estimate finishes"
+    )
+    public Flux<ServerSentEvent<MealResponse>> watchMealEstimate(
+            @PathVariable Long mealId,
+            @RequestParam String whatsappNumber) {
+        log.info("GET /meals/{}/estimate - Following estimate for: {}", mealId, whatsappNumber);
+        return mealService.watchMeal(mealId, whatsappNumber)
+                .map(meal -> ServerSentEvent.builder(meal).event(meal.getStatus().name()).build());
+    }
+
     @DeleteMapping("/{mealId}")
     @Operation(summary = "Delete meal", description = "Delete a meal by ID")
     public ResponseEntity<Void> deleteMeal(
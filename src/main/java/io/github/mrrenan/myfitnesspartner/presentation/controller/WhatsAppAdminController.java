@@ -0,0 +1,59 @@
+package io.github.mrrenan.myfitnesspartner.presentation.controller;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp.WhatsAppOutbox;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.OutboundDeadLetterResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.mapper.OutboundDeadLetterMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for WhatsApp operations.
+ * Lists outbound messages that could not be sent and puts them back in the outbox.
+ * Restricted to ROLE_ADMIN (numbers in app.security.admin-numbers).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/whatsapp")
+@RequiredArgsConstructor
+@Tag(name = "WhatsApp Admin", description = "Outbound WhatsApp dead letters")
+public class WhatsAppAdminController {
+
+    private final WhatsAppOutbox outbox;
+    private final OutboundDeadLetterMapper deadLetterMapper;
+
+    @GetMapping("/dead-letters")
+    @Operation(
+            summary = "List dead letters",
+            description = "Outbound messages Twilio refused or that failed every attempt and were not replayed yet, newest first (up to 100)"
+    )
+    public ResponseEntity<List<OutboundDeadLetterResponse>> getDeadLetters() {
+        log.info("GET /admin/whatsapp/dead-letters");
+        List<OutboundDeadLetterResponse> response = outbox.deadLetters().stream()
+                .map(deadLetterMapper::toResponse)
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/dead-letters/{id}/replay")
+    @Operation(
+            summary = "Replay dead letter",
+            description = "Put a dead letter back in the outbox as the latest message to its number. The stored text is sent again; the AI is not called."
+    )
+    public ResponseEntity<Map<String, Object>> replayDeadLetter(@PathVariable Long id) {
+        log.info("POST /admin/whatsapp/dead-letters/{}/replay", id);
+        return outbox.replay(id)
+                .map(message -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .<Map<String, Object>>body(Map.of(
+                                "message", "Mensagem colocada de volta na fila de envio",
+                                "outboundMessageId", message.getId())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
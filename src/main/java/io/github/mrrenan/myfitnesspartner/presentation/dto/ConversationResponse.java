@@ -18,6 +18,8 @@ public class ConversationResponse {
     private Long userId;
     private String userName;
     private List<MessageResponse> messages;
+    private Integer messageCount;
+    private LocalDateTime lastMessageAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
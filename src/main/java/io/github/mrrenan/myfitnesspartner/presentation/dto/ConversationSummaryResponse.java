@@ -0,0 +1,26 @@
+package io.github.mrrenan.myfitnesspartner.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conversation in the history listing, without its messages.
+ * Messages are paged through GET /conversations/{id}/messages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummaryResponse {
+
+    private Long id;
+    private Integer messageCount;
+    private String lastMessagePreview;
+    private LocalDateTime lastMessageAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package io.github.mrrenan.myfitnesspartner.presentation.dto;
+
+import io.github.mrrenan.myfitnesspartner.domain.model.MealType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for creating several meals from natural language descriptions at once.
+ * All descriptions are estimated by the AI in a single call.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateMealsFromDescriptionsRequest {
+
+    @NotBlank(message = "WhatsApp number is required")
+    private String whatsappNumber;
+
+    @Valid
+    @NotEmpty(message = "At least one meal is required")
+    @Size(max = 20, message = "At most 20 meals per request")
+    private List<MealDescription> meals;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MealDescription {
+
+        @NotBlank(message = "Description is required")
+        @Size(min = 5, max = 500, message = "Description must be between 5 and 500 characters")
+        private String description;
+
+        @NotNull(message = "Meal type is required")
+        private MealType mealType;
+
+        private String notes; // Optional notes
+    }
+}
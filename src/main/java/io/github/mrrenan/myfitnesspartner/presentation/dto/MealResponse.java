@@ -1,5 +1,6 @@
 package io.github.mrrenan.myfitnesspartner.presentation.dto;
 
+import io.github.mrrenan.myfitnesspartner.domain.model.MealStatus;
 import io.github.mrrenan.myfitnesspartner.domain.model.MealType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,6 +23,7 @@ public class MealResponse {
     private Long userId;
     private String description;
     private MealType mealType;
+    private MealStatus status;
     private Integer calories;
     private Double protein;
     private Double carbohydrates;
@@ -0,0 +1,28 @@
+package io.github.mrrenan.myfitnesspartner.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbound WhatsApp message that could not be sent.
+ * Replayed through POST /admin/whatsapp/dead-letters/{id}/replay.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundDeadLetterResponse {
+
+    private Long id;
+    private String toNumber;
+    private String body;
+    private Integer attempts;
+    private Integer lastStatus;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime deadAt;
+}
@@ -1,7 +1,9 @@
 package io.github.mrrenan.myfitnesspartner.presentation.mapper;
 
 import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationSummary;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationSummaryResponse;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -9,25 +11,38 @@ import java.util.List;
 @Component
 public class ConversationMapper {
 
-    public ConversationResponse toResponse(Conversation conversation) {
+    /**
+     * Maps the conversation with messages read from conversation_messages
+     */
+    public ConversationResponse toResponse(Conversation conversation, List<Conversation.Message> messages) {
         return ConversationResponse.builder()
                 .id(conversation.getId())
                 .userId(conversation.getUser().getId())
                 .userName(conversation.getUser().getName())
-                .messages(mapMessages(conversation.getMessages()))
+                .messages(toMessageResponses(messages))
+                .messageCount(conversation.countMessages())
+                .lastMessageAt(conversation.getLastMessageAt())
                 .createdAt(conversation.getCreatedAt())
                 .updatedAt(conversation.getUpdatedAt())
                 .build();
     }
 
-    public List<ConversationResponse> toResponseList(List<Conversation> conversations) {
-        return conversations.stream()
-                .map(this::toResponse)
-                .toList();
+    public ConversationSummaryResponse toSummaryResponse(ConversationSummary summary) {
+        return ConversationSummaryResponse.builder()
+                .id(summary.id())
+                .messageCount(summary.messageCount() != null ? summary.messageCount() : 0)
+                .lastMessagePreview(summary.lastMessagePreview())
+                .lastMessageAt(summary.lastMessageAt())
+                .createdAt(summary.createdAt())
+                .updatedAt(summary.updatedAt())
+                .build();
     }
 
-    private List<ConversationResponse.MessageResponse> mapMessages(
+    public List<ConversationResponse.MessageResponse> toMessageResponses(
             List<Conversation.Message> messages) {
+        if (messages == null) {
+            return List.of();
+        }
         return messages.stream()
                 .map(m -> ConversationResponse.MessageResponse.builder()
                         .role(m.getRole())
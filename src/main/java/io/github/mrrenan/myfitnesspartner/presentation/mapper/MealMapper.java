@@ -1,6 +1,7 @@
 package io.github.mrrenan.myfitnesspartner.presentation.mapper;
 
 import io.github.mrrenan.myfitnesspartner.domain.model.Meal;
+import io.github.mrrenan.myfitnesspartner.domain.model.MealStatus;
 import io.github.mrrenan.myfitnesspartner.domain.model.User;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.MealResponse;
@@ -40,6 +41,7 @@ public class MealMapper {
                 .userId(meal.getUser().getId())
                 .description(meal.getDescription())
                 .mealType(meal.getMealType())
+                .status(meal.getStatus() != null ? meal.getStatus() : MealStatus.ESTIMATED)
                 .calories(meal.getCalories())
                 .protein(meal.getProtein())
                 .carbohydrates(meal.getCarbohydrates())
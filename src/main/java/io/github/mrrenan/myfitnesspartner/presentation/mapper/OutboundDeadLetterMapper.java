@@ -0,0 +1,28 @@
+package io.github.mrrenan.myfitnesspartner.presentation.mapper;
+
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundDeadLetter;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.OutboundDeadLetterResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper to convert OutboundDeadLetter entity to DTO.
+ */
+@Component
+public class OutboundDeadLetterMapper {
+
+    /**
+     * Convert OutboundDeadLetter entity to OutboundDeadLetterResponse DTO
+     */
+    public OutboundDeadLetterResponse toResponse(OutboundDeadLetter deadLetter) {
+        return OutboundDeadLetterResponse.builder()
+                .id(deadLetter.getId())
+                .toNumber(deadLetter.getToNumber())
+                .body(deadLetter.getBody())
+                .attempts(deadLetter.getAttempts())
+                .lastStatus(deadLetter.getLastStatus())
+                .lastError(deadLetter.getLastError())
+                .createdAt(deadLetter.getCreatedAt())
+                .deadAt(deadLetter.getDeadAt())
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.mrrenan.myfitnesspartner.application.service;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.StoredReply;
+import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
+import io.github.mrrenan.myfitnesspartner.domain.model.ConversationMessage;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationMessageRepository;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConversationMessageStore")
+class ConversationMessageStoreTest {
+
+    @Mock private ConversationMessageRepository messageRepository;
+    @Mock private ConversationRepository conversationRepository;
+
+    @InjectMocks
+    private ConversationMessageStore store;
+
+    @Test
+    @DisplayName("deve inserir só as mensagens da rodada com os seqs reservados")
+    @SuppressWarnings("unchecked")
+    void append_shouldInsertTurnWithReservedSeqs() {
+        // arrange
+        Conversation conversation = Conversation.builder().id(1L).messageCount(40).build();
+        when(conversationRepository.findMessageCount(1L)).thenReturn(42);
+        when(conversationRepository.getReferenceById(1L)).thenReturn(conversation);
+
+        // act
+        store.append(conversation, List.of(message("user", "Oi"), message("assistant", "Olá!")));
+
+        // assert
+        verify(conversationRepository).advanceMessages(eq(1L), eq(2), any(), eq("Olá!"));
+        ArgumentCaptor<List<ConversationMessage>> rows = ArgumentCaptor.forClass(List.class);
+        verify(messageRepository).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(ConversationMessage::getSeq).containsExactly(40, 41);
+        assertThat(conversation.getMessageCount()).isEqualTo(42);
+        assertThat(conversation.getLastMessagePreview()).isEqualTo("Olá!");
+        verify(conversationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("deve marcar a resposta da IA com todos os MessageSids da rajada")
+    @SuppressWarnings("unchecked")
+    void append_shouldTagReplyWithBurstMessageIds() {
+        // arrange
+        Conversation conversation = Conversation.builder().id(1L).messageCount(0).build();
+        when(conversationRepository.findMessageCount(1L)).thenReturn(2);
+        when(conversationRepository.getReferenceById(1L)).thenReturn(conversation);
+
+        // act
+        store.append(conversation, List.of(message("user", "Oi\nTudo bem?"), message("assistant", "Olá!")),
+                List.of("SM122", "SM123"));
+
+        // assert — só a resposta: é ela que uma nova tentativa de qualquer mensagem da rajada reaproveita
+        ArgumentCaptor<List<ConversationMessage>> rows = ArgumentCaptor.forClass(List.class);
+        verify(messageRepository).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(ConversationMessage::getWhatsappMessageId)
+                .containsExactly(null, "SM123");
+        assertThat(rows.getValue().get(0).getAnsweredMessageIds()).isEmpty();
+        assertThat(rows.getValue().get(1).getAnsweredMessageIds()).containsExactlyInAnyOrder("SM122", "SM123");
+    }
+
+    @Test
+    @DisplayName("deve devolver a resposta gravada com a chave da rajada, só para o remetente")
+    void replyTo_shouldReturnBurstReply_scopedToSender() {
+        // arrange — SM122 foi respondida na mesma rajada que SM123
+        ConversationMessage reply = ConversationMessage.builder().content("Olá!").whatsappMessageId("SM123").build();
+        when(messageRepository.findRepliesTo("+5511999999999", "SM122")).thenReturn(List.of(reply));
+        when(messageRepository.findRepliesTo("+5511888888888", "SM122")).thenReturn(List.of());
+
+        // act & assert — o mesmo SID de outro remetente não encontra nada
+        assertThat(store.replyTo("+5511999999999", "SM122")).contains(new StoredReply("SM123", "Olá!"));
+        assertThat(store.replyTo("+5511888888888", "SM122")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve migrar o histórico JSONB antigo antes do primeiro append")
+    @SuppressWarnings("unchecked")
+    void append_shouldMigrateLegacyMessages() {
+        // arrange
+        List<Conversation.Message> legacy = new ArrayList<>();
+        legacy.add(message("user", "Quero perder 5kg"));
+        legacy.add(message("assistant", "Vamos montar um plano!"));
+        Conversation conversation = Conversation.builder().id(1L).messages(legacy).build();
+        when(conversationRepository.claimLegacyMessages(eq(1L), eq(2), any(), eq("Vamos montar um plano!")))
+                .thenReturn(1);
+        when(conversationRepository.findMessageCount(1L)).thenReturn(4);
+        when(conversationRepository.getReferenceById(1L)).thenReturn(conversation);
+
+        // act
+        store.append(conversation, List.of(message("user", "Oi"), message("assistant", "Olá!")));
+
+        // assert
+        ArgumentCaptor<List<ConversationMessage>> rows = ArgumentCaptor.forClass(List.class);
+        verify(messageRepository, times(2)).saveAll(rows.capture());
+        assertThat(rows.getAllValues().get(0)).extracting(ConversationMessage::getContent)
+                .containsExactly("Quero perder 5kg", "Vamos montar um plano!");
+        assertThat(rows.getAllValues().get(1)).extracting(ConversationMessage::getSeq).containsExactly(2, 3);
+        assertThat(conversation.hasLegacyMessages()).isFalse();
+    }
+
+    private Conversation.Message message(String role, String content) {
+        return Conversation.Message.builder()
+                .role(role)
+                .content(content)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
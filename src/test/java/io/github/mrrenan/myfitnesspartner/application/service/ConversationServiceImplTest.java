@@ -5,25 +5,44 @@ import io.github.mrrenan.myfitnesspartner.domain.exception.UserNotFoundException
 import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
 import io.github.mrrenan.myfitnesspartner.domain.model.User;
 import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationRepository;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationSummary;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationVersion;
 import io.github.mrrenan.myfitnesspartner.domain.repository.UserRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.cache.ConversationTailCache;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Bulkheads;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ChatResponse;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationSummaryResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CursorPage;
 import io.github.mrrenan.myfitnesspartner.presentation.mapper.ConversationMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +53,13 @@ class ConversationServiceImplTest {
     @Mock private UserRepository userRepository;
     @Mock private FitnessAiPort fitnessAiPort;
     @Mock private ConversationMapper conversationMapper;
+    @Mock private ConversationSummarizer conversationSummarizer;
+    @Mock private ConversationMessageStore messageStore;
+    @Mock private ConversationTailCache tailCache;
+    @Spy private TimedTransactions transactions = new TimedTransactions(
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+            new Bulkheads(new AppProperties(), new SimpleMeterRegistry()));
+    @Spy private AppProperties appProperties = new AppProperties();
 
     @InjectMocks
     private ConversationServiceImpl conversationService;
@@ -86,6 +112,7 @@ class ConversationServiceImplTest {
         assertThat(response.getUserMessage()).isEqualTo(chatRequest.getMessage());
         assertThat(response.getAiResponse()).isEqualTo("Sim, está dentro da meta!");
         verify(conversationRepository).save(any());
+        verify(messageStore).append(argThat(c -> c.getId() == 1L), argThat(m -> m.size() == 2), eq(List.of()));
     }
 
     @Test
@@ -103,16 +130,13 @@ class ConversationServiceImplTest {
                 .thenReturn(Optional.of(existingConversation));
         when(fitnessAiPort.chat(any(), any()))
                 .thenReturn("Resposta da IA");
-        when(conversationRepository.save(any()))
-                .thenReturn(existingConversation);
 
         // act
         ChatResponse response = conversationService.chat(chatRequest);
 
         // assert
         assertThat(response.getConversationId()).isEqualTo(1L);
-        verify(conversationRepository, never()).save(argThat(c ->
-                c.getId() == null)); // nunca cria conversa nova
+        verify(conversationRepository, never()).save(any()); // nunca cria conversa nova
     }
 
     @Test
@@ -131,27 +155,70 @@ class ConversationServiceImplTest {
     }
 
     @Test
-    @DisplayName("deve retornar histórico de conversas do usuário")
-    void getHistory_shouldReturnConversations() {
+    @DisplayName("deve retornar uma página do histórico com cursor para a próxima")
+    void getHistory_shouldReturnPageWithNextCursor() {
+        // arrange
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+        List<ConversationSummary> rows = List.of(
+                summary(3L, now),
+                summary(2L, now.minusDays(1)),
+                summary(1L, now.minusDays(2))); // linha extra: indica que há mais
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(conversationRepository.findSummaries(eq(user), any()))
+                .thenReturn(rows);
+        when(conversationMapper.toSummaryResponse(any()))
+                .thenAnswer(inv -> ConversationSummaryResponse.builder()
+                        .id(inv.<ConversationSummary>getArgument(0).id()).build());
+
+        // act
+        CursorPage<ConversationSummaryResponse> page =
+                conversationService.getHistory("+5511999999999", null, 2);
+
+        // assert
+        assertThat(page.getItems()).extracting(ConversationSummaryResponse::getId).containsExactly(3L, 2L);
+        assertThat(page.isHasMore()).isTrue();
+
+        // a próxima página continua depois da última conversa entregue
+        when(conversationRepository.findSummariesBefore(eq(user), eq(now.minusDays(1)), eq(2L), any()))
+                .thenReturn(List.of(summary(1L, now.minusDays(2))));
+        CursorPage<ConversationSummaryResponse> next =
+                conversationService.getHistory("+5511999999999", page.getNextCursor(), 2);
+        assertThat(next.getItems()).extracting(ConversationSummaryResponse::getId).containsExactly(1L);
+        assertThat(next.isHasMore()).isFalse();
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("deve paginar as mensagens da conversa da mais recente para a mais antiga")
+    void getMessages_shouldPageFromLatest() {
         // arrange
-        Conversation conversation = Conversation.builder().id(1L).user(user).build();
-        ConversationResponse response = ConversationResponse.builder()
-                .id(1L).userId(1L).userName("Renan").build();
+        Conversation conversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .messageCount(120)
+                .build();
 
         when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
                 .thenReturn(Optional.of(user));
-        when(conversationRepository.findByUserOrderByCreatedAtDesc(user))
-                .thenReturn(List.of(conversation));
-        when(conversationMapper.toResponseList(any()))
-                .thenReturn(List.of(response));
+        when(conversationRepository.findByIdAndUser(1L, user))
+                .thenReturn(Optional.of(conversation));
+        when(conversationMapper.toMessageResponses(any()))
+                .thenReturn(List.of());
 
         // act
-        List<ConversationResponse> history =
-                conversationService.getHistory("+5511999999999");
+        CursorPage<ConversationResponse.MessageResponse> latest =
+                conversationService.getMessages("+5511999999999", 1L, null, 50);
+        CursorPage<ConversationResponse.MessageResponse> oldest =
+                conversationService.getMessages("+5511999999999", 1L, "20", 50);
 
         // assert
-        assertThat(history).hasSize(1);
-        assertThat(history.get(0).getUserName()).isEqualTo("Renan");
+        verify(messageStore).range(conversation, 70, 120);
+        assertThat(latest.getNextCursor()).isEqualTo("70");
+        verify(messageStore).range(conversation, 0, 20);
+        assertThat(oldest.isHasMore()).isFalse();
+        assertThat(oldest.getNextCursor()).isNull();
     }
 
     @Test
@@ -170,4 +237,291 @@ class ConversationServiceImplTest {
         // assert
         assertThat(result).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("deve repassar o stream da IA e salvar a resposta completa ao final")
+    void chatStream_shouldStreamTokensAndSaveFullAnswer() {
+        // arrange
+        Conversation existingConversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .build();
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(conversationRepository.findFirstByUserOrderByCreatedAtDesc(user))
+                .thenReturn(Optional.of(existingConversation));
+        when(fitnessAiPort.chatStream(any(), any()))
+                .thenReturn(Flux.just("Sim, ", "está ", "na meta!"));
+
+        // act & assert
+        StepVerifier.create(conversationService.chatStream(chatRequest))
+                .expectNext("Sim, ", "está ", "na meta!")
+                .verifyComplete();
+
+        assertThat(appendedTurn(existingConversation)).extracting(Conversation.Message::getContent)
+                .containsExactly(chatRequest.getMessage(), "Sim, está na meta!");
+    }
+
+    @Test
+    @DisplayName("deve salvar a resposta completa mesmo quando o cliente desconecta no meio do stream")
+    void chatStream_shouldSaveAnswer_whenClientCancels() {
+        // arrange
+        Conversation existingConversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .build();
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(conversationRepository.findFirstByUserOrderByCreatedAtDesc(user))
+                .thenReturn(Optional.of(existingConversation));
+        when(fitnessAiPort.chatStream(any(), any()))
+                .thenReturn(Flux.just("Sim, ", "está ", "na meta!"));
+
+        // act — o cliente recebe o primeiro trecho e desconecta
+        StepVerifier.create(conversationService.chatStream(chatRequest), 1)
+                .expectNext("Sim, ")
+                .thenCancel()
+                .verify();
+
+        // assert — a gravação roda fora da thread do teste
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Conversation.Message>> captor = ArgumentCaptor.forClass(List.class);
+        verify(messageStore, timeout(1000)).append(eq(existingConversation), captor.capture(), any());
+        assertThat(captor.getValue()).extracting(Conversation.Message::getContent)
+                .containsExactly(chatRequest.getMessage(), "Sim, está na meta!");
+    }
+
+    @Test
+    @DisplayName("deve só acrescentar a rodada, sem regravar a conversa existente")
+    void chat_shouldAppendTurnWithoutRewritingConversation() {
+        // arrange
+        Conversation existingConversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .messageCount(40)
+                .build();
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(conversationRepository.findFirstByUserOrderByCreatedAtDesc(user))
+                .thenReturn(Optional.of(existingConversation));
+        when(fitnessAiPort.chat(any(), any()))
+                .thenReturn("Sim, está na meta!");
+
+        // act
+        ChatResponse response = conversationService.chat(chatRequest);
+
+        // assert
+        assertThat(response.getConversationId()).isEqualTo(1L);
+        assertThat(appendedTurn(existingConversation)).extracting(Conversation.Message::getRole)
+                .containsExactly("user", "assistant");
+        verify(conversationRepository, never()).save(any());
+        verify(conversationSummarizer).requestSummary(existingConversation);
+    }
+
+    @Test
+    @DisplayName("deve registrar o MessageSid do WhatsApp na conversa")
+    void chatAsync_shouldRecordWhatsappMessageId() {
+        // arrange
+        Conversation existingConversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .messageCount(40)
+                .build();
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(conversationRepository.findFirstByUserOrderByCreatedAtDesc(user))
+                .thenReturn(Optional.of(existingConversation));
+        when(fitnessAiPort.chatAsync(any(), any()))
+                .thenReturn(Mono.just("Sim, está na meta!"));
+
+        // act
+        conversationService.chatAsync(chatRequest, List.of("SM1234567890abcdee", "SM1234567890abcdef")).block();
+
+        // assert
+        verify(conversationRepository).updateWhatsappMessageId(1L, "SM1234567890abcdef");
+        assertThat(existingConversation.getWhatsappMessageId()).isEqualTo("SM1234567890abcdef");
+        // A resposta fica marcada com a rajada inteira: nova tentativa de qualquer mensagem não chama a IA
+        verify(messageStore).append(eq(existingConversation), any(),
+                eq(List.of("SM1234567890abcdee", "SM1234567890abcdef")));
+    }
+
+    @Test
+    @DisplayName("deve compor a chamada assíncrona à IA e salvar a resposta")
+    void chatAsync_shouldComposeAiCallAndSaveAnswer() {
+        // arrange
+        Conversation existingConversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .build();
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(conversationRepository.findFirstByUserOrderByCreatedAtDesc(user))
+                .thenReturn(Optional.of(existingConversation));
+        when(fitnessAiPort.chatAsync(any(), any()))
+                .thenReturn(Mono.just("Sim, está na meta!"));
+
+        // act & assert
+        StepVerifier.create(conversationService.chatAsync(chatRequest, List.of()))
+                .assertNext(response -> {
+                    assertThat(response.getConversationId()).isEqualTo(1L);
+                    assertThat(response.getAiResponse()).isEqualTo("Sim, está na meta!");
+                })
+                .verifyComplete();
+
+        assertThat(appendedTurn(existingConversation)).hasSize(2);
+        verify(fitnessAiPort, never()).chat(any(), any());
+    }
+
+    @Test
+    @DisplayName("deve enviar resumo + mensagens recentes fora do resumo como contexto")
+    void chat_shouldSendSummaryAndRecentTail() {
+        // arrange
+        Conversation existingConversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .messageCount(3)
+                .context("Usuário quer perder 5kg.")
+                .summarizedMessageCount(2)
+                .build();
+        // só a cauda fora do resumo é lida
+        when(messageStore.tail(existingConversation, 2, 12))
+                .thenReturn(List.of(message("user", "Almocei frango com arroz")));
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(conversationRepository.findFirstByUserOrderByCreatedAtDesc(user))
+                .thenReturn(Optional.of(existingConversation));
+        when(fitnessAiPort.chat(any(), any()))
+                .thenReturn("Boa escolha!");
+
+        // act
+        conversationService.chat(chatRequest);
+
+        // assert
+        verify(fitnessAiPort).chat(chatRequest.getMessage(),
+                "RESUMO: Usuário quer perder 5kg.\n"
+                        + "USER: Almocei frango com arroz\n"
+                        + "USER: " + chatRequest.getMessage());
+        verify(conversationSummarizer).requestSummary(existingConversation);
+    }
+
+    @Test
+    @DisplayName("deve montar o contexto pela cauda em cache sem ler a conversa")
+    void chat_shouldUseCachedTail_withoutLoadingConversation() {
+        // arrange
+        List<Conversation.Message> cachedMessages = List.of(
+                message("user", "Quero perder 5kg"),
+                message("assistant", "Vamos montar um plano!"),
+                message("user", "Almocei frango com arroz"));
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(
+                1L, "Usuário quer perder 5kg.", 11, 12, cachedMessages);
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(tailCache.get(1L)).thenReturn(Optional.of(tail));
+        when(conversationRepository.findLatestVersion(eq(user), any()))
+                .thenReturn(List.of(new ConversationVersion(1L, 12, 11)));
+        when(fitnessAiPort.chat(any(), any()))
+                .thenReturn("Boa escolha!");
+
+        // act
+        ChatResponse response = conversationService.chat(chatRequest);
+
+        // assert
+        assertThat(response.getConversationId()).isEqualTo(1L);
+        verify(fitnessAiPort).chat(chatRequest.getMessage(),
+                "RESUMO: Usuário quer perder 5kg.\n"
+                        + "USER: Almocei frango com arroz\n"
+                        + "USER: " + chatRequest.getMessage());
+        verify(conversationRepository, never()).findFirstByUserOrderByCreatedAtDesc(any());
+        verify(messageStore, never()).tail(any(), anyInt(), anyInt());
+        verify(tailCache).recordTurn(eq(1L), argThat(c -> c.getId() == 1L), eq(12),
+                eq(List.of(cachedMessages.get(2))), argThat(m -> m.size() == 2));
+    }
+
+    @Test
+    @DisplayName("deve descartar a cauda em cache quando outro nó gravou rodadas na conversa")
+    void chat_shouldReloadConversation_whenCachedTailIsStale() {
+        // arrange — o cache viu 12 mensagens; o banco já tem 14
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(
+                1L, "Usuário quer perder 5kg.", 11, 12, List.of(message("user", "Almocei frango com arroz")));
+        Conversation existingConversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .messageCount(14)
+                .build();
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(tailCache.get(1L)).thenReturn(Optional.of(tail));
+        when(conversationRepository.findLatestVersion(eq(user), any()))
+                .thenReturn(List.of(new ConversationVersion(1L, 14, 11)));
+        when(conversationRepository.findFirstByUserOrderByCreatedAtDesc(user))
+                .thenReturn(Optional.of(existingConversation));
+        when(fitnessAiPort.chat(any(), any()))
+                .thenReturn("Boa escolha!");
+
+        // act
+        conversationService.chat(chatRequest);
+
+        // assert
+        verify(tailCache).invalidate(1L);
+        verify(messageStore).tail(eq(existingConversation), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("deve respeitar o orçamento de tokens do contexto")
+    void chat_shouldKeepContextWithinTokenBudget() {
+        // arrange
+        appProperties.getAi().getContext().setTokenBudget(50);
+        List<Conversation.Message> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(message("assistant", "Resposta longa da IA número " + i + " ".repeat(40)));
+        }
+        Conversation existingConversation = Conversation.builder()
+                .id(1L)
+                .user(user)
+                .messageCount(10)
+                .build();
+        when(messageStore.tail(eq(existingConversation), eq(0), anyInt()))
+                .thenReturn(messages);
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(conversationRepository.findFirstByUserOrderByCreatedAtDesc(user))
+                .thenReturn(Optional.of(existingConversation));
+        when(fitnessAiPort.chat(any(), any()))
+                .thenReturn("Ok");
+
+        // act
+        conversationService.chat(chatRequest);
+
+        // assert
+        verify(fitnessAiPort).chat(eq(chatRequest.getMessage()), argThat(context ->
+                context.length() <= 50 * 4 && context.endsWith(chatRequest.getMessage())));
+    }
+
+    private ConversationSummary summary(Long id, LocalDateTime createdAt) {
+        return new ConversationSummary(id, 2, "Ok", createdAt, createdAt, createdAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Conversation.Message> appendedTurn(Conversation conversation) {
+        ArgumentCaptor<List<Conversation.Message>> captor = ArgumentCaptor.forClass(List.class);
+        verify(messageStore).append(eq(conversation), captor.capture(), any());
+        return captor.getValue();
+    }
+
+    private Conversation.Message message(String role, String content) {
+        return Conversation.Message.builder()
+                .role(role)
+                .content(content)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.mrrenan.myfitnesspartner.application.service;
+
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.cache.ConversationTailCache;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConversationSummarizer")
+class ConversationSummarizerTest {
+
+    @Mock private ConversationRepository conversationRepository;
+    @Mock private ConversationMessageStore messageStore;
+    @Mock private ConversationTailCache tailCache;
+    @Mock private FitnessAiPort fitnessAiPort;
+
+    private ConversationSummarizer summarizer;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAi().getContext().setRecentMessages(2);
+        appProperties.getAi().getContext().setSummarizeBatchSize(2);
+
+        // Executor síncrono para o teste
+        summarizer = new ConversationSummarizer(
+                conversationRepository, messageStore, tailCache, fitnessAiPort, appProperties, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("deve resumir as mensagens antigas mantendo as recentes fora do resumo")
+    void requestSummary_shouldFoldOlderMessages() {
+        // arrange
+        Conversation conversation = conversationWith(5);
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+        when(messageStore.range(conversation, 0, 3)).thenReturn(messages(3));
+        when(fitnessAiPort.summarize(null, "USER: mensagem 0\nASSISTANT: mensagem 1\nUSER: mensagem 2"))
+                .thenReturn("Resumo novo");
+        when(conversationRepository.updateSummary(1L, "Resumo novo", 3, 0)).thenReturn(1);
+
+        // act
+        summarizer.requestSummary(conversation);
+
+        // assert
+        verify(conversationRepository).updateSummary(1L, "Resumo novo", 3, 0);
+    }
+
+    @Test
+    @DisplayName("não deve chamar a IA quando há poucas mensagens fora do resumo")
+    void requestSummary_shouldSkip_whenNotEnoughMessages() {
+        // arrange
+        Conversation conversation = conversationWith(3);
+
+        // act
+        summarizer.requestSummary(conversation);
+
+        // assert
+        verifyNoInteractions(fitnessAiPort);
+        verifyNoInteractions(messageStore);
+        verify(conversationRepository, never()).updateSummary(anyLong(), any(), anyInt(), anyInt());
+    }
+
+    private Conversation conversationWith(int count) {
+        return Conversation.builder()
+                .id(1L)
+                .messageCount(count)
+                .build();
+    }
+
+    private List<Conversation.Message> messages(int count) {
+        List<Conversation.Message> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(Conversation.Message.builder()
+                    .role(i % 2 == 0 ? "user" : "assistant")
+                    .content("mensagem " + i)
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+        return messages;
+    }
+}
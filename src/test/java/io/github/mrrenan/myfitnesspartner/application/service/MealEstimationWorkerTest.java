@@ -0,0 +1,149 @@
+package io.github.mrrenan.myfitnesspartner.application.service;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.github.mrrenan.myfitnesspartner.domain.model.Meal;
+import io.github.mrrenan.myfitnesspartner.domain.model.MealStatus;
+import io.github.mrrenan.myfitnesspartner.domain.model.MealType;
+import io.github.mrrenan.myfitnesspartner.domain.model.User;
+import io.github.mrrenan.myfitnesspartner.domain.repository.MealRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Bulkheads;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MealEstimationWorker")
+class MealEstimationWorkerTest {
+
+    @Mock private MealRepository mealRepository;
+    @Mock private DailyGoalService dailyGoalService;
+    @Mock private FitnessAiPort fitnessAiPort;
+
+    private MealEstimationWorker worker;
+    private Meal meal;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getFitness().getEstimation().setMaxAttempts(3);
+        TimedTransactions transactions = new TimedTransactions(
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                new Bulkheads(appProperties, new SimpleMeterRegistry()));
+
+        // Executor síncrono para o teste
+        worker = new MealEstimationWorker(mealRepository, dailyGoalService, fitnessAiPort, transactions,
+                Runnable::run, appProperties);
+
+        meal = Meal.builder()
+                .id(7L)
+                .user(User.builder().id(1L).whatsappNumber("+5511999999999").build())
+                .description("Frango grelhado com arroz")
+                .mealType(MealType.LUNCH)
+                .status(MealStatus.PENDING_ESTIMATE)
+                .mealDate(LocalDateTime.of(2026, 3, 9, 23, 50))
+                .build();
+    }
+
+    @Test
+    @DisplayName("deve preencher calorias e macros e somar a diferença na meta do dia da refeição")
+    void requestEstimate_shouldCompleteMealAndApplyDelta() {
+        // arrange
+        CalorieEstimate estimate = CalorieEstimate.builder()
+                .calories(450)
+                .protein(35.0)
+                .carbohydrates(40.0)
+                .fat(10.0)
+                .explanation("Frango com arroz")
+                .confidence(0.9)
+                .build();
+        claimSucceeds();
+        when(fitnessAiPort.analyzeFoodAsync("Frango grelhado com arroz"))
+                .thenReturn(CompletableFuture.completedFuture(estimate));
+        when(mealRepository.transitionStatus(7L, MealStatus.PENDING_ESTIMATE, MealStatus.ESTIMATED)).thenReturn(1);
+        when(mealRepository.findById(7L)).thenReturn(Optional.of(meal));
+
+        // act
+        worker.requestEstimate(meal);
+
+        // assert
+        assertThat(meal.getStatus()).isEqualTo(MealStatus.ESTIMATED);
+        assertThat(meal.getCalories()).isEqualTo(450);
+        assertThat(meal.getProtein()).isEqualTo(35.0);
+        verify(dailyGoalService).addCaloriesToDate("+5511999999999", LocalDate.of(2026, 3, 9), 450);
+    }
+
+    @Test
+    @DisplayName("não deve somar na meta quando outra conclusão já tirou a refeição de pendente")
+    void complete_shouldNotApplyDeltaTwice() {
+        // arrange — outra conclusão ganhou a transição
+        when(mealRepository.transitionStatus(7L, MealStatus.PENDING_ESTIMATE, MealStatus.ESTIMATED)).thenReturn(0);
+
+        // act
+        worker.complete(7L, CalorieEstimate.builder().calories(450).build());
+
+        // assert
+        verify(mealRepository, never()).findById(any());
+        verifyNoInteractions(dailyGoalService);
+    }
+
+    @Test
+    @DisplayName("não deve chamar a IA quando outro nó já reivindicou a refeição")
+    void requestEstimate_shouldSkip_whenAlreadyClaimed() {
+        // arrange
+        when(mealRepository.claimEstimate(eq(7L), any(), any(), eq(MealStatus.PENDING_ESTIMATE))).thenReturn(0);
+
+        // act
+        worker.requestEstimate(meal);
+
+        // assert
+        verifyNoInteractions(fitnessAiPort);
+    }
+
+    @Test
+    @DisplayName("deve reagendar com backoff quando a IA falha e marcar falha só após o máximo de tentativas")
+    void requestEstimate_shouldRetry_thenMarkFailed() {
+        // arrange
+        claimSucceeds();
+        when(fitnessAiPort.analyzeFoodAsync(anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("IA indisponível")));
+
+        // act
+        worker.requestEstimate(meal);
+
+        // assert — falha temporária: continua pendente, com nova tentativa agendada
+        verify(mealRepository).rescheduleEstimate(eq(7L), eq(1), any(LocalDateTime.class),
+                eq(MealStatus.PENDING_ESTIMATE));
+        verify(mealRepository, never()).transitionStatus(anyLong(), any(), eq(MealStatus.ESTIMATE_FAILED));
+
+        // act — última tentativa
+        worker.fail(7L, 3, new RuntimeException("IA indisponível"));
+
+        // assert
+        verify(mealRepository).transitionStatus(7L, MealStatus.PENDING_ESTIMATE, MealStatus.ESTIMATE_FAILED);
+        verify(dailyGoalService, never()).addCaloriesToDate(anyString(), any(), anyInt());
+    }
+
+    private void claimSucceeds() {
+        when(mealRepository.claimEstimate(eq(7L), any(), any(), eq(MealStatus.PENDING_ESTIMATE))).thenReturn(1);
+    }
+}
@@ -7,19 +7,29 @@ import io.github.mrrenan.myfitnesspartner.domain.exception.UserNotFoundException
 import io.github.mrrenan.myfitnesspartner.domain.model.*;
 import io.github.mrrenan.myfitnesspartner.domain.repository.MealRepository;
 import io.github.mrrenan.myfitnesspartner.domain.repository.UserRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Bulkheads;
 import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealFromDescriptionRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealRequest;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.CreateMealsFromDescriptionsRequest;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.MealResponse;
 import io.github.mrrenan.myfitnesspartner.presentation.mapper.MealMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -42,6 +52,10 @@ class MealServiceImplTest {
     @Mock private MealMapper mealMapper;
     @Mock private AppProperties appProperties;
     @Mock private AppProperties.Fitness fitnessProperties;
+    @Mock private MealEstimationWorker mealEstimationWorker;
+    @Spy private TimedTransactions transactions = new TimedTransactions(
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+            new Bulkheads(new AppProperties(), new SimpleMeterRegistry()));
 
     @InjectMocks
     private MealServiceImpl mealService;
@@ -116,6 +130,35 @@ class MealServiceImplTest {
         verify(dailyGoalService).addCaloriesToToday("+5511999999999", 350);
     }
 
+    @Test
+    @DisplayName("deve aceitar a refeição como pendente sem chamar a IA")
+    void registerMealFromDescriptionAsync_shouldSavePendingMealWithoutCallingAi() {
+        // arrange
+        CreateMealFromDescriptionRequest request = CreateMealFromDescriptionRequest.builder()
+                .whatsappNumber("+5511999999999")
+                .description("Frango grelhado com arroz")
+                .mealType(MealType.LUNCH)
+                .build();
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(mealRepository.countMealsByUserAndDate(any(), any(), any()))
+                .thenReturn(3L);
+        when(mealRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mealMapper.toResponse(any())).thenReturn(mealResponse);
+
+        // act
+        mealService.registerMealFromDescriptionAsync(request);
+
+        // assert
+        ArgumentCaptor<Meal> saved = ArgumentCaptor.forClass(Meal.class);
+        verify(mealRepository).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(MealStatus.PENDING_ESTIMATE);
+        assertThat(saved.getValue().getCalories()).isNull();
+        verify(mealEstimationWorker).requestEstimate(saved.getValue());
+        verifyNoInteractions(fitnessAiPort, dailyGoalService);
+    }
+
     @Test
     @DisplayName("deve lançar exceção quando calorias não informadas")
     void registerMeal_shouldThrowException_whenCaloriesNotProvided() {
@@ -230,4 +273,100 @@ class MealServiceImplTest {
         assertThat(meals).hasSize(1);
         assertThat(meals.get(0).getDescription()).isEqualTo("Frango grelhado");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("deve registrar várias refeições com uma única chamada à IA")
+    void registerMealsFromDescriptions_shouldUseSingleAiCall() {
+        // arrange
+        CreateMealsFromDescriptionsRequest request = CreateMealsFromDescriptionsRequest.builder()
+                .whatsappNumber("+5511999999999")
+                .meals(List.of(
+                        new CreateMealsFromDescriptionsRequest.MealDescription(
+                                "2 ovos mexidos com pão", MealType.BREAKFAST, null),
+                        new CreateMealsFromDescriptionsRequest.MealDescription(
+                                "200g frango grelhado com arroz", MealType.LUNCH, null)))
+                .build();
+
+        when(fitnessAiPort.analyzeFoods(List.of("2 ovos mexidos com pão", "200g frango grelhado com arroz")))
+                .thenReturn(List.of(
+                        CalorieEstimate.builder().calories(300).explanation("Ovos e pão").confidence(0.8).build(),
+                        CalorieEstimate.builder().calories(450).explanation("Frango e arroz").confidence(0.9).build()));
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(mealRepository.countMealsByUserAndDate(any(), any(), any()))
+                .thenReturn(3L);
+        when(mealMapper.toEntity(any(), any())).thenReturn(meal);
+        when(mealRepository.saveAll(any())).thenReturn(List.of(meal, meal));
+        when(mealMapper.toResponse(any())).thenReturn(mealResponse);
+
+        // act
+        List<MealResponse> responses = mealService.registerMealsFromDescriptions(request);
+
+        // assert
+        assertThat(responses).hasSize(2);
+        verify(fitnessAiPort, never()).analyzeFood(anyString());
+        verify(dailyGoalService).addCaloriesToToday("+5511999999999", 750);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar o lote sem chamar a IA quando excede o limite diário")
+    void registerMealsFromDescriptions_shouldThrow_whenBatchExceedsDailyLimit() {
+        // arrange
+        CreateMealsFromDescriptionsRequest request = CreateMealsFromDescriptionsRequest.builder()
+                .whatsappNumber("+5511999999999")
+                .meals(List.of(
+                        new CreateMealsFromDescriptionsRequest.MealDescription(
+                                "1 banana prata", MealType.SNACK, null),
+                        new CreateMealsFromDescriptionsRequest.MealDescription(
+                                "1 iogurte natural", MealType.SNACK, null)))
+                .build();
+
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999"))
+                .thenReturn(Optional.of(user));
+        when(mealRepository.countMealsByUserAndDate(any(), any(), any()))
+                .thenReturn(9L);
+
+        // act & assert
+        assertThatThrownBy(() -> mealService.registerMealsFromDescriptions(request))
+                .isInstanceOf(DailyLimitExceededException.class);
+        verifyNoInteractions(fitnessAiPort);
+        verify(mealRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("deve encontrar a estimativa concluída em outro nó relendo a refeição")
+    void watchMeal_shouldPollStatus_whenCompletedOnAnotherNode() {
+        // arrange — nenhuma conclusão chega por este nó
+        MealResponse pending = MealResponse.builder().id(1L).status(MealStatus.PENDING_ESTIMATE).build();
+        MealResponse estimated = MealResponse.builder().id(1L).status(MealStatus.ESTIMATED).calories(450).build();
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999")).thenReturn(Optional.of(user));
+        when(mealRepository.findById(1L)).thenReturn(Optional.of(meal));
+        when(mealMapper.toResponse(meal)).thenReturn(pending, estimated);
+        when(mealEstimationWorker.completions()).thenReturn(Flux.never());
+
+        // act & assert
+        StepVerifier.withVirtualTime(() -> mealService.watchMeal(1L, "+5511999999999"))
+                .expectNext(pending)
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext(estimated)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("deve terminar com o estado atual, sem erro, quando a estimativa não conclui no prazo")
+    void watchMeal_shouldCompleteWithCurrentState_onTimeout() {
+        // arrange
+        MealResponse pending = MealResponse.builder().id(1L).status(MealStatus.PENDING_ESTIMATE).build();
+        when(userRepository.findByWhatsappNumberAndIsActiveTrue("+5511999999999")).thenReturn(Optional.of(user));
+        when(mealRepository.findById(1L)).thenReturn(Optional.of(meal));
+        when(mealMapper.toResponse(meal)).thenReturn(pending);
+        when(mealEstimationWorker.completions()).thenReturn(Flux.never());
+
+        // act & assert
+        StepVerifier.withVirtualTime(() -> mealService.watchMeal(1L, "+5511999999999"))
+                .expectNext(pending)
+                .thenAwait(Duration.ofMinutes(2))
+                .expectNext(pending)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AdaptiveConcurrencyLimiter")
+class AdaptiveConcurrencyLimiterTest {
+
+    private AppProperties appProperties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        AppProperties.Limiter limiter = appProperties.getAi().getLimiter();
+        limiter.setInitialLimit(2);
+        limiter.setMinLimit(1);
+        limiter.setMaxLimit(4);
+        limiter.setBackoffRatio(0.5);
+        limiter.setMaxQueueSize(0);
+        limiter.setMaxWait(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("deve rejeitar na hora quando o limite e a fila estão cheios")
+    void acquire_shouldRejectWhenLimitReached() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+        limiter.acquire();
+        limiter.acquire();
+
+        // act & assert
+        assertThatThrownBy(limiter::acquire)
+                .isInstanceOf(AiCapacityExceededException.class);
+        assertThat(meterRegistry.counter("ai.limiter.rejected").count()).isEqualTo(1.0);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar quem espera na fila além do tempo máximo")
+    void acquire_shouldRejectAfterMaxWait() {
+        // arrange
+        appProperties.getAi().getLimiter().setMaxQueueSize(1);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+        limiter.acquire();
+        limiter.acquire();
+
+        // act & assert
+        assertThatThrownBy(limiter::acquire)
+                .isInstanceOf(AiCapacityExceededException.class);
+        assertThat(limiter.getWaiting()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve entregar o slot liberado para quem espera de forma assíncrona")
+    void acquireAsync_shouldCompleteWhenSlotIsReleased() {
+        // arrange
+        appProperties.getAi().getLimiter().setMaxQueueSize(1);
+        appProperties.getAi().getLimiter().setMaxWait(Duration.ofSeconds(5));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        limiter.acquire();
+
+        // act
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiter = limiter.acquireAsync();
+        assertThat(waiter).isNotDone();
+        assertThat(limiter.getWaiting()).isEqualTo(1);
+        first.release(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+
+        // assert
+        assertThat(waiter).isCompleted();
+        assertThat(limiter.getWaiting()).isZero();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("deve falhar o futuro quando a espera assíncrona passa do tempo máximo")
+    void acquireAsync_shouldFailAfterMaxWait() {
+        // arrange
+        appProperties.getAi().getLimiter().setMaxQueueSize(1);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+        limiter.acquire();
+        limiter.acquire();
+
+        // act
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiter = limiter.acquireAsync();
+
+        // assert
+        assertThatThrownBy(waiter::join)
+                .hasCauseInstanceOf(AiCapacityExceededException.class);
+        assertThat(limiter.getWaiting()).isZero();
+        assertThat(meterRegistry.counter("ai.limiter.rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("deve aumentar o limite após sucessos com o limite em uso")
+    void release_shouldIncreaseLimitOnSuccess() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.acquire();
+
+        // act
+        first.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        second.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+
+        // assert
+        assertThat(limiter.getLimit()).isEqualTo(3.0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve reduzir o limite multiplicativamente quando a chamada falha")
+    void execute_shouldDecreaseLimitOnFailure() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+
+        // act
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new IllegalStateException("timeout do provedor");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // assert
+        assertThat(limiter.getLimit()).isEqualTo(1.0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve reduzir o limite quando a chamada passa do limiar de latência")
+    void execute_shouldDecreaseLimitWhenSlow() {
+        // arrange
+        appProperties.getAi().getLimiter().setLatencyThreshold(Duration.ZERO);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+
+        // act
+        String result = limiter.execute(() -> "ok");
+
+        // assert
+        assertThat(result).isEqualTo("ok");
+        assertThat(limiter.getLimit()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("não deve limitar quando desabilitado")
+    void execute_shouldPassThroughWhenDisabled() {
+        // arrange
+        appProperties.getAi().getLimiter().setEnabled(false);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+        limiter.acquire();
+        limiter.acquire();
+
+        // act
+        String result = limiter.execute(() -> "ok");
+
+        // assert
+        assertThat(result).isEqualTo("ok");
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingFitnessAiPort")
+class CachingFitnessAiPortTest {
+
+    @Mock private FitnessAiPort delegate;
+    @Mock private FoodEstimateCache cache;
+
+    private CachingFitnessAiPort cachingPort;
+    private CalorieEstimate estimate;
+
+    @BeforeEach
+    void setUp() {
+        cachingPort = new CachingFitnessAiPort(delegate, cache);
+        estimate = CalorieEstimate.builder()
+                .calories(450)
+                .protein(35.0)
+                .carbohydrates(50.0)
+                .fat(10.0)
+                .explanation("Arroz, feijão e frango")
+                .confidence(0.85)
+                .build();
+    }
+
+    @Test
+    @DisplayName("deve retornar estimativa do cache sem chamar a IA")
+    void analyzeFood_shouldReturnCachedEstimate() {
+        // arrange
+        when(cache.get("arroz|feijao|frango grelhado")).thenReturn(Optional.of(estimate));
+
+        // act
+        CalorieEstimate result = cachingPort.analyzeFood("Arroz, feijão e frango grelhado");
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(450);
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("deve chamar a IA e gravar no cache quando não encontrado")
+    void analyzeFood_shouldCallDelegateAndStore_whenCacheMiss() {
+        // arrange
+        when(cache.get(anyString())).thenReturn(Optional.empty());
+        when(delegate.analyzeFood("frango grelhado com arroz")).thenReturn(estimate);
+
+        // act
+        CalorieEstimate result = cachingPort.analyzeFood("frango grelhado com arroz");
+
+        // assert
+        assertThat(result).isSameAs(estimate);
+        verify(cache).put("arroz|frango grelhado", estimate);
+    }
+
+    @Test
+    @DisplayName("deve repassar o chat direto para a IA")
+    void chat_shouldDelegate() {
+        // arrange
+        when(delegate.chat("Oi", null)).thenReturn("Olá!");
+
+        // act
+        String response = cachingPort.chat("Oi", null);
+
+        // assert
+        assertThat(response).isEqualTo("Olá!");
+        verify(cache, never()).get(any());
+    }
+
+    @Test
+    @DisplayName("deve enviar para a IA só as refeições do lote fora do cache")
+    void analyzeFoods_shouldSendOnlyMissesToDelegate() {
+        // arrange
+        CalorieEstimate banana = CalorieEstimate.builder().calories(90).confidence(0.9).build();
+        when(cache.get("arroz|feijao|frango grelhado")).thenReturn(Optional.of(estimate));
+        when(cache.get("1 banana")).thenReturn(Optional.empty());
+        when(delegate.analyzeFoods(List.of("1 banana"))).thenReturn(List.of(banana));
+
+        // act
+        List<CalorieEstimate> result = cachingPort.analyzeFoods(
+                List.of("Arroz, feijão e frango grelhado", "1 banana"));
+
+        // assert
+        assertThat(result).containsExactly(estimate, banana);
+        verify(cache).put("1 banana", banana);
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CalorieEstimateParser")
+class CalorieEstimateParserTest {
+
+    private final CalorieEstimateParser parser = new CalorieEstimateParser(new ObjectMapper());
+
+    @Test
+    @DisplayName("deve ignorar texto e markdown antes do JSON")
+    void parse_shouldSkipLeadingProseAndFences() {
+        // arrange
+        String response = """
+                Claro! Aqui está a análise:
+                ```json
+                {"calories": 350, "protein": 28.5, "carbohydrates": 30.0, "fat": 12.0,
+                 "explanation": "Frango grelhado", "confidence": 0.9}
+                ```
+                Qualquer dúvida, é só chamar.
+                """;
+
+        // act
+        CalorieEstimate result = parser.parse(response);
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(350);
+        assertThat(result.getProtein()).isEqualTo(28.5);
+        assertThat(result.getExplanation()).isEqualTo("Frango grelhado");
+        assertThat(result.getConfidence()).isEqualTo(0.9);
+    }
+
+    @Test
+    @DisplayName("deve aceitar números em texto, ignorar campos extras e usar confiança padrão")
+    void parse_shouldBeLenientWithFieldTypes() {
+        // arrange
+        String response = """
+                {"calories": "420", "items": [{"name": "arroz"}], "fat": 9, "confidence": null}
+                """;
+
+        // act
+        CalorieEstimate result = parser.parse(response);
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(420);
+        assertThat(result.getFat()).isEqualTo(9.0);
+        assertThat(result.getProtein()).isEqualTo(0.0);
+        assertThat(result.getConfidence()).isEqualTo(0.8);
+    }
+
+    @Test
+    @DisplayName("deve cair no scanner de texto quando o JSON está truncado")
+    void parse_shouldFallbackOnTruncatedJson() {
+        // act
+        CalorieEstimate result = parser.parse("{\"calories\": 510, \"protein\": 3");
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(510);
+        assertThat(result.getConfidence()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("deve lançar exceção quando não há JSON nem número plausível")
+    void parse_shouldThrow_whenNothingUsable() {
+        assertThatThrownBy(() -> parser.parse("Não consegui identificar a refeição."))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Não foi possível extrair");
+    }
+
+    @Test
+    @DisplayName("o scanner deve ignorar números fora da faixa e pontuação dentro da palavra")
+    void scanCalories_shouldFindFirstPlausibleNumber() {
+        assertThat(CalorieEstimateParser.scanCalories("2 pratos, 99999999999 kcal? não: 1.200kcal")).isEqualTo(1200);
+        assertThat(CalorieEstimateParser.scanCalories("só 30 e 5000")).isNull();
+    }
+
+    @Test
+    @DisplayName("deve ler o array em lote mantendo as posições pelo index")
+    void parseArray_shouldPlaceEstimatesByIndex() {
+        // arrange
+        String response = """
+                ```json
+                [{"index": 2, "calories": 450}, {"index": 1, "calories": 300}]
+                ```
+                """;
+
+        // act
+        CalorieEstimate[] result = parser.parseArray(response, 2);
+
+        // assert
+        assertThat(result[0].getCalories()).isEqualTo(300);
+        assertThat(result[1].getCalories()).isEqualTo(450);
+    }
+
+    @Test
+    @DisplayName("deve manter as estimativas lidas antes de um array truncado")
+    void parseArray_shouldKeepEntriesBeforeTruncation() {
+        // act
+        CalorieEstimate[] result = parser.parseArray("[{\"calories\": 450}, {\"calories\":", 2);
+
+        // assert
+        assertThat(result[0].getCalories()).isEqualTo(450);
+        assertThat(result[1]).isNull();
+    }
+}
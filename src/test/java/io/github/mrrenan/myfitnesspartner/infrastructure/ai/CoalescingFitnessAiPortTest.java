@@ -0,0 +1,173 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CoalescingFitnessAiPort")
+class CoalescingFitnessAiPortTest {
+
+    @Mock private FitnessAiPort delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescingFitnessAiPort coalescingPort;
+    private ExecutorService executor;
+    private CalorieEstimate estimate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescingPort = new CoalescingFitnessAiPort(delegate, Duration.ofSeconds(5), meterRegistry);
+        executor = Executors.newFixedThreadPool(4);
+        estimate = CalorieEstimate.builder()
+                .calories(450)
+                .explanation("Arroz, feijão e frango")
+                .confidence(0.85)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("deve fazer uma única chamada para descrições equivalentes simultâneas")
+    void analyzeFood_shouldShareInFlightCall() throws Exception {
+        // arrange
+        CountDownLatch aiCalled = new CountDownLatch(1);
+        CompletableFuture<Void> releaseAi = new CompletableFuture<>();
+        when(delegate.analyzeFood(anyString())).thenAnswer(invocation -> {
+            aiCalled.countDown();
+            releaseAi.get(5, TimeUnit.SECONDS);
+            return estimate;
+        });
+
+        // act
+        Future<CalorieEstimate> first = executor.submit(() -> coalescingPort.analyzeFood("Arroz, feijão e frango"));
+        assertThat(aiCalled.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<CalorieEstimate> second = executor.submit(() -> coalescingPort.analyzeFood("frango, arroz e feijão"));
+        waitForCoalescedCount(1);
+        releaseAi.complete(null);
+
+        // assert
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(estimate);
+        // CalorieEstimate é mutável: quem aguardava recebe uma cópia
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(estimate).isNotSameAs(estimate);
+        verify(delegate, times(1)).analyzeFood(anyString());
+        assertThat(meterRegistry.counter("ai.coalescing", "result", "coalesced").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("deve propagar a falha da chamada original para quem aguardava")
+    void analyzeFood_shouldPropagateFailureToWaiters() throws Exception {
+        // arrange
+        CountDownLatch aiCalled = new CountDownLatch(1);
+        CompletableFuture<Void> releaseAi = new CompletableFuture<>();
+        when(delegate.analyzeFood(anyString())).thenAnswer(invocation -> {
+            aiCalled.countDown();
+            releaseAi.get(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("IA indisponível");
+        });
+
+        // act
+        Future<CalorieEstimate> first = executor.submit(() -> coalescingPort.analyzeFood("2 ovos"));
+        assertThat(aiCalled.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<CalorieEstimate> second = executor.submit(() -> coalescingPort.analyzeFood("2 ovos"));
+        waitForCoalescedCount(1);
+        releaseAi.complete(null);
+
+        // assert
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("IA indisponível");
+    }
+
+    @Test
+    @DisplayName("deve lançar AiTimeoutException quando a espera estoura o limite")
+    void analyzeFood_shouldTimeoutWaiter() throws Exception {
+        // arrange
+        coalescingPort = new CoalescingFitnessAiPort(delegate, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch aiCalled = new CountDownLatch(1);
+        CompletableFuture<Void> releaseAi = new CompletableFuture<>();
+        when(delegate.analyzeFood(anyString())).thenAnswer(invocation -> {
+            aiCalled.countDown();
+            releaseAi.get(5, TimeUnit.SECONDS);
+            return estimate;
+        });
+        Future<CalorieEstimate> first = executor.submit(() -> coalescingPort.analyzeFood("1 banana"));
+        assertThat(aiCalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // act & assert
+        assertThatThrownBy(() -> coalescingPort.analyzeFood("1 banana"))
+                .isInstanceOf(AiTimeoutException.class);
+
+        releaseAi.complete(null);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(estimate);
+    }
+
+    @Test
+    @DisplayName("deve chamar a IA de novo depois que a chamada anterior terminou")
+    void analyzeFood_shouldNotReuseCompletedCall() {
+        // arrange
+        when(delegate.analyzeFood(anyString())).thenReturn(estimate);
+
+        // act
+        coalescingPort.analyzeFood("1 banana");
+        coalescingPort.analyzeFood("1 banana");
+
+        // assert
+        verify(delegate, times(2)).analyzeFood("1 banana");
+    }
+
+    private void waitForCoalescedCount(double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("ai.coalescing", "result", "coalesced").count() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("deve compartilhar a chamada assíncrona em andamento sem bloquear")
+    void analyzeFoodAsync_shouldShareInFlightFuture() {
+        // arrange
+        CompletableFuture<CalorieEstimate> aiResult = new CompletableFuture<>();
+        when(delegate.analyzeFoodAsync(anyString())).thenReturn(aiResult);
+
+        // act
+        CompletableFuture<CalorieEstimate> first = coalescingPort.analyzeFoodAsync("Arroz, feijão e frango");
+        CompletableFuture<CalorieEstimate> second = coalescingPort.analyzeFoodAsync("frango, arroz e feijão");
+        assertThat(second).isNotDone();
+        aiResult.complete(estimate);
+
+        // assert
+        assertThat(first.join()).isSameAs(estimate);
+        assertThat(second.join()).isEqualTo(estimate).isNotSameAs(estimate);
+        verify(delegate, times(1)).analyzeFoodAsync(anyString());
+        assertThat(meterRegistry.counter("ai.coalescing", "result", "coalesced").count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MealDescriptionNormalizer")
+class MealDescriptionNormalizerTest {
+
+    @Test
+    @DisplayName("deve gerar a mesma chave independente de ordem, acentos e caixa")
+    void normalize_shouldIgnoreOrderAccentsAndCase() {
+        String a = MealDescriptionNormalizer.normalize("Arroz, feijão e frango grelhado");
+        String b = MealDescriptionNormalizer.normalize("frango grelhado com FEIJAO e arroz");
+
+        assertThat(a).isEqualTo(b);
+    }
+
+    @Test
+    @DisplayName("deve reduzir plurais para o singular")
+    void normalize_shouldSingularizePlurals() {
+        assertThat(MealDescriptionNormalizer.normalize("2 ovos e pães"))
+                .isEqualTo(MealDescriptionNormalizer.normalize("pão e 2 ovo"));
+        assertThat(MealDescriptionNormalizer.singularize("pasteis")).isEqualTo("pastel");
+        assertThat(MealDescriptionNormalizer.singularize("colheres")).isEqualTo("colher");
+        assertThat(MealDescriptionNormalizer.singularize("arroz")).isEqualTo("arroz");
+    }
+
+    @Test
+    @DisplayName("deve normalizar quantidades e unidades")
+    void normalize_shouldNormalizeQuantities() {
+        assertThat(MealDescriptionNormalizer.normalize("100 gramas de arroz"))
+                .isEqualTo(MealDescriptionNormalizer.normalize("100g arroz"));
+        assertThat(MealDescriptionNormalizer.normalize("0,2kg de frango"))
+                .isEqualTo(MealDescriptionNormalizer.normalize("200g de frango"));
+        assertThat(MealDescriptionNormalizer.normalize("dois ovos"))
+                .isEqualTo(MealDescriptionNormalizer.normalize("2 ovos"));
+    }
+
+    @Test
+    @DisplayName("deve separar itens com quantidade, unidade e palavras")
+    void parseItems_shouldExtractQuantityUnitAndWords() {
+        List<MealDescriptionNormalizer.Item> items =
+                MealDescriptionNormalizer.parseItems("Comi 150g de arroz integral e 2 ovos");
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getQuantity()).isEqualTo(150.0);
+        assertThat(items.get(0).getUnit()).isEqualTo("g");
+        assertThat(items.get(0).getWords()).containsExactly("arroz", "integral");
+        assertThat(items.get(1).getQuantity()).isEqualTo(2.0);
+        assertThat(items.get(1).getUnit()).isNull();
+        assertThat(items.get(1).getWords()).containsExactly("ovo");
+    }
+
+    @Test
+    @DisplayName("deve retornar chave vazia para descrição vazia")
+    void normalize_shouldReturnEmpty_whenBlank() {
+        assertThat(MealDescriptionNormalizer.normalize("  ")).isEmpty();
+        assertThat(MealDescriptionNormalizer.normalize(null)).isEmpty();
+    }
+}
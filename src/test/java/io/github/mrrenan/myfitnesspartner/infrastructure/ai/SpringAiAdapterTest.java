@@ -2,6 +2,9 @@ package io.github.mrrenan.myfitnesspartner.infrastructure.ai;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.ArgumentCaptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,10 +12,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.ai.chat.client.ChatClient.*;
 
@@ -24,9 +39,12 @@ class SpringAiAdapterTest {
     @Mock private ChatClient chatClient;
     @Mock private ChatClientRequestSpec requestSpec;
     @Mock private CallResponseSpec callResponseSpec;
+    @Mock private StreamResponseSpec streamResponseSpec;
 
     private SpringAiAdapter springAiAdapter;
     private ObjectMapper objectMapper;
+    private AppProperties appProperties;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -38,7 +56,14 @@ class SpringAiAdapterTest {
         when(chatClientBuilder.build())
                 .thenReturn(chatClient);
 
-        springAiAdapter = new SpringAiAdapter(chatClientBuilder, objectMapper);
+        appProperties = new AppProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(appProperties, meterRegistry);
+        springAiAdapter = new SpringAiAdapter(chatClientBuilder, objectMapper, limiter, appProperties, meterRegistry);
+    }
+
+    private static ChatResponse responseOf(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
     }
 
     @Test
@@ -57,9 +82,10 @@ class SpringAiAdapterTest {
                 """;
 
         when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
         when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
         when(requestSpec.call()).thenReturn(callResponseSpec);
-        when(callResponseSpec.content()).thenReturn(aiJsonResponse);
+        when(callResponseSpec.chatResponse()).thenReturn(responseOf(aiJsonResponse));
 
         // act
         CalorieEstimate result = springAiAdapter.analyzeFood("200g frango grelhado com arroz");
@@ -91,9 +117,10 @@ class SpringAiAdapterTest {
                 """;
 
         when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
         when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
         when(requestSpec.call()).thenReturn(callResponseSpec);
-        when(callResponseSpec.content()).thenReturn(aiResponseWithMarkdown);
+        when(callResponseSpec.chatResponse()).thenReturn(responseOf(aiResponseWithMarkdown));
 
         // act
         CalorieEstimate result = springAiAdapter.analyzeFood("pão com ovo");
@@ -110,9 +137,10 @@ class SpringAiAdapterTest {
         String invalidJson = "Essa refeição tem aproximadamente 450 calorias no total.";
 
         when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
         when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
         when(requestSpec.call()).thenReturn(callResponseSpec);
-        when(callResponseSpec.content()).thenReturn(invalidJson);
+        when(callResponseSpec.chatResponse()).thenReturn(responseOf(invalidJson));
 
         // act
         CalorieEstimate result = springAiAdapter.analyzeFood("refeição qualquer");
@@ -130,9 +158,10 @@ class SpringAiAdapterTest {
         String noNumbersResponse = "Não consegui analisar essa refeição.";
 
         when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
         when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
         when(requestSpec.call()).thenReturn(callResponseSpec);
-        when(callResponseSpec.content()).thenReturn(noNumbersResponse);
+        when(callResponseSpec.chatResponse()).thenReturn(responseOf(noNumbersResponse));
 
         // act & assert
         assertThatThrownBy(() -> springAiAdapter.analyzeFood("refeição inválida"))
@@ -145,9 +174,10 @@ class SpringAiAdapterTest {
     void chat_shouldReturnAiResponse() {
         // arrange
         when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
         when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
         when(requestSpec.call()).thenReturn(callResponseSpec);
-        when(callResponseSpec.content()).thenReturn("Sua dieta está ótima!");
+        when(callResponseSpec.chatResponse()).thenReturn(responseOf("Sua dieta está ótima!"));
 
         // act
         String response = springAiAdapter.chat("Como está minha dieta?", null);
@@ -155,4 +185,153 @@ class SpringAiAdapterTest {
         // assert
         assertThat(response).isEqualTo("Sua dieta está ótima!");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("deve repassar os trechos do stream do chat")
+    void chatStream_shouldReturnStreamedContent() {
+        // arrange
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
+        when(requestSpec.stream()).thenReturn(streamResponseSpec);
+        when(streamResponseSpec.content()).thenReturn(Flux.just("Sua ", "dieta ", "está ótima!"));
+
+        // act & assert
+        StepVerifier.create(springAiAdapter.chatStream("Como está minha dieta?", "USER: oi"))
+                .expectNext("Sua ", "dieta ", "está ótima!")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("deve analisar várias refeições em uma única chamada")
+    void analyzeFoods_shouldParseArrayFromSingleCall() {
+        // arrange
+        String aiJsonResponse = """
+                [
+                  {"index": 2, "calories": 450, "protein": 35.0, "carbohydrates": 40.0, "fat": 10.0,
+                   "explanation": "Frango com arroz", "confidence": 0.9},
+                  {"index": 1, "calories": 300, "protein": 14.0, "carbohydrates": 28.0, "fat": 12.0,
+                   "explanation": "Ovos com pão", "confidence": 0.8}
+                ]
+                """;
+
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callResponseSpec);
+        when(callResponseSpec.chatResponse()).thenReturn(responseOf(aiJsonResponse));
+
+        // act
+        List<CalorieEstimate> result = springAiAdapter.analyzeFoods(
+                List.of("2 ovos mexidos com pão", "200g frango grelhado com arroz"));
+
+        // assert
+        assertThat(result).extracting(CalorieEstimate::getCalories).containsExactly(300, 450);
+        verify(chatClient, times(1)).prompt();
+    }
+
+    @Test
+    @DisplayName("deve usar o modelo da rota da operação e registrar latência e tokens")
+    void analyzeFood_shouldUseRouteOptionsAndRecordMetrics() {
+        // arrange
+        appProperties.getAi().getRoutes().getAnalyzeFood().setModel("modelo-barato");
+        ChatResponse response = new ChatResponse(
+                List.of(new Generation(new AssistantMessage("{\"calories\": 300, \"confidence\": 0.9}"))),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(120, 40)).build());
+
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callResponseSpec);
+        when(callResponseSpec.chatResponse()).thenReturn(response);
+
+        // act
+        springAiAdapter.analyzeFood("200g frango grelhado com arroz");
+
+        // assert
+        ArgumentCaptor<ChatOptions> options = ArgumentCaptor.forClass(ChatOptions.class);
+        verify(requestSpec).options(options.capture());
+        assertThat(options.getValue().getModel()).isEqualTo("modelo-barato");
+        assertThat(options.getValue().getTemperature()).isEqualTo(0.1);
+        assertThat(options.getValue().getMaxTokens()).isEqualTo(300);
+
+        assertThat(meterRegistry.get("ai.call.latency")
+                .tags("operation", "analyze_food", "model", "modelo-barato", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.call.tokens")
+                .tags("operation", "analyze_food", "type", "prompt")
+                .summary().totalAmount()).isEqualTo(120.0);
+        assertThat(meterRegistry.get("ai.call.tokens")
+                .tags("operation", "analyze_food", "type", "completion")
+                .summary().totalAmount()).isEqualTo(40.0);
+    }
+
+    @Test
+    @DisplayName("deve escalar para o modelo forte quando a confiança da estimativa rápida é baixa")
+    void analyzeFood_shouldEscalate_whenConfidenceIsLow() {
+        // arrange
+        appProperties.getAi().getCascade().setEnabled(true);
+        appProperties.getAi().getRoutes().getAnalyzeFood().setModel("modelo-rapido");
+        appProperties.getAi().getRoutes().getAnalyzeFoodEscalation().setModel("modelo-forte");
+
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callResponseSpec);
+        when(callResponseSpec.chatResponse()).thenReturn(
+                responseOf("{\"calories\": 400, \"confidence\": 0.4}"),
+                responseOf("{\"calories\": 650, \"confidence\": 0.85}"));
+
+        // act
+        CalorieEstimate result = springAiAdapter.analyzeFood("prato feito do restaurante");
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(650);
+        ArgumentCaptor<ChatOptions> options = ArgumentCaptor.forClass(ChatOptions.class);
+        verify(requestSpec, times(2)).options(options.capture());
+        assertThat(options.getAllValues()).extracting(ChatOptions::getModel)
+                .containsExactly("modelo-rapido", "modelo-forte");
+        assertThat(meterRegistry.get("ai.cascade").tag("result", "escalated").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("ai.call.latency")
+                .tag("operation", "analyze_food_escalation").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve aceitar a estimativa rápida quando a confiança passa do limiar")
+    void analyzeFood_shouldNotEscalate_whenConfidenceIsHigh() {
+        // arrange
+        appProperties.getAi().getCascade().setEnabled(true);
+
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callResponseSpec);
+        when(callResponseSpec.chatResponse()).thenReturn(responseOf("{\"calories\": 155, \"confidence\": 0.9}"));
+
+        // act
+        CalorieEstimate result = springAiAdapter.analyzeFood("2 ovos cozidos");
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(155);
+        verify(chatClient, times(1)).prompt();
+        assertThat(meterRegistry.get("ai.cascade").tag("result", "accepted").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("deve compor a resposta assíncrona do chat a partir do stream")
+    void chatAsync_shouldJoinStreamedResponse() {
+        // arrange
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.user(any(String.class))).thenReturn(requestSpec);
+        when(requestSpec.stream()).thenReturn(streamResponseSpec);
+        when(streamResponseSpec.chatResponse()).thenReturn(Flux.just(responseOf("Sua dieta "), responseOf("está ótima!")));
+
+        // act & assert
+        StepVerifier.create(springAiAdapter.chatAsync("Como está minha dieta?", null))
+                .expectNext("Sua dieta está ótima!")
+                .verifyComplete();
+        assertThat(meterRegistry.get("ai.call.latency")
+                .tags("operation", "chat", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+}
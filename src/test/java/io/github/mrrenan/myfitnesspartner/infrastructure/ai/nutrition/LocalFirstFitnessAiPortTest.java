@@ -0,0 +1,97 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.application.port.out.FitnessAiPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LocalFirstFitnessAiPort")
+class LocalFirstFitnessAiPortTest {
+
+    @Mock private FitnessAiPort delegate;
+    @Mock private LocalNutritionResolver resolver;
+
+    private LocalFirstFitnessAiPort localFirstPort;
+
+    @BeforeEach
+    void setUp() {
+        localFirstPort = new LocalFirstFitnessAiPort(delegate, resolver, 0.8, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("deve responder localmente quando a confiança é suficiente")
+    void analyzeFood_shouldAnswerLocally_whenConfident() {
+        // arrange
+        when(resolver.resolve("2 ovos")).thenReturn(Optional.of(estimate(146, 0.9)));
+
+        // act
+        CalorieEstimate result = localFirstPort.analyzeFood("2 ovos");
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(146);
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("deve chamar a IA quando a confiança local é baixa")
+    void analyzeFood_shouldCallAi_whenLocalConfidenceIsLow() {
+        // arrange
+        when(resolver.resolve("pizza de calabresa")).thenReturn(Optional.of(estimate(560, 0.4)));
+        when(delegate.analyzeFood("pizza de calabresa")).thenReturn(estimate(600, 0.85));
+
+        // act
+        CalorieEstimate result = localFirstPort.analyzeFood("pizza de calabresa");
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(600);
+    }
+
+    @Test
+    @DisplayName("deve usar a estimativa local parcial quando a IA falha")
+    void analyzeFood_shouldServeLocalEstimate_whenAiFails() {
+        // arrange
+        when(resolver.resolve("pizza de calabresa")).thenReturn(Optional.of(estimate(560, 0.4)));
+        when(delegate.analyzeFood("pizza de calabresa")).thenThrow(new RuntimeException("timeout"));
+
+        // act
+        CalorieEstimate result = localFirstPort.analyzeFood("pizza de calabresa");
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(560);
+    }
+
+    @Test
+    @DisplayName("deve propagar o erro da IA quando não há estimativa local")
+    void analyzeFood_shouldRethrow_whenAiFailsAndNothingLocal() {
+        // arrange
+        when(resolver.resolve("prato desconhecido")).thenReturn(Optional.empty());
+        when(delegate.analyzeFood("prato desconhecido")).thenThrow(new RuntimeException("timeout"));
+
+        // act & assert
+        assertThatThrownBy(() -> localFirstPort.analyzeFood("prato desconhecido"))
+                .hasMessage("timeout");
+    }
+
+    private CalorieEstimate estimate(int calories, double confidence) {
+        return CalorieEstimate.builder()
+                .calories(calories)
+                .protein(0.0)
+                .carbohydrates(0.0)
+                .fat(0.0)
+                .explanation("teste")
+                .confidence(confidence)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LocalNutritionResolver")
+class LocalNutritionResolverTest {
+
+    private static LocalNutritionResolver resolver;
+
+    @BeforeAll
+    static void setUp() {
+        resolver = new LocalNutritionResolver();
+    }
+
+    @Test
+    @DisplayName("deve calcular calorias pela gramatura informada")
+    void resolve_shouldUseExplicitGrams() {
+        // act
+        Optional<CalorieEstimate> result = resolver.resolve("150g de arroz");
+
+        // assert — arroz cozido: 128 kcal / 100g
+        assertThat(result).isPresent();
+        assertThat(result.get().getCalories()).isEqualTo(192);
+        assertThat(result.get().getConfidence()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("deve usar o peso da unidade quando informada a quantidade")
+    void resolve_shouldUseUnitWeight() {
+        // act
+        Optional<CalorieEstimate> result = resolver.resolve("2 ovos");
+
+        // assert — 2 x 50g de ovo cozido (146 kcal / 100g)
+        assertThat(result).isPresent();
+        assertThat(result.get().getCalories()).isEqualTo(146);
+        assertThat(result.get().getConfidence()).isEqualTo(0.9);
+    }
+
+    @Test
+    @DisplayName("deve reconhecer nomes compostos e usar porção padrão")
+    void resolve_shouldMatchMultiWordFoodsWithDefaultPortions() {
+        // act
+        Optional<CalorieEstimate> result = resolver.resolve("Arroz, feijão e frango grelhado");
+
+        // assert — 150g arroz (192) + 140g feijão (106) + 120g frango (191)
+        assertThat(result).isPresent();
+        assertThat(result.get().getCalories()).isEqualTo(489);
+        assertThat(result.get().getConfidence()).isEqualTo(0.7);
+        assertThat(result.get().getExplanation()).contains("frango");
+    }
+
+    @Test
+    @DisplayName("deve reduzir a confiança quando parte da descrição não é reconhecida")
+    void resolve_shouldLowerConfidence_whenCoverageIsPartial() {
+        // act
+        Optional<CalorieEstimate> result =
+                resolver.resolve("pizza de calabresa com borda recheada de catupiry");
+
+        // assert
+        assertThat(result).isPresent();
+        assertThat(result.get().getConfidence()).isLessThan(0.5);
+    }
+
+    @Test
+    @DisplayName("deve retornar vazio quando nenhum alimento é reconhecido")
+    void resolve_shouldReturnEmpty_whenNothingMatches() {
+        assertThat(resolver.resolve("xyz qwerty")).isEmpty();
+        assertThat(resolver.resolve("")).isEmpty();
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.ai.simulator;
+
+import io.github.mrrenan.myfitnesspartner.application.dto.CalorieEstimate;
+import io.github.mrrenan.myfitnesspartner.infrastructure.ai.nutrition.LocalNutritionResolver;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AiSimulator")
+class AiSimulatorTest {
+
+    private AppProperties appProperties;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getAi().getSimulator().setUseFoodTable(false);
+    }
+
+    @Test
+    @DisplayName("deve gerar a mesma estimativa para descrições equivalentes")
+    void estimate_shouldBeDeterministic() {
+        // arrange
+        AiSimulator simulator = new AiSimulator(appProperties, new LocalNutritionResolver());
+        AiSimulator other = new AiSimulator(appProperties, new LocalNutritionResolver());
+
+        // act
+        CalorieEstimate first = simulator.estimate("Arroz, feijão e bife");
+        CalorieEstimate second = other.estimate("bife com arroz e feijão");
+
+        // assert
+        assertThat(first.getCalories()).isEqualTo(second.getCalories()).isBetween(150, 900);
+        assertThat(first.getConfidence()).isEqualTo(second.getConfidence());
+    }
+
+    @Test
+    @DisplayName("deve usar a tabela nutricional quando ela reconhece a refeição")
+    void estimate_shouldUseFoodTable_whenEnabled() {
+        // arrange
+        appProperties.getAi().getSimulator().setUseFoodTable(true);
+        AiSimulator simulator = new AiSimulator(appProperties, new LocalNutritionResolver());
+
+        // act
+        CalorieEstimate result = simulator.estimate("150g de arroz branco");
+
+        // assert
+        assertThat(result.getCalories()).isEqualTo(192);
+        assertThat(result.getExplanation()).startsWith("[simulado]");
+    }
+
+    @Test
+    @DisplayName("deve respeitar a distribuição de latência configurada")
+    void nextLatency_shouldFollowDistribution() {
+        // arrange
+        AppProperties.SimulatorLatency latency = appProperties.getAi().getSimulator().getLatency();
+        latency.setDistribution(AppProperties.SimulatorLatency.Distribution.UNIFORM);
+        latency.setMin(Duration.ofMillis(100));
+        latency.setMax(Duration.ofMillis(300));
+        AiSimulator simulator = new AiSimulator(appProperties, new LocalNutritionResolver());
+
+        // act & assert
+        for (int i = 0; i < 100; i++) {
+            assertThat(simulator.nextLatency()).isBetween(Duration.ofMillis(100), Duration.ofMillis(300));
+        }
+    }
+
+    @Test
+    @DisplayName("deve falhar sempre com taxa de erro 1 e nunca com taxa 0")
+    void nextFailure_shouldFollowErrorRate() {
+        // arrange
+        AiSimulator neverFails = new AiSimulator(appProperties, new LocalNutritionResolver());
+        AppProperties failing = new AppProperties();
+        failing.getAi().getSimulator().setErrorRate(1.0);
+        AiSimulator alwaysFails = new AiSimulator(failing, new LocalNutritionResolver());
+
+        // act & assert
+        for (int i = 0; i < 20; i++) {
+            assertThat(alwaysFails.nextFailure()).isTrue();
+            assertThat(neverFails.nextFailure()).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("deve quebrar a resposta em trechos que remontam o texto original")
+    void chunks_shouldRebuildOriginalText() {
+        // arrange
+        AiSimulator simulator = new AiSimulator(appProperties, new LocalNutritionResolver());
+        String reply = simulator.chatReply("Posso comer pizza no fim de semana?");
+
+        // act
+        List<String> chunks = simulator.chunks(reply);
+
+        // assert
+        assertThat(String.join("", chunks)).isEqualTo(reply);
+    }
+}
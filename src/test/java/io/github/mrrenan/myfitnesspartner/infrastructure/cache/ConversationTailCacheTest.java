@@ -0,0 +1,98 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mrrenan.myfitnesspartner.domain.model.Conversation;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("ConversationTailCache")
+class ConversationTailCacheTest {
+
+    private AppProperties appProperties;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getAi().getContext().setRecentMessages(2);
+        appProperties.getAi().getContext().setSummarizeBatchSize(2);
+    }
+
+    @Test
+    @DisplayName("deve acrescentar a rodada à cauda e manter só as últimas mensagens")
+    void recordTurn_shouldAppendAndTrimTail() {
+        // arrange
+        ConversationTailCache cache = newCache();
+        Conversation conversation = Conversation.builder().id(7L).messageCount(6).build();
+        List<Conversation.Message> history = List.of(message("a"), message("b"), message("c"), message("d"));
+
+        // act
+        cache.recordTurn(1L, conversation, 4, history, List.of(message("e"), message("f")));
+
+        // assert
+        ConversationTailCache.Tail tail = cache.get(1L).orElseThrow();
+        assertThat(tail.conversationId()).isEqualTo(7L);
+        assertThat(tail.messageCount()).isEqualTo(6);
+        assertThat(tail.messages()).extracting(Conversation.Message::getContent)
+                .containsExactly("c", "d", "e", "f");
+    }
+
+    @Test
+    @DisplayName("deve descartar a cauda quando outra rodada entrou no meio")
+    void recordTurn_shouldInvalidate_whenTurnsInterleaved() {
+        // arrange
+        ConversationTailCache cache = newCache();
+        Conversation conversation = Conversation.builder().id(7L).messageCount(4).build();
+        cache.recordTurn(1L, conversation, 2, List.of(), List.of(message("a"), message("b")));
+
+        // act — outra rodada reservou seqs antes desta
+        conversation.setMessageCount(8);
+        cache.recordTurn(1L, conversation, 4, List.of(), List.of(message("c"), message("d")));
+
+        // assert
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve remover as caudas menos usadas ao passar do limite de memória")
+    void get_shouldEvictLeastRecentlyUsed_whenOverMemoryLimit() {
+        // arrange
+        appProperties.getAi().getTailCache().setLocalMaxSize(DataSize.ofKilobytes(4));
+        ConversationTailCache cache = newCache();
+        String longText = "x".repeat(700);
+
+        // act
+        for (long userId = 1; userId <= 3; userId++) {
+            Conversation conversation = Conversation.builder().id(userId).messageCount(2).build();
+            cache.recordTurn(userId, conversation, 0, List.of(), List.of(message(longText), message(longText)));
+        }
+
+        // assert
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.get(3L)).isPresent();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConversationTailCache newCache() {
+        return new ConversationTailCache(appProperties, mock(RedisTemplate.class),
+                new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    private Conversation.Message message(String content) {
+        return Conversation.Message.builder()
+                .role("user")
+                .content(content)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
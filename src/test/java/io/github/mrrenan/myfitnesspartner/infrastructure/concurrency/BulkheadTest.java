@@ -0,0 +1,74 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.concurrency;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Bulkhead")
+class BulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new Bulkhead("twilio", new AppProperties.Limit(1, Duration.ofMillis(50)), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("deve recusar a chamada quando o limite está ocupado além da espera máxima")
+    void call_shouldReject_whenLimitReached() throws Exception {
+        // arrange — uma chamada segura a única vaga
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> bulkhead.run(() -> {
+            started.countDown();
+            await(release);
+        }));
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // act + assert
+        assertThatThrownBy(() -> bulkhead.call(() -> "ok"))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(meterRegistry.get("bulkhead.rejected").tag("dependency", "twilio").counter().count())
+                .isEqualTo(1.0);
+
+        release.countDown();
+        holder.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("deve liberar a vaga mesmo quando a chamada falha")
+    void call_shouldReleaseSlot_whenCallFails() {
+        // arrange
+        assertThatThrownBy(() -> bulkhead.call(() -> {
+            throw new IllegalStateException("Twilio fora do ar");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // act
+        String result = bulkhead.call(() -> "ok");
+
+        // assert
+        assertThat(result).isEqualTo("ok");
+        assertThat(bulkhead.getInFlight()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
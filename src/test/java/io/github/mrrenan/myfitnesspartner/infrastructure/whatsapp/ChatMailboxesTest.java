@@ -0,0 +1,107 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ChatMailboxes")
+class ChatMailboxesTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatMailboxes mailboxes;
+    private final List<String> started = new ArrayList<>();
+    private final List<Throwable> rejections = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getChat().getMailbox().setMaxPending(1);
+        meterRegistry = new SimpleMeterRegistry();
+
+        // Executor síncrono para o teste
+        mailboxes = new ChatMailboxes(appProperties, Runnable::run, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("deve processar as mensagens do mesmo remetente em ordem, uma por vez")
+    void submit_shouldRunSameSenderInOrder() {
+        // arrange
+        Sinks.Empty<Void> first = Sinks.empty();
+
+        // act
+        mailboxes.submit("+5511999999999", () -> track("primeira", first.asMono()), rejections::add);
+        mailboxes.submit("+5511999999999", () -> track("segunda", Mono.empty()), rejections::add);
+
+        // assert — a segunda só começa quando a primeira termina
+        assertThat(started).containsExactly("primeira");
+        first.tryEmitEmpty();
+        assertThat(started).containsExactly("primeira", "segunda");
+    }
+
+    @Test
+    @DisplayName("deve processar remetentes diferentes em paralelo")
+    void submit_shouldNotBlockOtherSenders() {
+        // act
+        mailboxes.submit("+5511999999999", () -> track("usuário 1", Sinks.empty().asMono()), rejections::add);
+        mailboxes.submit("+5511888888888", () -> track("usuário 2", Mono.empty()), rejections::add);
+
+        // assert
+        assertThat(started).containsExactly("usuário 1", "usuário 2");
+    }
+
+    @Test
+    @DisplayName("deve recusar mensagens quando a caixa do remetente está cheia")
+    void submit_shouldReject_whenMailboxFull() {
+        // arrange
+        Sinks.Empty<Void> first = Sinks.empty();
+        mailboxes.submit("+5511999999999", () -> track("primeira", first.asMono()), rejections::add);
+        mailboxes.submit("+5511999999999", () -> track("segunda", Mono.empty()), rejections::add);
+
+        // act
+        boolean accepted = mailboxes.submit("+5511999999999", () -> track("terceira", Mono.empty()),
+                rejections::add);
+
+        // assert
+        assertThat(accepted).isFalse();
+        assertThat(meterRegistry.get("chat.mailbox.submissions").tag("result", "rejected").counter().count())
+                .isEqualTo(1.0);
+        first.tryEmitEmpty();
+        assertThat(started).containsExactly("primeira", "segunda");
+        assertThat(meterRegistry.get("chat.mailbox.active").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve avisar quem enviou quando o executor recusa a tarefa")
+    void submit_shouldNotifyRejection_whenExecutorFull() {
+        // arrange — executor que sempre recusa, como o rejectionHandler do pool cheio
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ChatMailboxes rejecting = new ChatMailboxes(new AppProperties(), runnable -> {
+            throw new RejectedExecutionException("cheio");
+        }, registry);
+
+        // act
+        boolean accepted = rejecting.submit("+5511999999999", () -> track("primeira", Mono.empty()),
+                rejections::add);
+
+        // assert — a tarefa não rodou, mas quem enviou foi avisado e a caixa foi liberada
+        assertThat(accepted).isTrue();
+        assertThat(started).isEmpty();
+        assertThat(rejections).singleElement().isInstanceOf(RejectedExecutionException.class);
+        assertThat(registry.get("chat.mailbox.active").gauge().value()).isZero();
+    }
+
+    private Mono<?> track(String name, Mono<?> work) {
+        started.add(name);
+        return work;
+    }
+}
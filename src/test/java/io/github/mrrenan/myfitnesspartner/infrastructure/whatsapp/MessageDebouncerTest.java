@@ -0,0 +1,87 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MessageDebouncer")
+class MessageDebouncerTest {
+
+    private static final String FROM = "+5511999999999";
+
+    private AppProperties appProperties;
+    private VirtualTimeScheduler scheduler;
+    private final List<List<String>> flushed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getChat().getDebounce().setQuietPeriod(Duration.ofSeconds(2));
+        appProperties.getChat().getDebounce().setMaxWait(Duration.ofSeconds(6));
+        scheduler = VirtualTimeScheduler.create();
+    }
+
+    @Test
+    @DisplayName("deve entregar a rajada junta depois do silêncio")
+    void submit_shouldMergeBurst_afterQuietPeriod() {
+        // arrange
+        MessageDebouncer debouncer = newDebouncer();
+
+        // act
+        debouncer.submit(FROM, "almocei", flushed::add);
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        debouncer.submit(FROM, "arroz e feijão", flushed::add);
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        debouncer.submit(FROM, "e um bife", flushed::add);
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+        // assert — ainda dentro do silêncio
+        assertThat(flushed).isEmpty();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertThat(flushed).containsExactly(List.of("almocei", "arroz e feijão", "e um bife"));
+    }
+
+    @Test
+    @DisplayName("deve liberar a rajada ao atingir a espera máxima")
+    void submit_shouldFlush_whenMaxWaitReached() {
+        // arrange
+        MessageDebouncer debouncer = newDebouncer();
+
+        // act — o usuário não para de digitar
+        for (int i = 1; i <= 5; i++) {
+            debouncer.submit(FROM, "parte " + i, flushed::add);
+            scheduler.advanceTimeBy(Duration.ofMillis(1500));
+        }
+
+        // assert
+        assertThat(flushed).containsExactly(List.of("parte 1", "parte 2", "parte 3", "parte 4"));
+    }
+
+    @Test
+    @DisplayName("deve repassar cada mensagem na hora quando desabilitado")
+    void submit_shouldPassThrough_whenDisabled() {
+        // arrange
+        appProperties.getChat().getDebounce().setEnabled(false);
+        MessageDebouncer debouncer = newDebouncer();
+
+        // act
+        debouncer.submit(FROM, "almocei", flushed::add);
+        debouncer.submit(FROM, "arroz e feijão", flushed::add);
+
+        // assert
+        assertThat(flushed).containsExactly(List.of("almocei"), List.of("arroz e feijão"));
+    }
+
+    private MessageDebouncer newDebouncer() {
+        return new MessageDebouncer(appProperties, new SimpleMeterRegistry(), scheduler);
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.domain.repository.InboundMessageRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageSidDeduplicator")
+class MessageSidDeduplicatorTest {
+
+    private static final String SID = "SM1234567890abcdef";
+
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private InboundMessageRepository inboundMessageRepository;
+
+    private AppProperties appProperties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("deve aceitar a primeira entrega sem consultar o banco")
+    void firstSeen_shouldAccept_withoutDatabase_whenNeverSeen() {
+        // arrange — sem Redis: só o filtro local e o banco
+        appProperties.getChat().getDedup().setRedisEnabled(false);
+        MessageSidDeduplicator deduplicator = newDeduplicator();
+
+        // act
+        boolean first = deduplicator.firstSeen(SID);
+
+        // assert
+        assertThat(first).isTrue();
+        verifyNoInteractions(inboundMessageRepository, redisTemplate);
+    }
+
+    @Test
+    @DisplayName("deve descartar a retentativa do Twilio confirmada no banco")
+    void firstSeen_shouldReject_whenRetried() {
+        // arrange — sem Redis: só o filtro local e o banco
+        appProperties.getChat().getDedup().setRedisEnabled(false);
+        MessageSidDeduplicator deduplicator = newDeduplicator();
+        deduplicator.firstSeen(SID);
+        when(inboundMessageRepository.existsByMessageSid(SID)).thenReturn(true);
+
+        // act
+        boolean first = deduplicator.firstSeen(SID);
+
+        // assert
+        assertThat(first).isFalse();
+        assertThat(meterRegistry.get("chat.dedup").tag("result", "duplicate").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("deve decidir pelo SET NX do Redis, habilitado por padrão")
+    void firstSeen_shouldUseRedis_byDefault() {
+        // arrange
+        MessageSidDeduplicator deduplicator = newDeduplicator();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), eq("1"), any(Duration.class)))
+                .thenReturn(true, false);
+
+        // act
+        boolean first = deduplicator.firstSeen(SID);
+        boolean retry = deduplicator.firstSeen(SID);
+
+        // assert — o Redis é compartilhado entre instâncias: dispensa o banco
+        assertThat(first).isTrue();
+        assertThat(retry).isFalse();
+        verify(valueOperations, times(2))
+                .setIfAbsent(eq("whatsapp:message-sid:" + SID), eq("1"), eq(Duration.ofHours(24)));
+        verifyNoInteractions(inboundMessageRepository);
+    }
+
+    private MessageSidDeduplicator newDeduplicator() {
+        return new MessageSidDeduplicator(appProperties, redisTemplate, inboundMessageRepository, meterRegistry);
+    }
+}
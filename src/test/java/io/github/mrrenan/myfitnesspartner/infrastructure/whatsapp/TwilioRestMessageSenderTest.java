@@ -0,0 +1,85 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.TwilioProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TwilioRestMessageSender")
+class TwilioRestMessageSenderTest {
+
+    private TwilioProperties twilioProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicReference<ClientRequest> request = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        twilioProperties = new TwilioProperties();
+        twilioProperties.setAccountSid("AC0123456789");
+        twilioProperties.setAuthToken("token");
+        twilioProperties.setWhatsappNumber("whatsapp:+14155238886");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("deve enviar pela API REST e retornar o SID da mensagem")
+    void sendMessageAsync_shouldReturnSid() {
+        // arrange
+        TwilioRestMessageSender sender = newSender(HttpStatus.CREATED, "{\"sid\":\"SM123\",\"status\":\"queued\"}");
+
+        // act
+        String sid = sender.sendMessageAsync("+5511999999999", "Olá!").join();
+
+        // assert
+        assertThat(sid).isEqualTo("SM123");
+        assertThat(request.get().method()).isEqualTo(HttpMethod.POST);
+        assertThat(request.get().url().toString())
+                .isEqualTo("https://api.twilio.com/2010-04-01/Accounts/AC0123456789/Messages.json");
+        assertThat(request.get().headers().getFirst(HttpHeaders.AUTHORIZATION)).startsWith("Basic ");
+        assertThat(meterRegistry.get("whatsapp.send")
+                .tag("sender", "rest").tag("destination", "55").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve falhar com WhatsAppSendException e o status quando o Twilio recusa")
+    void sendMessage_shouldThrow_whenTwilioRejects() {
+        // arrange
+        TwilioRestMessageSender sender = newSender(HttpStatus.BAD_REQUEST, "{\"code\":21211,\"message\":\"Invalid 'To'\"}");
+
+        // act / assert — a versão bloqueante desembrulha o erro do futuro
+        assertThatThrownBy(() -> sender.sendMessage("+5511999999999", "Olá!"))
+                .isInstanceOf(WhatsAppSendException.class)
+                .satisfies(e -> assertThat(((WhatsAppSendException) e).getStatus()).isEqualTo(400));
+        assertThat(meterRegistry.get("whatsapp.send").tag("outcome", "error").timer().count())
+                .isEqualTo(1);
+    }
+
+    private TwilioRestMessageSender newSender(HttpStatus status, String body) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(clientRequest -> {
+                    request.set(clientRequest);
+                    return Mono.just(ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        return new TwilioRestMessageSender(twilioProperties, webClient,
+                new WhatsAppSendMetrics("rest", meterRegistry));
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.application.service.TimedTransactions;
+import io.github.mrrenan.myfitnesspartner.domain.model.InboundMessage;
+import io.github.mrrenan.myfitnesspartner.domain.model.InboundMessageStatus;
+import io.github.mrrenan.myfitnesspartner.domain.repository.InboundMessageRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Bulkheads;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WhatsAppInbox")
+class WhatsAppInboxTest {
+
+    @Mock private InboundMessageRepository repository;
+    @Mock private WhatsAppWebhookHandler webhookHandler;
+    @Mock private MessageSidDeduplicator deduplicator;
+
+    private AppProperties appProperties;
+    private WhatsAppInbox inbox;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getChat().getInbox().setMaxAttempts(3);
+        appProperties.getChat().getInbox().setInitialBackoff(Duration.ofSeconds(10));
+        appProperties.getChat().getInbox().setMaxBackoff(Duration.ofMinutes(1));
+
+        TimedTransactions transactions = new TimedTransactions(
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                new Bulkheads(appProperties, new SimpleMeterRegistry()));
+        inbox = new WhatsAppInbox(repository, transactions, webhookHandler, deduplicator,
+                appProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("deve ignorar o webhook que outro nó já gravou, pelo índice único do MessageSid")
+    void accept_shouldIgnoreDuplicate_whenUniqueIndexRejects() {
+        // arrange — os dois nós passaram pelo deduplicador (ex.: Redis fora do ar)
+        when(deduplicator.firstSeen("SM123")).thenReturn(true);
+        when(repository.save(any(InboundMessage.class)))
+                .thenThrow(new DataIntegrityViolationException("idx_inbound_message_sid"));
+
+        // act
+        inbox.accept("+5511999999999", "Oi", "SM123");
+
+        // assert — a outra entrega segue sendo a única; o SID continua registrado
+        verify(deduplicator, never()).forget(any());
+    }
+
+    @Test
+    @DisplayName("deve marcar a mensagem como respondida quando a resposta termina")
+    void finish_shouldMarkDone_whenSucceeded() {
+        // arrange
+        InboundMessage message = processing(1);
+        when(repository.findById(1L)).thenReturn(Optional.of(message));
+
+        // act
+        inbox.finish(1L, 1, null);
+
+        // assert
+        assertThat(message.getStatus()).isEqualTo(InboundMessageStatus.DONE);
+        assertThat(message.getProcessedAt()).isNotNull();
+        assertThat(message.getLockedUntil()).isNull();
+    }
+
+    @Test
+    @DisplayName("deve reagendar com backoff e descartar após o máximo de tentativas")
+    void finish_shouldRetryWithBackoff_thenDead() {
+        // arrange
+        InboundMessage message = processing(1);
+        when(repository.findById(1L)).thenReturn(Optional.of(message));
+
+        // act
+        inbox.finish(1L, 1, new IllegalStateException("IA fora do ar"));
+
+        // assert
+        assertThat(message.getStatus()).isEqualTo(InboundMessageStatus.PENDING);
+        assertThat(message.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(7));
+        assertThat(message.getLastError()).isEqualTo("IA fora do ar");
+
+        // act — última tentativa
+        message.setStatus(InboundMessageStatus.PROCESSING);
+        message.setAttempts(3);
+        inbox.finish(1L, 3, new IllegalStateException("IA fora do ar"));
+
+        // assert
+        assertThat(message.getStatus()).isEqualTo(InboundMessageStatus.DEAD);
+    }
+
+    @Test
+    @DisplayName("não deve mexer na mensagem reivindicada por outra tentativa")
+    void finish_shouldIgnoreStaleAttempt() {
+        // arrange — o arrendamento expirou e outro nó já está na tentativa 2
+        InboundMessage message = processing(2);
+        when(repository.findById(1L)).thenReturn(Optional.of(message));
+
+        // act
+        inbox.finish(1L, 1, null);
+
+        // assert
+        assertThat(message.getStatus()).isEqualTo(InboundMessageStatus.PROCESSING);
+    }
+
+    @Test
+    @DisplayName("deve limitar o backoff ao máximo configurado")
+    void backoff_shouldBeCapped() {
+        // act
+        Duration backoff = inbox.backoff(10);
+
+        // assert — máximo de 1 minuto com até 20% de variação
+        assertThat(backoff).isBetween(Duration.ofSeconds(48), Duration.ofSeconds(72));
+    }
+
+    private InboundMessage processing(int attempts) {
+        return InboundMessage.builder()
+                .id(1L)
+                .fromNumber("+5511999999999")
+                .body("almocei arroz e feijão")
+                .status(InboundMessageStatus.PROCESSING)
+                .attempts(attempts)
+                .lockedUntil(LocalDateTime.now().plusMinutes(5))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
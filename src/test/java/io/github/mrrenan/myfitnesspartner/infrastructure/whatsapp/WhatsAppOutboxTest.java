@@ -0,0 +1,192 @@
+package io.github.mrrenan.myfitnesspartner.infrastructure.whatsapp;
+
+import io.github.mrrenan.myfitnesspartner.application.service.TimedTransactions;
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundDeadLetter;
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundMessage;
+import io.github.mrrenan.myfitnesspartner.domain.model.OutboundMessageStatus;
+import io.github.mrrenan.myfitnesspartner.domain.repository.OutboundDeadLetterRepository;
+import io.github.mrrenan.myfitnesspartner.domain.repository.OutboundMessageRepository;
+import io.github.mrrenan.myfitnesspartner.infrastructure.concurrency.Bulkheads;
+import io.github.mrrenan.myfitnesspartner.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WhatsAppOutbox")
+class WhatsAppOutboxTest {
+
+    @Mock private OutboundMessageRepository repository;
+    @Mock private OutboundDeadLetterRepository deadLetterRepository;
+    @Mock private WhatsAppMessageSender messageSender;
+
+    private AppProperties appProperties;
+    private WhatsAppOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getChat().getOutbox().setMaxAttempts(3);
+        appProperties.getChat().getOutbox().setInitialBackoff(Duration.ofSeconds(10));
+
+        TimedTransactions transactions = new TimedTransactions(
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                new Bulkheads(appProperties, new SimpleMeterRegistry()));
+        outbox = new WhatsAppOutbox(repository, deadLetterRepository, transactions, messageSender,
+                Runnable::run, appProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("deve marcar como enviada e guardar o SID do Twilio")
+    void finish_shouldMarkSent_whenTwilioAccepted() {
+        // arrange
+        OutboundMessage message = sending(1);
+        when(repository.findById(1L)).thenReturn(Optional.of(message));
+
+        // act
+        outbox.finish(1L, 1, "SM123", null);
+
+        // assert
+        assertThat(message.getStatus()).isEqualTo(OutboundMessageStatus.SENT);
+        assertThat(message.getTwilioSid()).isEqualTo("SM123");
+        assertThat(message.getSentAt()).isNotNull();
+        assertThat(message.getLockedUntil()).isNull();
+    }
+
+    @Test
+    @DisplayName("deve reagendar com backoff quando o Twilio falha temporariamente")
+    void finish_shouldRetryWithBackoff_whenTransient() {
+        // arrange
+        OutboundMessage message = sending(1);
+        when(repository.findById(1L)).thenReturn(Optional.of(message));
+
+        // act
+        outbox.finish(1L, 1, null, new WhatsAppSendException("Too Many Requests", 429, null));
+
+        // assert — 10s com até 20% de variação
+        assertThat(message.getStatus()).isEqualTo(OutboundMessageStatus.PENDING);
+        assertThat(message.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(7));
+        verifyNoInteractions(deadLetterRepository);
+    }
+
+    @Test
+    @DisplayName("deve mover para a dead-letter quando o Twilio recusa a mensagem")
+    void finish_shouldDeadLetter_whenRejected() {
+        // arrange
+        OutboundMessage message = sending(1);
+        when(repository.findById(1L)).thenReturn(Optional.of(message));
+
+        // act
+        outbox.finish(1L, 1, null, new WhatsAppSendException("Invalid 'To'", 400, null));
+
+        // assert — sai da fila para não segurar as próximas mensagens do número
+        ArgumentCaptor<OutboundDeadLetter> captor = ArgumentCaptor.forClass(OutboundDeadLetter.class);
+        verify(deadLetterRepository).save(captor.capture());
+        assertThat(captor.getValue().getOutboundMessageId()).isEqualTo(1L);
+        assertThat(captor.getValue().getBody()).isEqualTo("Você consumiu 650 kcal hoje.");
+        assertThat(captor.getValue().getLastStatus()).isEqualTo(400);
+        verify(repository).delete(message);
+    }
+
+    @Test
+    @DisplayName("deve reenviar a dead-letter uma única vez, sem chamar a IA")
+    void replay_shouldEnqueueCopy_once() {
+        // arrange
+        OutboundDeadLetter deadLetter = OutboundDeadLetter.builder()
+                .id(7L)
+                .outboundMessageId(1L)
+                .toNumber("+5511999999999")
+                .body("Você consumiu 650 kcal hoje.")
+                .attempts(3)
+                .lastStatus(0)
+                .deadAt(LocalDateTime.now())
+                .build();
+        when(deadLetterRepository.findById(7L)).thenReturn(Optional.of(deadLetter));
+        when(repository.save(any(OutboundMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // act
+        Optional<OutboundMessage> first = outbox.replay(7L);
+        Optional<OutboundMessage> second = outbox.replay(7L);
+
+        // assert
+        assertThat(first).get()
+                .extracting(OutboundMessage::getBody)
+                .isEqualTo("Você consumiu 650 kcal hoje.");
+        assertThat(first.get().getStatus()).isEqualTo(OutboundMessageStatus.PENDING);
+        assertThat(deadLetter.getReplayedAt()).isNotNull();
+        assertThat(second).isEmpty();
+        verify(repository, times(1)).save(any(OutboundMessage.class));
+    }
+
+    @Test
+    @DisplayName("não deve enfileirar de novo a resposta a uma mensagem já respondida")
+    void enqueue_shouldIgnoreDuplicateReply() {
+        // arrange — o índice único de reply_to_sid recusa a segunda resposta
+        when(repository.save(any(OutboundMessage.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataIntegrityViolationException("idx_outbound_message_reply_to"));
+
+        // act
+        outbox.enqueue("+5511999999999", "Você consumiu 650 kcal hoje.", "SM123");
+        outbox.enqueue("+5511999999999", "Você consumiu 650 kcal hoje.", "SM123");
+
+        // assert
+        ArgumentCaptor<OutboundMessage> captor = ArgumentCaptor.forClass(OutboundMessage.class);
+        verify(repository, times(2)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(OutboundMessage::getReplyToSid).containsOnly("SM123");
+    }
+
+    @Test
+    @DisplayName("deve concluir o envio mesmo quando o executor recusa a conclusão")
+    void dispatch_shouldFinishInline_whenExecutorRejects() {
+        // arrange
+        TimedTransactions transactions = new TimedTransactions(
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                new Bulkheads(appProperties, new SimpleMeterRegistry()));
+        WhatsAppOutbox rejecting = new WhatsAppOutbox(repository, deadLetterRepository, transactions, messageSender,
+                runnable -> {
+                    throw new RejectedExecutionException("cheio");
+                }, appProperties, new SimpleMeterRegistry());
+        OutboundMessage message = sending(1);
+        when(messageSender.sendMessageAsync("+5511999999999", "Você consumiu 650 kcal hoje."))
+                .thenReturn(CompletableFuture.completedFuture("SM123"));
+        when(repository.findById(1L)).thenReturn(Optional.of(message));
+
+        // act
+        rejecting.dispatch(message);
+
+        // assert — concluída na própria thread do envio, sem ficar presa em andamento
+        assertThat(message.getStatus()).isEqualTo(OutboundMessageStatus.SENT);
+        assertThat(message.getTwilioSid()).isEqualTo("SM123");
+    }
+
+    private OutboundMessage sending(int attempts) {
+        return OutboundMessage.builder()
+                .id(1L)
+                .toNumber("+5511999999999")
+                .body("Você consumiu 650 kcal hoje.")
+                .status(OutboundMessageStatus.SENDING)
+                .attempts(attempts)
+                .lockedUntil(LocalDateTime.now().plusMinutes(2))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
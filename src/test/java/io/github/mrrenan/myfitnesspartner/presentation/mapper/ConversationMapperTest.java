@@ -1,11 +1,14 @@
 package io.github.mrrenan.myfitnesspartner.presentation.mapper;
 
 import io.github.mrrenan.myfitnesspartner.domain.model.*;
+import io.github.mrrenan.myfitnesspartner.domain.repository.ConversationSummary;
 import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationResponse;
+import io.github.mrrenan.myfitnesspartner.presentation.dto.ConversationSummaryResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,19 +36,21 @@ class ConversationMapperTest {
     }
 
     @Test
-    @DisplayName("deve converter Conversation para ConversationResponse")
+    @DisplayName("deve converter Conversation e suas mensagens para ConversationResponse")
     void toResponse_shouldMapCorrectly() {
         // arrange
         User user = buildUser();
         Conversation conversation = Conversation.builder()
                 .id(1L)
                 .user(user)
+                .messageCount(2)
                 .build();
-        conversation.addUserMessage("Qual minha meta?");
-        conversation.addAssistantMessage("Sua meta é 2387 calorias!");
+        List<Conversation.Message> messages = List.of(
+                message("user", "Qual minha meta?"),
+                message("assistant", "Sua meta é 2387 calorias!"));
 
         // act
-        ConversationResponse response = conversationMapper.toResponse(conversation);
+        ConversationResponse response = conversationMapper.toResponse(conversation, messages);
 
         // assert
         assertThat(response.getId()).isEqualTo(1L);
@@ -57,20 +62,28 @@ class ConversationMapperTest {
     }
 
     @Test
-    @DisplayName("deve converter lista de Conversations")
-    void toResponseList_shouldMapAllConversations() {
+    @DisplayName("deve converter resumo da conversa sem última mensagem quando está vazia")
+    void toSummaryResponse_shouldMapEmptyConversation() {
         // arrange
-        User user = buildUser();
-        List<Conversation> conversations = List.of(
-                Conversation.builder().id(1L).user(user).build(),
-                Conversation.builder().id(2L).user(user).build()
-        );
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 10, 12, 0);
+        ConversationSummary summary = new ConversationSummary(1L, 0, null, null, createdAt, createdAt);
 
         // act
-        List<ConversationResponse> responses =
-                conversationMapper.toResponseList(conversations);
+        ConversationSummaryResponse response = conversationMapper.toSummaryResponse(summary);
 
         // assert
-        assertThat(responses).hasSize(2);
+        assertThat(response.getId()).isEqualTo(1L);
+        assertThat(response.getMessageCount()).isZero();
+        assertThat(response.getLastMessagePreview()).isNull();
+        assertThat(response.getLastMessageAt()).isNull();
+        assertThat(response.getCreatedAt()).isEqualTo(createdAt);
+    }
+
+    private Conversation.Message message(String role, String content) {
+        return Conversation.Message.builder()
+                .role(role)
+                .content(content)
+                .timestamp(LocalDateTime.now())
+                .build();
     }
-}
\ No newline at end of file
+}